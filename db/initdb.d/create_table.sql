@@ -1,6 +1,6 @@
 /*
  id varchar(20)
- status, event varchar(10) - enum
+ status, event varchar(10) - enum (pass.status는 IN_PROGRESS가 들어가야 해서 varchar(20))
  그 외 varchar(50)
  */
 
@@ -20,14 +20,16 @@ CREATE TABLE `pass`
     `pass_seq`        int         NOT NULL AUTO_INCREMENT COMMENT '이용권 순번',
     `package_seq`     int         NOT NULL COMMENT '패키지 순번',
     `user_id`         varchar(20) NOT NULL COMMENT '사용자 ID',
-    `status`          varchar(10) NOT NULL COMMENT '상태',
+    `status`          varchar(20) NOT NULL COMMENT '상태',
     `remaining_count` int                  DEFAULT NULL COMMENT '잔여 이용권 수, NULL인 경우 무제한',
     `started_at`      timestamp   NOT NULL COMMENT '시작 일시',
     `ended_at`        timestamp            DEFAULT NULL COMMENT '종료 일시, NULL인 경우 무제한',
     `expired_at`      timestamp            DEFAULT NULL COMMENT '만료 일시',
     `created_at`      timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일시',
     `modified_at`     timestamp            DEFAULT NULL COMMENT '수정 일시',
-    PRIMARY KEY (`pass_seq`)
+    PRIMARY KEY (`pass_seq`),
+    INDEX idx_pass_status_ended_at (`status`, `ended_at`),
+    INDEX idx_pass_status_started_at (`status`, `started_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='이용권';
 
 CREATE TABLE `bulk_pass`
@@ -41,7 +43,8 @@ CREATE TABLE `bulk_pass`
     `ended_at`        timestamp            DEFAULT NULL COMMENT '종료 일시, NULL인 경우 무제한',
     `created_at`      timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일시',
     `modified_at`     timestamp            DEFAULT NULL COMMENT '수정 일시',
-    PRIMARY KEY (`bulk_pass_seq`)
+    PRIMARY KEY (`bulk_pass_seq`),
+    INDEX idx_bulk_pass_status_started_at (`status`, `started_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='대량 이용권, 다수의 이용자에게 이용권을 지급하기 위함';
 
 CREATE TABLE `booking`
@@ -57,7 +60,10 @@ CREATE TABLE `booking`
     `cancelled_at` timestamp            DEFAULT NULL COMMENT '취소 일시',
     `created_at`   timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일시',
     `modified_at`  timestamp            DEFAULT NULL COMMENT '수정 일시',
-    PRIMARY KEY (`booking_seq`)
+    PRIMARY KEY (`booking_seq`),
+    INDEX idx_booking_ended_at (`ended_at`),
+    INDEX idx_booking_modified_at_ended_at (`modified_at`, `ended_at`),
+    INDEX idx_booking_used_pass_status (`used_pass`, `status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='예약';
 
 CREATE TABLE `user`
@@ -93,7 +99,8 @@ CREATE TABLE `notification`
     `sent_at`          timestamp              DEFAULT NULL COMMENT '발송 일시',
     `created_at`       timestamp     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일시',
     `modified_at`      timestamp              DEFAULT NULL COMMENT '수정 일시',
-    PRIMARY KEY (`notification_seq`)
+    PRIMARY KEY (`notification_seq`),
+    INDEX idx_notification_sent (`sent`, `notification_seq`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='알람';
 
 CREATE TABLE `statistics`
@@ -104,5 +111,29 @@ CREATE TABLE `statistics`
     `attended_count`      int       NOT NULL DEFAULT 0 COMMENT '출석 횟수',
     `cancelled_count`     int       NOT NULL DEFAULT 0 COMMENT '취소 횟수',
     PRIMARY KEY (`statistics_seq`),
-    INDEX idx_statistics_at (`statistics_at`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='통계';
\ No newline at end of file
+    UNIQUE KEY uk_statistics_at (`statistics_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='통계';
+
+CREATE TABLE `watermark`
+(
+    `watermark_name` varchar(100) NOT NULL COMMENT '워터마크 이름',
+    `watermark_at`   timestamp    NOT NULL COMMENT '마지막으로 처리한 일시',
+    `created_at`     timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일시',
+    `modified_at`    timestamp             DEFAULT NULL COMMENT '수정 일시',
+    PRIMARY KEY (`watermark_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='워터마크, 배치가 마지막으로 처리한 위치';
+
+CREATE TABLE `dead_letter`
+(
+    `dead_letter_seq`   bigint        NOT NULL AUTO_INCREMENT COMMENT 'dead letter 순번',
+    `job_name`          varchar(100)           DEFAULT NULL COMMENT 'job 이름',
+    `step_name`         varchar(100)           DEFAULT NULL COMMENT 'step 이름',
+    `step_execution_id` bigint                 DEFAULT NULL COMMENT 'step 실행 ID',
+    `item_type`         varchar(255)           DEFAULT NULL COMMENT 'item 클래스',
+    `item`              varchar(4000)          DEFAULT NULL COMMENT 'item 내용',
+    `error`             varchar(1000) NOT NULL COMMENT '건너뛴 원인',
+    `created_at`        timestamp     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일시',
+    `modified_at`       timestamp              DEFAULT NULL COMMENT '수정 일시',
+    PRIMARY KEY (`dead_letter_seq`),
+    INDEX idx_dead_letter_step (`job_name`, `step_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='배치가 처리하지 못하고 건너뛴 item';
\ No newline at end of file
@@ -0,0 +1,18 @@
+/*
+ pass.status를 enum 순번(0, 1, 2)에서 enum 이름(READY, IN_PROGRESS, EXPIRED)으로 바꾼다.
+ PassEntity.status가 @Enumerated(EnumType.STRING)으로 매핑되고, 배치의 JDBC 쿼리도 상태 이름으로 조회하기 때문에
+ 이전 버전으로 만든 DB는 새 버전의 배치를 실행하기 전에 한 번 실행해야 한다. (db/initdb.d로 새로 만든 DB는 실행하지 않아도 된다)
+ 이미 이름으로 바뀐 row는 건드리지 않기 때문에 다시 실행해도 된다.
+ */
+
+-- IN_PROGRESS(11자)가 들어갈 수 있도록 먼저 컬럼을 늘린다.
+ALTER TABLE `pass`
+    MODIFY `status` varchar(20) NOT NULL COMMENT '상태';
+
+UPDATE `pass`
+SET `status` = CASE `status`
+                   WHEN '0' THEN 'READY'
+                   WHEN '1' THEN 'IN_PROGRESS'
+                   WHEN '2' THEN 'EXPIRED'
+    END
+WHERE `status` IN ('0', '1', '2');
@@ -0,0 +1,147 @@
+package com.fastcampus.pass.benchmark;
+
+import com.fastcampus.pass.PassBatchApplication;
+import com.fastcampus.pass.util.LocalDateTimeUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.step.AbstractStep;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 합성 데이터를 embedded H2(MySQL 모드)에 만들고, 배치 job을 차례로 실행해서 step별 처리량을 JSON 리포트로 남긴다.
+ * 예) ./gradlew jobBenchmark -PbenchmarkArgs="--benchmark.users=1000000 --benchmark.bookings=5000000"
+ *
+ * 옵션 (괄호 안은 기본값)
+ * - benchmark.seed (42), benchmark.users (100000), benchmark.groups (100), benchmark.passes (users), benchmark.expiredRatio (0.3)
+ * - benchmark.bookings (users * 2), benchmark.statisticsDays (30)
+ * - benchmark.jobs (addPassesJob,expirePassesJob,makeStatisticsJob): 실행할 job 이름
+ * - benchmark.<job 이름>.parameters: job에 추가로 넘길 파라미터. 예) --benchmark.addPassesJob.parameters=mode=TASKLET
+ * - benchmark.report (build/reports/job-benchmark/results.json)
+ */
+@Slf4j
+public class JobBenchmarkRunner {
+    private static final String DATASOURCE_URL = "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    public static void main(String[] args) throws Exception {
+        final StepMetricsListener stepMetricsListener = new StepMetricsListener();
+
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(PassBatchApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + DATASOURCE_URL,
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.jpa.show-sql=false",
+                        "spring.batch.job.enabled=false")
+                // 모든 step에 StepMetricsListener를 등록한다.
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        if (bean instanceof AbstractStep step) {
+                            step.registerStepExecutionListener(stepMetricsListener);
+                        }
+                        return bean;
+                    }
+                }))
+                .run(args);
+
+        try {
+            run(context, stepMetricsListener);
+
+        } finally {
+            context.close();
+
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext context, StepMetricsListener stepMetricsListener) throws Exception {
+        final Environment environment = context.getEnvironment();
+        final long seed = environment.getProperty("benchmark.seed", Long.class, 42L);
+        final int users = environment.getProperty("benchmark.users", Integer.class, 100_000);
+        final int groups = environment.getProperty("benchmark.groups", Integer.class, 100);
+        final int passes = environment.getProperty("benchmark.passes", Integer.class, users);
+        final double expiredRatio = environment.getProperty("benchmark.expiredRatio", Double.class, 0.3);
+        final int bookings = environment.getProperty("benchmark.bookings", Integer.class, users * 2);
+        final int statisticsDays = environment.getProperty("benchmark.statisticsDays", Integer.class, 30);
+        final String[] jobNames = environment.getProperty("benchmark.jobs", String[].class, new String[]{"addPassesJob", "expirePassesJob", "makeStatisticsJob"});
+        final Path reportPath = Path.of(environment.getProperty("benchmark.report", "build/reports/job-benchmark/results.json"));
+
+        // 스키마 생성: 서비스 테이블은 db/initdb.d/create_table.sql, 배치 메타 테이블은 Spring Batch의 H2 스크립트를 사용한다.
+        final DataSource dataSource = context.getBean(DataSource.class);
+        new ResourceDatabasePopulator(
+                new FileSystemResource("db/initdb.d/create_table.sql"),
+                new ClassPathResource("org/springframework/batch/core/schema-h2.sql")).execute(dataSource);
+
+        final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+        final LocalDateTime statisticsFrom = now.minusDays(statisticsDays).toLocalDate().atStartOfDay();
+        final long generateStartedAt = System.nanoTime();
+        final Map<String, Long> generated = new SyntheticDataGenerator(new JdbcTemplate(dataSource), seed, now)
+                .generate(users, groups, passes, expiredRatio, bookings, statisticsFrom, statisticsDays);
+        final long generateMillis = (System.nanoTime() - generateStartedAt) / 1_000_000;
+
+        final JobLauncher jobLauncher = context.getBean(JobLauncher.class);
+        List<JobResult> jobResults = new ArrayList<>();
+        for (String jobName : jobNames) {
+            JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
+                    .addLong("benchmark.startedAt", System.currentTimeMillis());
+            if ("makeStatisticsJob".equals(jobName)) {
+                jobParametersBuilder.addString("from", LocalDateTimeUtils.format(statisticsFrom));
+                jobParametersBuilder.addString("to", LocalDateTimeUtils.format(now));
+            }
+            for (String parameter : environment.getProperty("benchmark." + jobName + ".parameters", String[].class, new String[0])) {
+                final String[] keyValue = parameter.split("=", 2);
+                jobParametersBuilder.addString(keyValue[0], keyValue[1]);
+            }
+
+            System.gc();
+            final JobExecution jobExecution = jobLauncher.run(context.getBean(jobName, Job.class), jobParametersBuilder.toJobParameters());
+            final long wallMillis = Duration.between(jobExecution.getStartTime(), jobExecution.getEndTime()).toMillis();
+            jobResults.add(new JobResult(jobName, jobExecution.getStatus().name(), wallMillis, stepMetricsListener.getResults(jobName)));
+            log.info("JobBenchmarkRunner - run: {} {} {}ms", jobName, jobExecution.getStatus(), wallMillis);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", seed);
+        report.put("jvm", ManagementFactory.getRuntimeMXBean().getVmVersion());
+        report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        report.put("generated", generated);
+        report.put("generateMillis", generateMillis);
+        report.put("jobs", jobResults);
+
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+        jobResults.forEach(jobResult -> jobResult.steps().forEach(step ->
+                log.info("{} / {}: {} rows/s, {} commits, {}ms, peak heap {}MB", jobResult.jobName(), step.stepName(),
+                        String.format("%.0f", step.rowsPerSecond()), step.commitCount(), step.wallMillis(), step.peakHeapBytes() / (1024 * 1024))));
+        log.info("JobBenchmarkRunner - report: {}", reportPath.toAbsolutePath());
+    }
+
+    public record JobResult(String jobName, String status, long wallMillis, List<StepMetricsListener.StepResult> steps) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.fastcampus.pass.benchmark;
+
+import com.fastcampus.pass.util.LocalDateTimeUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PassBatchLauncher로 job 하나를 새 JVM에서 실행하는 시간을 실행 방식(mode)별로 재서 JSON 리포트로 남긴다.
+ * 데이터가 없는 H2 파일 DB(MySQL 모드)를 사용하기 때문에, 측정한 시간은 대부분 JVM과 Spring context를 띄우는 시간이다.
+ * 예) ./gradlew launcherBenchmark -PbenchmarkArgs="--benchmark.repeat=5 --benchmark.jobs=expirePassesJob"
+ *
+ * 실행 방식
+ * - full: 모든 job 설정을 바로 만든다. (--launcher.mode=full, PassBatchApplication과 같다)
+ * - lazy: 요청한 job 설정만 lazy로 만든다.
+ * - lazy-cds: lazy + AppCDS archive(-XX:SharedArchiveFile)
+ * - aot: 빌드할 때(processAot) 만든 bean 정의를 사용하고, 모든 bean을 lazy로 만든다. (--launcher.mode=aot)
+ * - aot-cds: aot + AppCDS archive
+ *
+ * 옵션 (괄호 안은 기본값)
+ * - benchmark.launcherJar, benchmark.cdsArchive, benchmark.java: launcherBenchmark task가 넘긴다.
+ * - benchmark.jobs (expirePassesJob,transitionPassesJob,makeStatisticsJob,sendNotificationJob)
+ * - benchmark.modes (full,lazy,lazy-cds,aot,aot-cds), benchmark.repeat (3)
+ * - benchmark.report (build/reports/launcher-benchmark/results.json)
+ */
+@Slf4j
+public class LauncherBenchmarkRunner {
+    private static final String LAUNCHER_CLASS = "com.fastcampus.pass.PassBatchLauncher";
+    // 한글 로그는 실행 환경의 인코딩에 따라 깨질 수 있어서 숫자만 본다.
+    private static final Pattern STARTUP_PATTERN = Pattern.compile("PassBatchLauncher - startup: (\\d+)ms\\D+(\\d+)ms");
+    private static final Pattern JOB_PATTERN = Pattern.compile("PassBatchLauncher - job: \\S+ (\\S+), (\\d+)ms");
+
+    public static void main(String[] args) throws Exception {
+        final SimpleCommandLinePropertySource arguments = new SimpleCommandLinePropertySource(args);
+        final Path launcherJar = Path.of(property(arguments, "benchmark.launcherJar", "build/launcher/pass-batch.jar")).toAbsolutePath();
+        final Path cdsArchive = Path.of(property(arguments, "benchmark.cdsArchive", "build/launcher/pass-batch.jsa")).toAbsolutePath();
+        final String java = property(arguments, "benchmark.java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        final String[] jobNames = property(arguments, "benchmark.jobs", "expirePassesJob,transitionPassesJob,makeStatisticsJob,sendNotificationJob").split(",");
+        final String[] modes = property(arguments, "benchmark.modes", "full,lazy,lazy-cds,aot,aot-cds").split(",");
+        final int repeat = Integer.parseInt(property(arguments, "benchmark.repeat", "3"));
+        final Path reportPath = Path.of(property(arguments, "benchmark.report", "build/reports/launcher-benchmark/results.json"));
+        if (!Files.exists(launcherJar)) {
+            throw new IllegalStateException(launcherJar + "가 없습니다. ./gradlew extractLauncher로 먼저 만들어야 합니다.");
+        }
+
+        // 스키마 생성: 서비스 테이블은 db/initdb.d/create_table.sql, 배치 메타 테이블은 Spring Batch의 H2 스크립트를 사용한다.
+        final Path workDirectory = reportPath.toAbsolutePath().getParent();
+        final Path databaseDirectory = workDirectory.resolve("db");
+        FileSystemUtils.deleteRecursively(databaseDirectory);
+        Files.createDirectories(databaseDirectory);
+        final String datasourceUrl = "jdbc:h2:file:" + databaseDirectory.resolve("pass") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=USER";
+        new ResourceDatabasePopulator(
+                new FileSystemResource("db/initdb.d/create_table.sql"),
+                new ClassPathResource("org/springframework/batch/core/schema-h2.sql")).execute(new DriverManagerDataSource(datasourceUrl, "sa", ""));
+
+        List<LaunchResult> launchResults = new ArrayList<>();
+        int runId = 0;
+        for (String jobName : jobNames) {
+            for (String mode : modes) {
+                if (mode.endsWith("-cds") && !Files.exists(cdsArchive)) {
+                    log.warn("LauncherBenchmarkRunner - {}: {}가 없어서 건너뜁니다. ./gradlew appCdsArchive로 먼저 만들어야 합니다.", mode, cdsArchive);
+                    continue;
+                }
+                List<Launch> launches = new ArrayList<>();
+                for (int i = 0; i < repeat; ++i) {
+                    List<String> command = new ArrayList<>(List.of(java));
+                    command.addAll(jvmOptions(mode, cdsArchive));
+                    command.addAll(List.of("-cp", launcherJar.toString(), LAUNCHER_CLASS,
+                            "--spring.batch.job.name=" + jobName,
+                            "--spring.datasource.url=" + datasourceUrl,
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.jpa.hibernate.ddl-auto=none",
+                            "--spring.jpa.show-sql=false"));
+                    command.add("--launcher.mode=" + launcherMode(mode));
+                    command.add("run.id=" + ++runId);
+                    command.addAll(jobParameters(jobName));
+
+                    launches.add(launch(command, workDirectory.resolve("logs").resolve(jobName + "-" + mode + "-" + i + ".log")));
+                }
+                final LaunchResult launchResult = new LaunchResult(jobName, mode, median(launches, Launch::wallMillis), median(launches, Launch::startupMillis), launches);
+                launchResults.add(launchResult);
+                log.info("LauncherBenchmarkRunner - run: {} / {}: 전체 {}ms, startup {}ms (중앙값)", jobName, mode, launchResult.medianWallMillis(), launchResult.medianStartupMillis());
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("java", java);
+        report.put("repeat", repeat);
+        report.put("launches", launchResults);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+        log.info("LauncherBenchmarkRunner - report: {}", reportPath.toAbsolutePath());
+    }
+
+    private static List<String> jvmOptions(String mode, Path cdsArchive) {
+        return switch (mode) {
+            case "full", "lazy", "aot" -> List.of();
+            case "lazy-cds", "aot-cds" -> List.of("-XX:SharedArchiveFile=" + cdsArchive);
+            default -> throw new IllegalArgumentException("알 수 없는 실행 방식입니다: " + mode);
+        };
+    }
+
+    private static String launcherMode(String mode) {
+        return mode.endsWith("-cds") ? mode.substring(0, mode.length() - "-cds".length()) : mode;
+    }
+
+    private static List<String> jobParameters(String jobName) {
+        return switch (jobName) {
+            case "makeStatisticsJob" -> {
+                final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+                yield List.of("from=" + LocalDateTimeUtils.format(now.minusDays(1)), "to=" + LocalDateTimeUtils.format(now));
+            }
+            // 계속 실행하는 job이기 때문에 tick 하나만 실행하고 끝낸다.
+            case "passLifecycleJob" -> List.of("runFor=PT0S");
+            default -> List.of();
+        };
+    }
+
+    private static Launch launch(List<String> command, Path logPath) throws IOException, InterruptedException {
+        Files.createDirectories(logPath.getParent());
+        final long startedAt = System.nanoTime();
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logPath.toFile()).start();
+        final int exitCode = process.waitFor();
+        final long wallMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        final String output = Files.readString(logPath, StandardCharsets.ISO_8859_1);
+        final Matcher startup = STARTUP_PATTERN.matcher(output);
+        final Matcher job = JOB_PATTERN.matcher(output);
+        if (exitCode != 0 || !startup.find() || !job.find()) {
+            throw new IllegalStateException("실행에 실패했습니다. (exit code " + exitCode + ") 로그: " + logPath);
+        }
+        return new Launch(exitCode, wallMillis, Long.parseLong(startup.group(1)), Long.parseLong(startup.group(2)), job.group(1), Long.parseLong(job.group(2)));
+    }
+
+    private static long median(List<Launch> launches, ToLongFunction<Launch> value) {
+        final long[] values = launches.stream().mapToLong(value).sorted().toArray();
+        return values.length == 0 ? 0 : values[values.length / 2];
+    }
+
+    private static String property(SimpleCommandLinePropertySource arguments, String name, String defaultValue) {
+        final String value = arguments.getProperty(name);
+        return value == null ? defaultValue : value;
+    }
+
+    public record Launch(int exitCode, long wallMillis, long startupMillis, long jvmUptimeMillis, String jobExitCode, long jobMillis) {
+    }
+
+    public record LaunchResult(String jobName, String mode, long medianWallMillis, long medianStartupMillis, List<Launch> launches) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.fastcampus.pass.benchmark;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * step 실행마다 처리 건수, commit 수, 수행 시간과 실행 중 최대 heap 사용량을 기록한다.
+ * heap 사용량은 별도 daemon thread가 SAMPLE_INTERVAL마다 읽어서, 그 시점에 실행 중인 모든 step의 최댓값을 갱신한다.
+ * 따라서 병렬로 실행되는 step(partition, split)은 같은 시간대의 heap을 함께 본다.
+ */
+public class StepMetricsListener implements StepExecutionListener {
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final Map<Long, AtomicLong> runningPeaks = new ConcurrentHashMap<>();
+    private final List<StepResult> results = new CopyOnWriteArrayList<>();
+
+    public StepMetricsListener() {
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                final long used = memoryMXBean.getHeapMemoryUsage().getUsed();
+                runningPeaks.values().forEach(peak -> peak.accumulateAndGet(used, Math::max));
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+
+                } catch (InterruptedException e) {
+                    return;
+
+                }
+            }
+        }, "step-heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        runningPeaks.put(stepExecution.getId(), new AtomicLong(memoryMXBean.getHeapMemoryUsage().getUsed()));
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        final AtomicLong peak = runningPeaks.remove(stepExecution.getId());
+        final long wallMillis = Duration.between(stepExecution.getStartTime(), LocalDateTime.now()).toMillis();
+        final long rows = stepExecution.getWriteCount() > 0 ? stepExecution.getWriteCount() : stepExecution.getReadCount();
+        results.add(new StepResult(
+                stepExecution.getJobExecution().getJobInstance().getJobName(),
+                stepExecution.getStepName(),
+                stepExecution.getStatus().name(),
+                stepExecution.getReadCount(),
+                stepExecution.getWriteCount(),
+                stepExecution.getCommitCount(),
+                stepExecution.getRollbackCount(),
+                wallMillis,
+                wallMillis == 0 ? rows * 1000.0 : rows * 1000.0 / wallMillis,
+                peak == null ? 0 : peak.get()));
+        return null;
+    }
+
+    public List<StepResult> getResults(String jobName) {
+        return results.stream().filter(result -> result.jobName().equals(jobName)).toList();
+    }
+
+    /**
+     * rowsPerSecond: writeCount(없으면 readCount) / 수행 시간(초)
+     * peakHeapBytes: step이 실행되는 동안 샘플링한 heap 사용량의 최댓값
+     */
+    public record StepResult(String jobName, String stepName, String status, long readCount, long writeCount, long commitCount, long rollbackCount,
+                             long wallMillis, double rowsPerSecond, long peakHeapBytes) {
+    }
+}
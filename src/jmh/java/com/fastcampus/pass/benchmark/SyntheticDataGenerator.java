@@ -0,0 +1,125 @@
+package com.fastcampus.pass.benchmark;
+
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/*
+ * 배치 job을 운영 규모로 실행해 보기 위한 합성 데이터를 만든다.
+ * 같은 seed와 건수로 만들면 항상 같은 데이터가 만들어진다.
+ *
+ * - user: users명, user_group_mapping: 사용자마다 groups개 중 하나의 그룹
+ * - bulk_pass: 그룹마다 1건 (READY, addPassesJob 대상)
+ * - pass: passes건, 그 중 expiredRatio 비율은 이미 종료된 IN_PROGRESS 이용권 (expirePassesJob 대상)
+ * - booking: bookings건, statisticsFrom부터 statisticsDays일 동안 고르게 종료 (makeStatisticsJob 대상)
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+    private static final int BATCH_SIZE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random;
+    private final LocalDateTime now;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed, LocalDateTime now) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new SplittableRandom(seed);
+        this.now = now;
+    }
+
+    public Map<String, Long> generate(int users, int groups, int passes, double expiredRatio, int bookings, LocalDateTime statisticsFrom, int statisticsDays) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        final Timestamp createdAt = Timestamp.valueOf(now.minusDays(1));
+
+        counts.put("package", (long) jdbcTemplate.update("INSERT INTO package (package_name, count, period, created_at) VALUES ('벤치마크 10회권', 10, 30, ?)", createdAt));
+
+        counts.put("user", insert("INSERT INTO `user` (user_id, user_name, status, phone, created_at) VALUES (?, ?, 'ACTIVE', ?, ?)", users, (ps, i) -> {
+            ps.setString(1, userId(i));
+            ps.setString(2, "사용자" + i);
+            ps.setString(3, String.format("010-%04d-%04d", i / 10_000 % 10_000, i % 10_000));
+            ps.setTimestamp(4, createdAt);
+        }));
+
+        counts.put("user_group_mapping", insert("INSERT INTO user_group_mapping (user_group_id, user_id, user_group_name, description, created_at) VALUES (?, ?, ?, '벤치마크', ?)", users, (ps, i) -> {
+            final int group = i % groups;
+            ps.setString(1, groupId(group));
+            ps.setString(2, userId(i));
+            ps.setString(3, "그룹" + group);
+            ps.setTimestamp(4, createdAt);
+        }));
+
+        counts.put("bulk_pass", insert("INSERT INTO bulk_pass (package_seq, user_group_id, status, count, started_at, ended_at, created_at) VALUES (1, ?, ?, 10, ?, ?, ?)", groups, (ps, i) -> {
+            ps.setString(1, groupId(i));
+            ps.setString(2, BulkPassStatus.READY.name());
+            ps.setTimestamp(3, Timestamp.valueOf(now.plusHours(1)));
+            ps.setTimestamp(4, Timestamp.valueOf(now.plusDays(30)));
+            ps.setTimestamp(5, createdAt);
+        }));
+
+        counts.put("pass", insert("INSERT INTO pass (package_seq, user_id, status, remaining_count, started_at, ended_at, created_at) VALUES (1, ?, ?, ?, ?, ?, ?)", passes, (ps, i) -> {
+            final LocalDateTime endedAt = random.nextDouble() < expiredRatio ? now.minusMinutes(1 + random.nextInt(60 * 24 * 30)) : now.plusDays(1 + random.nextInt(30));
+            ps.setString(1, userId(random.nextInt(users)));
+            ps.setString(2, PassStatus.IN_PROGRESS.name());
+            ps.setInt(3, random.nextInt(11));
+            ps.setTimestamp(4, Timestamp.valueOf(endedAt.minusDays(30)));
+            ps.setTimestamp(5, Timestamp.valueOf(endedAt));
+            ps.setTimestamp(6, createdAt);
+        }));
+
+        final long statisticsMinutes = statisticsDays * 24L * 60;
+        counts.put("booking", insert("INSERT INTO booking (pass_seq, user_id, status, used_pass, attended, started_at, ended_at, cancelled_at, created_at) VALUES (?, ?, ?, 1, ?, ?, ?, ?, ?)", bookings, (ps, i) -> {
+            final LocalDateTime endedAt = statisticsFrom.plusMinutes(random.nextLong(statisticsMinutes));
+            final boolean cancelled = random.nextInt(10) == 0;
+            ps.setInt(1, 1 + random.nextInt(Math.max(passes, 1)));
+            ps.setString(2, userId(random.nextInt(users)));
+            ps.setString(3, (cancelled ? BookingStatus.CANCELLED : BookingStatus.COMPLETED).name());
+            ps.setBoolean(4, !cancelled && random.nextInt(5) != 0);
+            ps.setTimestamp(5, Timestamp.valueOf(endedAt.minusHours(1)));
+            ps.setTimestamp(6, Timestamp.valueOf(endedAt));
+            ps.setTimestamp(7, cancelled ? Timestamp.valueOf(endedAt.minusDays(1)) : null);
+            ps.setTimestamp(8, createdAt);
+        }));
+        return counts;
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void setValues(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    // BATCH_SIZE건씩 JDBC batch로 INSERT 한다.
+    private long insert(String sql, int count, RowSetter rowSetter) {
+        final long startedAt = System.nanoTime();
+        jdbcTemplate.execute(sql, (PreparedStatement ps) -> {
+            for (int i = 0; i < count; ++i) {
+                rowSetter.setValues(ps, i);
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            return null;
+        });
+        log.info("SyntheticDataGenerator - insert: {}건, {}ms, {}", count, (System.nanoTime() - startedAt) / 1_000_000, sql.substring(0, sql.indexOf('(')).trim());
+        return count;
+    }
+
+    private static String userId(int i) {
+        return "U" + (10_000_000 + i);
+    }
+
+    private static String groupId(int i) {
+        return "G" + (10_000 + i);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingSummary;
+import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
+import com.fastcampus.pass.util.CsvReportWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 통계 집계와 리포트 생성의 수행 시간과 할당량을 측정한다.
+ * - accumulator_write: 예약 1,000건(chunk 하나)을 일별 건수에 누적
+ * - weeklyRows: days일치 일별 통계를 주 단위로 합치기 (일별 통계 객체를 만드는 것부터 포함)
+ * - csvReportWriter_writeAll: days일치 일별 리포트를 임시 디렉토리에 쓰기
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StatisticsReportBenchmark {
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @State(Scope.Thread)
+    public static class Bookings {
+        private Chunk<BookingSummary> chunk;
+        private DailyStatisticsAccumulator dailyStatisticsAccumulator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            List<BookingSummary> bookingSummaries = new ArrayList<>();
+            for (int i = 0; i < 1000; ++i) {
+                bookingSummaries.add(new BookingSummary(FROM.plusHours(i), i % 2 == 0, i % 10 == 0 ? BookingStatus.CANCELLED : BookingStatus.COMPLETED));
+            }
+            chunk = new Chunk<>(bookingSummaries);
+        }
+
+        @Setup(Level.Iteration)
+        public void setupIteration() {
+            dailyStatisticsAccumulator = new DailyStatisticsAccumulator();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DailyStatistics {
+        @Param({"365", "3650"})
+        private int days;
+
+        private long[][] dailyCounts;
+        private String[][] dailyRows;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            dailyCounts = new long[days][];
+            dailyRows = new String[days][];
+            for (int i = 0; i < days; ++i) {
+                dailyCounts[i] = new long[]{FROM.toLocalDate().toEpochDay() + i, 100, 80, 5};
+                dailyRows[i] = new String[]{FROM.plusDays(i).toString(), "100", "80", "5"};
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ReportFile {
+        @Param({"false", "true"})
+        private boolean gzip;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("statistics-report-benchmark");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public DailyStatisticsAccumulator accumulator_write(Bookings bookings) {
+        bookings.dailyStatisticsAccumulator.write(bookings.chunk);
+        return bookings.dailyStatisticsAccumulator;
+    }
+
+    @Benchmark
+    public long weeklyRows(DailyStatistics dailyStatistics) {
+        // 일별 통계 객체를 만드는 것부터 측정한다.
+        return MakeWeeklyStatisticsTasklet.weeklyRows(Arrays.stream(dailyStatistics.dailyCounts)
+                .map(row -> new AggregatedStatistics(LocalDate.ofEpochDay(row[0]).atStartOfDay(), row[1], row[2], row[3]))).count();
+    }
+
+    @Benchmark
+    public long csvReportWriter_writeAll(DailyStatistics dailyStatistics, ReportFile reportFile) {
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(reportFile.directory.resolve("daily_statistics.csv"), reportFile.gzip, new SimpleMeterRegistry(),
+                "statisticsAt", "allCount", "attendedCount", "cancelledCount");
+        return csvReportWriter.writeAll(new ExecutionContext(), Arrays.stream(dailyStatistics.dailyRows));
+    }
+
+}
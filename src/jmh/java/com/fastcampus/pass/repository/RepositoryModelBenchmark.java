@@ -0,0 +1,111 @@
+package com.fastcampus.pass.repository;
+
+import com.fastcampus.pass.repository.booking.BookingEntity;
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingSummary;
+import com.fastcampus.pass.repository.pass.BulkPassEntity;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassModelMapper;
+import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
+import com.fastcampus.pass.repository.statistics.StatisticsEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * item 1건마다 호출되는 엔티티 변환/집계 메소드의 수행 시간과 할당량을 측정한다.
+ * 할당량은 GC profiler의 gc.alloc.rate.norm(B/op)으로 확인한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RepositoryModelBenchmark {
+    private BulkPassEntity bulkPassEntity;
+    private BookingEntity bookingEntity;
+    private BookingSummary bookingSummary;
+    private StatisticsEntity statisticsEntity;
+    private AggregatedStatistics aggregatedStatistics;
+    private AggregatedStatistics otherAggregatedStatistics;
+
+    @Setup
+    public void setup() {
+        final LocalDateTime now = LocalDateTime.of(2022, 9, 1, 10, 30);
+
+        bulkPassEntity = new BulkPassEntity();
+        bulkPassEntity.setBulkPassSeq(1);
+        bulkPassEntity.setPackageSeq(1);
+        bulkPassEntity.setUserGroupId("GROUP");
+        bulkPassEntity.setStatus(BulkPassStatus.READY);
+        bulkPassEntity.setCount(10);
+        bulkPassEntity.setStartedAt(now);
+        bulkPassEntity.setEndedAt(now.plusDays(30));
+
+        bookingEntity = new BookingEntity();
+        bookingEntity.setStatus(BookingStatus.COMPLETED);
+        bookingEntity.setAttended(true);
+        bookingEntity.setEndedAt(now);
+
+        bookingSummary = new BookingSummary(now, true, BookingStatus.COMPLETED);
+        statisticsEntity = StatisticsEntity.create(bookingEntity);
+        aggregatedStatistics = new AggregatedStatistics(now, 0, 0, 0);
+        otherAggregatedStatistics = new AggregatedStatistics(now, 5, 3, 1);
+    }
+
+    @Benchmark
+    public PassEntity passModelMapper_toPassEntity() {
+        return PassModelMapper.INSTANCE.toPassEntity(bulkPassEntity, "A1000000");
+    }
+
+    @Benchmark
+    public StatisticsEntity statisticsEntity_create_bookingEntity() {
+        return StatisticsEntity.create(bookingEntity);
+    }
+
+    @Benchmark
+    public StatisticsEntity statisticsEntity_create_bookingSummary() {
+        return StatisticsEntity.create(bookingSummary);
+    }
+
+    @Benchmark
+    public StatisticsEntity statisticsEntity_add_bookingEntity() {
+        statisticsEntity.add(bookingEntity);
+        return statisticsEntity;
+    }
+
+    @Benchmark
+    public StatisticsEntity statisticsEntity_add_bookingSummary() {
+        statisticsEntity.add(bookingSummary);
+        return statisticsEntity;
+    }
+
+    @Benchmark
+    public AggregatedStatistics aggregatedStatistics_merge() {
+        aggregatedStatistics.merge(otherAggregatedStatistics);
+        return aggregatedStatistics;
+    }
+
+    @Benchmark
+    public LocalDateTime bookingEntity_getStatisticsAt() {
+        return bookingEntity.getStatisticsAt();
+    }
+
+    @Benchmark
+    public long bookingSummary_epochDay() {
+        return bookingSummary.endedAt().toLocalDate().toEpochDay();
+    }
+
+}
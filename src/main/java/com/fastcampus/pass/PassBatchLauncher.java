@@ -0,0 +1,111 @@
+package com.fastcampus.pass;
+
+import com.fastcampus.pass.config.JobConfigurationExcludeFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+/*
+ * cron에서 job 하나를 실행하는 진입점. PassBatchApplication과 같은 설정을 쓰지만, 짧은 job은 시작 시간이 수행 시간보다 길기 때문에
+ * - 요청한 job을 정의한 job 설정만 올린다. 다른 job 설정은 component scan에서 뺀다. (JobConfigurationExcludeFilter)
+ * - 모든 bean을 lazy로 만든다. job이 쓰지 않는 JPA repository, WebClient, 다른 job의 tasklet 등은 만들지 않는다.
+ * - JPA repository를 lazy로 bootstrap 한다. (spring.data.jpa.repositories.bootstrap-mode=lazy)
+ *   EntityManagerFactory는 lazy로 만들 수 없지만(LoadTimeWeaverAware), 이 설정이면 별도 thread에서 만들기 때문에 JDBC만 쓰는 job은 기다리지 않는다.
+ * - web server를 띄우지 않는다.
+ * context 준비 시간(JVM 시작부터의 시간 포함)과 job 수행 시간을 로그로 남기고, job이 COMPLETED가 아니면 exit code 1로 끝난다.
+ *
+ * 예) java -cp build/launcher/pass-batch.jar com.fastcampus.pass.PassBatchLauncher --spring.batch.job.name=expirePassesJob mode=BULK
+ * job 파라미터는 key=value 형식으로 넘긴다. (-- 로 시작하는 인자는 Spring 설정이다)
+ *
+ * --launcher.mode로 실행 방식을 선택한다. (기본값 lazy)
+ * - full: 비교를 위해 모든 job 설정을 바로 만든다. (PassBatchApplication과 같다)
+ * - lazy: 위와 같이 요청한 job 설정만 lazy로 만든다.
+ * - aot: 빌드할 때(processAot) 만든 bean 정의로 context를 띄운다. 설정 class 분석과 component scan을 하지 않는다.
+ *   bean 정의는 빌드할 때 정해지기 때문에 job 설정을 component scan에서 뺄 수 없지만, 모든 bean이 lazy라서 요청한 job의 bean만 만든다.
+ *   @Profile, @ConditionalOnProperty 같은 조건도 빌드할 때 기본 설정으로 평가된다. bootJar로 만든 jar에서만 실행할 수 있다.
+ * JVM이 class를 읽는 시간은 AppCDS archive로 줄인다. (./gradlew appCdsArchive, 실행 시 -XX:SharedArchiveFile=build/launcher/pass-batch.jsa)
+ */
+@Slf4j
+public class PassBatchLauncher {
+    static final String JOB_NAME = "spring.batch.job.name";
+    static final String MODE = "launcher.mode";
+
+    public static void main(String[] args) throws Exception {
+        System.exit(launch(args));
+    }
+
+    static int launch(String[] args) throws Exception {
+        final DefaultApplicationArguments arguments = new DefaultApplicationArguments(args);
+        final String jobName = optionValue(arguments, JOB_NAME);
+        if (jobName == null) {
+            throw new IllegalArgumentException("--" + JOB_NAME + "=<job 이름>으로 실행할 job을 지정해야 합니다.");
+        }
+        final String mode = optionValue(arguments, MODE) == null ? "lazy" : optionValue(arguments, MODE).toLowerCase();
+        if (!List.of("full", "lazy", "aot").contains(mode)) {
+            throw new IllegalArgumentException("--" + MODE + "는 full, lazy 또는 aot여야 합니다: " + mode);
+        }
+        final boolean full = "full".equals(mode);
+        // SpringApplication은 spring.aot.enabled를 system property로만 읽는다.
+        if ("aot".equals(mode)) {
+            System.setProperty(AotDetector.AOT_ENABLED, "true");
+        }
+
+        final long startedAt = System.nanoTime();
+        SpringApplicationBuilder applicationBuilder = new SpringApplicationBuilder(PassBatchApplication.class)
+                .web(WebApplicationType.NONE)
+                .lazyInitialization(!full);
+        if (!full) {
+            applicationBuilder.properties("spring.data.jpa.repositories.bootstrap-mode=lazy");
+        }
+        // processAot는 PassBatchApplication으로 bean 정의를 만들기 때문에, main class를 PassBatchApplication으로 지정해야 그 정의를 찾는다.
+        if ("aot".equals(mode)) {
+            applicationBuilder.main(PassBatchApplication.class);
+        }
+        if ("lazy".equals(mode)) {
+            applicationBuilder.initializers(applicationContext -> applicationContext.getBeanFactory()
+                    .registerSingleton("jobConfigurationExcludeFilter", new JobConfigurationExcludeFilter(jobName)));
+        }
+        final ConfigurableApplicationContext context = applicationBuilder.run(args);
+
+        try {
+            final Job job = context.getBean(jobName, Job.class);
+            final long startupMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+            log.info("PassBatchLauncher - startup: {}ms, JVM 시작부터 {}ms, mode: {}",
+                    startupMillis, ManagementFactory.getRuntimeMXBean().getUptime(), mode);
+
+            JobParametersBuilder jobParametersBuilder = new JobParametersBuilder();
+            for (String parameter : arguments.getNonOptionArgs()) {
+                final String[] keyValue = parameter.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("job 파라미터는 key=value 형식이어야 합니다: " + parameter);
+                }
+                jobParametersBuilder.addString(keyValue[0], keyValue[1]);
+            }
+            final JobExecution jobExecution = context.getBean(JobLauncher.class).run(job, jobParametersBuilder.toJobParameters());
+            log.info("PassBatchLauncher - job: {} {}, {}ms", jobName, jobExecution.getExitStatus().getExitCode(),
+                    Duration.between(jobExecution.getStartTime(), jobExecution.getEndTime()).toMillis());
+            return ExitStatus.COMPLETED.getExitCode().equals(jobExecution.getExitStatus().getExitCode()) ? 0 : 1;
+
+        } finally {
+            context.close();
+
+        }
+    }
+
+    private static String optionValue(DefaultApplicationArguments arguments, String name) {
+        final List<String> values = arguments.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.fastcampus.pass.adapter.message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 카카오톡 친구에게 보내기 API(기본 텍스트 템플릿)로 메시지를 보낸다.
+ * WebClient는 non-blocking이기 때문에, 호출하는 쪽에서 동시에 몇 건을 보낼지(in-flight) 정한다.
+ * connection pool 크기(kakaotalk.max-connections)는 동시에 보내는 건수보다 크거나 같게 둔다.
+ */
+@Component
+public class KakaoTalkMessageAdapter {
+    private static final String SEND_URI = "/v1/api/talk/friends/message/default/send";
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    public KakaoTalkMessageAdapter(ObjectMapper objectMapper,
+                                   @Value("${kakaotalk.host:https://kapi.kakao.com}") String host,
+                                   @Value("${kakaotalk.token:}") String token,
+                                   @Value("${kakaotalk.max-connections:50}") int maxConnections,
+                                   @Value("${kakaotalk.timeout-millis:3000}") int timeoutMillis) {
+        final HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("kakaotalk").maxConnections(maxConnections).build())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutMillis)
+                .responseTimeout(Duration.ofMillis(timeoutMillis));
+        this.webClient = WebClient.builder()
+                .baseUrl(host)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    // 받는 사람이 성공 목록에 있으면 true. HTTP 오류나 timeout은 error로 전달된다.
+    public Mono<Boolean> sendKakaoTalkMessage(String uuid, String text) {
+        return webClient.post()
+                .uri(SEND_URI)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("receiver_uuids", toJson(List.of(uuid)))
+                        .with("template_object", toJson(Map.of(
+                                "object_type", "text",
+                                "text", text,
+                                "link", Map.of("web_url", "https://developers.kakao.com")))))
+                .retrieve()
+                .bodyToMono(KakaoTalkMessageResponse.class)
+                .map(response -> response.successfulReceiverUuids() != null && response.successfulReceiverUuids().contains(uuid));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("메시지를 JSON으로 변환할 수 없습니다.", e);
+
+        }
+    }
+}
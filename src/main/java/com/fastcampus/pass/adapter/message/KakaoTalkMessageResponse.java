@@ -0,0 +1,10 @@
+package com.fastcampus.pass.adapter.message;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record KakaoTalkMessageResponse(@JsonProperty("successful_receiver_uuids") List<String> successfulReceiverUuids) {
+}
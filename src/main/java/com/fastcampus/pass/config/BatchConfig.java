@@ -1,9 +1,85 @@
 package com.fastcampus.pass.config;
 
+import com.fastcampus.pass.metrics.BatchMetricsListener;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.metrics.JobRepositoryMetricsInterceptor;
+import com.fastcampus.pass.metrics.PrometheusTextFileExporter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.job.AbstractJob;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.AbstractStep;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
 
 @EnableBatchProcessing
 @Configuration
 public class BatchConfig {
+
+    /*
+     * JobRepository(@EnableBatchProcessing의 transactionManager)와 JDBC로 처리하는 step이 함께 사용한다.
+     * job 설정에 두면, 요청한 job 설정만 올리는 PassBatchLauncher에서 빠질 수 있기 때문에 여기에 둔다.
+     */
+    @Bean
+    public DataSourceTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    /*
+     * 모든 job, step에 BatchMetricsListener를 등록하고, JobRepository 호출 시간을 기록하도록 감싼다.
+     * Spring Batch의 spring.batch.* metric과 같이 Metrics.globalRegistry에 기록하고, actuator가 PrometheusMeterRegistry를 globalRegistry에 추가한다.
+     * HikariCP metric(hikaricp.connections.acquire, hikaricp.connections.pending 등)은 actuator가 등록한다.
+     *
+     * batch.metrics.textfile-directory를 설정하면 job이 끝날 때마다 {job 이름}.prom 파일로 내보낸다.
+     * 예) --batch.metrics.textfile-directory=/var/lib/node_exporter/textfile_collector
+     * endpoint로 보려면 --management.endpoints.web.exposure.include=prometheus 를 설정한다.
+     *
+     * job 파라미터 jfr=true로 실행하면 FlightRecorderListener가 JFR recording을 남긴다. 모든 job과 tasklet step에 등록한다.
+     * chunk step의 item 단위 구간은 job 설정에서 step builder에 item listener로 등록해서 나눈다.
+     */
+    @Bean
+    public static BeanPostProcessor batchMetricsBeanPostProcessor(ObjectProvider<PrometheusMeterRegistry> prometheusMeterRegistry,
+                                                                  ObjectProvider<FlightRecorderListener> flightRecorderListener,
+                                                                  Environment environment) {
+        final String textFileDirectory = environment.getProperty("batch.metrics.textfile-directory");
+        final PrometheusTextFileExporter textFileExporter = new PrometheusTextFileExporter(prometheusMeterRegistry::getIfAvailable,
+                textFileDirectory == null ? null : Path.of(textFileDirectory));
+        final BatchMetricsListener batchMetricsListener = new BatchMetricsListener(Metrics.globalRegistry, textFileExporter);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractJob job) {
+                    job.registerJobExecutionListener(batchMetricsListener);
+                    flightRecorderListener.ifAvailable(job::registerJobExecutionListener);
+                }
+                if (bean instanceof AbstractStep step) {
+                    step.registerStepExecutionListener(batchMetricsListener);
+                }
+                if (bean instanceof TaskletStep step) {
+                    step.registerChunkListener(batchMetricsListener);
+                    flightRecorderListener.ifAvailable(step::registerChunkListener);
+                }
+                if (bean instanceof JobRepository) {
+                    ProxyFactory proxyFactory = new ProxyFactory();
+                    proxyFactory.setTarget(bean);
+                    proxyFactory.addInterface(JobRepository.class);
+                    proxyFactory.addAdvice(new JobRepositoryMetricsInterceptor(Metrics.globalRegistry));
+                    return proxyFactory.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+
 }
@@ -0,0 +1,75 @@
+package com.fastcampus.pass.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Slf4j
+@Configuration
+public class BatchTaskExecutorConfig {
+    // connection pool 크기를 알 수 없을 때 사용하는 동시 실행 수
+    static final int DEFAULT_CONCURRENCY = 4;
+    // worker step 하나가 동시에 잡는 connection 수. cursor reader가 step 내내 하나, chunk 트랜잭션이 하나를 잡는다.
+    static final int CONNECTIONS_PER_WORKER = 2;
+
+    /*
+     * split flow와 partition step이 함께 사용하는 TaskExecutor.
+     * 각 worker step은 cursor reader와 chunk 트랜잭션이 connection을 하나씩, 모두 두 개를 잡는다.
+     * connection pool 크기보다 많이 띄우면 reader connection만 잡은 worker끼리 트랜잭션 connection을 기다리다 timeout 나기 때문에,
+     * 동시 실행 수는 JobRepository가 사용할 connection 하나를 남기고 (pool 크기 - 1) / 2로 정한다.
+     *
+     * - batch.task-executor.virtual-threads=true: task마다 virtual thread를 만들고, concurrency limit으로 동시 실행 수를 제한한다. (Java 21 이상)
+     *   설정하지 않으면 spring.threads.virtual.enabled 값을 따른다.
+     * - 그 외: concurrency 크기의 platform thread pool에서 실행한다.
+     * - batch.task-executor.concurrency: 동시 실행 수. 설정하지 않으면 HikariCP maximum-pool-size로 계산한다.
+     *
+     * 동시 실행 수는 executor 전체에 걸린 제한이다. split flow 안에서 다시 partition step을 실행하면
+     * 바깥 flow가 자리를 차지한 채로 worker를 기다리기 때문에, 그 경우에는 concurrency를 flow 수 + worker 수 이상으로 둔다.
+     */
+    @Bean
+    public TaskExecutor batchTaskExecutor(DataSource dataSource,
+                                          @Value("${batch.task-executor.virtual-threads:${spring.threads.virtual.enabled:false}}") boolean virtualThreads,
+                                          @Value("${batch.task-executor.concurrency:0}") int concurrency) {
+        final int concurrencyLimit = concurrency > 0 ? concurrency : concurrencyFor(dataSource);
+        log.info("BatchTaskExecutorConfig - batchTaskExecutor: virtualThreads: {}, concurrency: {}", virtualThreads, concurrencyLimit);
+
+        if (virtualThreads) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("virtual thread는 Java 21 이상에서만 사용할 수 있습니다. (현재 Java " + Runtime.version().feature() + ")");
+            }
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("batch-");
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setConcurrencyLimit(concurrencyLimit);
+            return taskExecutor;
+        }
+
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(concurrencyLimit);
+        taskExecutor.setMaxPoolSize(concurrencyLimit);
+        taskExecutor.setThreadNamePrefix("batch-");
+        taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        return taskExecutor;
+    }
+
+    static int concurrencyFor(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return Math.max(1, (dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() - 1) / CONNECTIONS_PER_WORKER);
+            }
+
+        } catch (SQLException e) {
+            log.warn("connection pool 크기를 확인할 수 없습니다.", e);
+
+        }
+        return DEFAULT_CONCURRENCY;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.fastcampus.pass.config;
+
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.util.Objects;
+
+/*
+ * component scan에서 요청한 job을 정의하지 않은 job 설정을 뺀다.
+ * job 설정은 com.fastcampus.pass.job 아래의 @Configuration class이고, job은 job 이름과 같은 이름의 @Bean 메소드로 정의한다.
+ * class를 로딩하지 않고, component scan이 읽은 class 파일의 metadata로만 판단한다.
+ *
+ * @SpringBootApplication의 component scan은 bean factory에 등록된 TypeExcludeFilter에게 제외 여부를 묻는다.
+ * 그래서 context를 refresh 하기 전에 singleton으로 등록하면 된다. (PassBatchLauncher)
+ */
+public class JobConfigurationExcludeFilter extends TypeExcludeFilter {
+    private static final String JOB_PACKAGE = "com.fastcampus.pass.job.";
+
+    private final String jobName;
+
+    public JobConfigurationExcludeFilter(String jobName) {
+        this.jobName = jobName;
+    }
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+        final AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+        return metadata.getClassName().startsWith(JOB_PACKAGE)
+                && metadata.isAnnotated(Configuration.class.getName())
+                && metadata.getAnnotatedMethods(Bean.class.getName()).stream().noneMatch(method -> method.getMethodName().equals(jobName));
+    }
+
+    // TypeExcludeFilter는 test context cache의 key로도 쓰이기 때문에 equals, hashCode를 구현해야 한다.
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JobConfigurationExcludeFilter other && Objects.equals(jobName, other.jobName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(jobName);
+    }
+}
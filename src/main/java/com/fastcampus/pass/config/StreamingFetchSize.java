@@ -0,0 +1,33 @@
+package com.fastcampus.pass.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.support.DatabaseType;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+
+/*
+ * cursor로 읽는 reader가 결과 전체를 driver 메모리에 올리지 않도록 DB에 맞는 fetch size를 정한다.
+ * MySQL Connector/J는 useCursorFetch 옵션이 없으면 양수 fetch size를 무시하고 결과 전체를 받아온다.
+ * fetch size가 Integer.MIN_VALUE일 때만 한 row씩 streaming 하기 때문에, MySQL이면 Integer.MIN_VALUE를 반환한다.
+ * 다른 DB(H2 등)는 음수 fetch size를 허용하지 않기 때문에 넘겨받은 fetch size를 그대로 반환한다.
+ *
+ * streaming 중에는 같은 connection으로 다른 쿼리를 실행할 수 없다. reader는 별도 connection을 사용하거나, 다 읽은 뒤에 쓴다.
+ */
+@Slf4j
+public final class StreamingFetchSize {
+
+    private StreamingFetchSize() {
+    }
+
+    public static int of(DataSource dataSource, int fetchSize) {
+        try {
+            return DatabaseType.fromMetaData(dataSource) == DatabaseType.MYSQL ? Integer.MIN_VALUE : fetchSize;
+
+        } catch (MetaDataAccessException e) {
+            log.warn("DB 종류를 확인할 수 없어 fetch size를 {}로 설정합니다.", fetchSize, e);
+            return fetchSize;
+
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.fastcampus.pass.job;
+
+import com.fastcampus.pass.metrics.BatchMetricsListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+
+import java.time.Duration;
+
+/*
+ * chunk 하나를 읽고 쓰고 commit 하기까지 걸린 시간이 targetDuration에 가까워지도록 chunk 크기를 바꾸는 CompletionPolicy.
+ * - chunk가 commit 되면 그 chunk의 item 수와 걸린 시간으로, targetDuration 동안 처리할 수 있는 item 수를 다음 chunk 크기로 정한다.
+ * - 한 번에 두 배보다 크게 늘리거나 절반보다 작게 줄이지 않고, 항상 [minSize, maxSize] 안에서 정한다.
+ * - chunk가 rollback 되면 절반으로 줄인다.
+ * chunk 시간에는 JobRepository 갱신, commit 처럼 item 수와 무관한 시간도 들어 있기 때문에, 몇 chunk에 걸쳐 targetDuration에 수렴한다.
+ *
+ * 정한 크기는 step ExecutionContext(adaptiveChunk.size, adaptiveChunk.smallest, adaptiveChunk.largest)와
+ * batch.chunk.size metric(chunk마다 사용한 크기)으로 남긴다. 재시작하면 ExecutionContext에 남은 크기부터 시작한다.
+ *
+ * step 실행마다 상태를 가지므로 @StepScope bean으로 만들고, step의 CompletionPolicy와 listener로 함께 등록한다.
+ * partition worker처럼 step 실행이 나뉘는 경우는 괜찮지만, step 실행 하나를 여러 thread가 처리하는 multi-threaded step에는 사용할 수 없다.
+ */
+@Slf4j
+public class AdaptiveCompletionPolicy extends SimpleCompletionPolicy implements StepExecutionListener, ChunkListener {
+    public static final String SIZE = "adaptiveChunk.size";
+    public static final String SMALLEST = "adaptiveChunk.smallest";
+    public static final String LARGEST = "adaptiveChunk.largest";
+
+    private final int initialSize;
+    private final int minSize;
+    private final int maxSize;
+    private final Duration targetDuration;
+    private final MeterRegistry meterRegistry;
+
+    private int size;
+    private int smallest;
+    private int largest;
+    private long chunkStartedAt;
+    private long readCountBeforeChunk;
+
+    public AdaptiveCompletionPolicy(int initialSize, int minSize, int maxSize, Duration targetDuration, MeterRegistry meterRegistry) {
+        super(initialSize);
+        if (minSize < 1 || initialSize < minSize || maxSize < initialSize || targetDuration.isNegative() || targetDuration.isZero()) {
+            throw new IllegalArgumentException("1 <= minSize <= initialSize <= maxSize 이고, targetDuration은 0보다 커야 합니다.");
+        }
+        this.initialSize = initialSize;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetDuration = targetDuration;
+        this.meterRegistry = meterRegistry;
+        this.size = initialSize;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        final ExecutionContext executionContext = stepExecution.getExecutionContext();
+        size = clamp(executionContext.containsKey(SIZE) ? executionContext.getInt(SIZE) : initialSize);
+        smallest = executionContext.getInt(SMALLEST, size);
+        largest = executionContext.getInt(LARGEST, size);
+        setChunkSize(size);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        log.info("AdaptiveCompletionPolicy - afterStep: {} chunk 크기 {} (사용한 크기 {} ~ {}, 목표 {}ms)",
+                stepExecution.getStepName(), size, smallest, largest, targetDuration.toMillis());
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        chunkStartedAt = System.nanoTime();
+        readCountBeforeChunk = context.getStepContext().getStepExecution().getReadCount();
+    }
+
+    // afterChunk는 chunk transaction이 commit 된 뒤에 호출된다.
+    @Override
+    public void afterChunk(ChunkContext context) {
+        final StepExecution stepExecution = context.getStepContext().getStepExecution();
+        final long elapsedNanos = System.nanoTime() - chunkStartedAt;
+        final long items = stepExecution.getReadCount() - readCountBeforeChunk;
+        record(stepExecution);
+        if (items > 0 && elapsedNanos > 0) {
+            final long proposed = Math.round(items * (double) targetDuration.toNanos() / elapsedNanos);
+            resize(stepExecution, Math.max(size / 2, Math.min(size * 2L, proposed)));
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        final StepExecution stepExecution = context.getStepContext().getStepExecution();
+        record(stepExecution);
+        resize(stepExecution, size / 2);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void resize(StepExecution stepExecution, long proposed) {
+        final int resized = clamp(proposed);
+        if (resized != size) {
+            log.debug("AdaptiveCompletionPolicy - resize: {} chunk 크기 {} -> {}", stepExecution.getStepName(), size, resized);
+        }
+        size = resized;
+        smallest = Math.min(smallest, size);
+        largest = Math.max(largest, size);
+        setChunkSize(size);
+
+        final ExecutionContext executionContext = stepExecution.getExecutionContext();
+        executionContext.putInt(SIZE, size);
+        executionContext.putInt(SMALLEST, smallest);
+        executionContext.putInt(LARGEST, largest);
+    }
+
+    private void record(StepExecution stepExecution) {
+        DistributionSummary.builder("batch.chunk.size")
+                .description("chunk 하나에 처리하도록 정한 item 수")
+                .tags(BatchMetricsListener.stepTags(stepExecution))
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    private int clamp(long value) {
+        return (int) Math.max(minSize, Math.min(maxSize, value));
+    }
+}
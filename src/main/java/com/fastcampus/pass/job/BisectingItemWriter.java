@@ -0,0 +1,199 @@
+package com.fastcampus.pass.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Savepoint;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * chunk 쓰기가 실패하면 chunk를 반으로 나눠 다시 쓰면서 실패한 item(poison item)만 골라내고, 나머지는 chunk 트랜잭션으로 함께 commit 하는 ItemWriter.
+ * Spring Batch의 fault tolerant step은 쓰기가 실패하면 chunk를 rollback 하고 item 하나당 트랜잭션 하나로 다시 쓰기 때문에,
+ * chunk가 클수록 poison item 하나를 찾는 비용이 커진다.
+ *
+ * - 트랜잭션을 새로 열지 않고, chunk 트랜잭션의 JDBC 커넥션에 savepoint를 만들어 나눈 부분마다 쓰고, 실패하면 savepoint까지만 rollback 한다.
+ * - 왼쪽 절반이 써지면 실패 원인은 오른쪽 절반에 있으므로 오른쪽 절반 전체는 다시 쓰지 않고 바로 나눈다.
+ *   그래서 n건 chunk에서 poison item 하나를 찾는 데 약 log2(n)번 쓴다. 골라낸 item은 항상 혼자 쓰다가 실패한 것이다.
+ * - 골라낸 item은 chunk에서 빼서 write count에 넣지 않고, skipListener(onSkipInWrite)에 넘기고 step의 write skip count에 더한다.
+ *   skipListener도 같은 트랜잭션에서 실행되기 때문에, dead letter는 chunk와 함께 commit 되거나 rollback 된다.
+ * - 일시적인 오류(TransientDataAccessException, SQLTransientException)는 item 문제가 아니므로 나누지 않고 그대로 던진다.
+ *   step 실행 하나에서 skipLimit 건보다 많이 골라내면 SkipLimitExceededException을 던져 chunk를 rollback 한다.
+ *
+ * delegate는 chunk 트랜잭션의 커넥션으로 쓰고, 실패하면 쓴 내용이 savepoint rollback으로 모두 취소되어야 한다.
+ * (JdbcTemplate, StatelessSessionItemWriter 처럼 JDBC로 바로 쓰는 writer)
+ * JpaItemWriter는 flush가 실패하면 영속성 컨텍스트와 트랜잭션이 rollback-only 상태가 되기 때문에 사용할 수 없다.
+ * DB에 쓰지 않는 delegate는 write가 실패했을 때 아무 것도 반영하지 않아야 한다.
+ *
+ * step 실행마다 skip 건수를 세기 때문에 @StepScope bean으로 만든다.
+ */
+@Slf4j
+public class BisectingItemWriter<T> implements ItemStreamWriter<T> {
+    private final ItemWriter<T> delegate;
+    private final DataSource dataSource;
+    private final SkipListener<?, ? super T> skipListener;
+    private final int skipLimit;
+
+    private long skipCount;
+
+    public BisectingItemWriter(ItemWriter<T> delegate, DataSource dataSource, SkipListener<?, ? super T> skipListener, int skipLimit) {
+        this.delegate = delegate;
+        this.dataSource = dataSource;
+        this.skipListener = skipListener;
+        this.skipLimit = skipLimit;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (delegate instanceof ItemStream itemStream) {
+            itemStream.open(executionContext);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (delegate instanceof ItemStream itemStream) {
+            itemStream.update(executionContext);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (delegate instanceof ItemStream itemStream) {
+            itemStream.close();
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BisectingItemWriter는 chunk 트랜잭션 안에서 호출해야 합니다.");
+        }
+
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            final Exception failure = tryWrite(connection, chunk.getItems());
+            if (failure == null) {
+                return;
+            }
+            final Set<T> skippedItems = Collections.newSetFromMap(new IdentityHashMap<>());
+            final int attempts = bisect(connection, chunk.getItems(), failure, skippedItems) + 1;
+            // 골라낸 item을 chunk에서 빼야 write count에 들어가지 않는다.
+            for (Iterator<? extends T> iterator = chunk.iterator(); iterator.hasNext(); ) {
+                if (skippedItems.contains(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+            log.info("BisectingItemWriter - write: chunk {}건 중 {}건을 골라냈습니다. ({}번 시도)", chunk.size() + skippedItems.size(), skippedItems.size(), attempts);
+
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+
+        }
+    }
+
+    // items 전체를 쓰다가 failure로 실패해서 savepoint까지 rollback 된 상태에서 호출한다. 쓴 횟수를 반환한다.
+    private int bisect(Connection connection, List<? extends T> items, Exception failure, Set<T> skippedItems) throws Exception {
+        if (items.size() == 1) {
+            skip(items.get(0), failure, skippedItems);
+            return 0;
+        }
+        final List<? extends T> left = items.subList(0, items.size() / 2);
+        final List<? extends T> right = items.subList(items.size() / 2, items.size());
+        int attempts = 1;
+
+        final Exception leftFailure = tryWrite(connection, left);
+        if (leftFailure != null) {
+            attempts += bisect(connection, left, leftFailure, skippedItems);
+        }
+        // 왼쪽이 써졌다면 오른쪽이 실패할 것이므로 바로 나눈다. 한 건만 남았으면 골라내기 전에 한 번은 써본다.
+        Exception rightFailure = failure;
+        if (leftFailure != null || right.size() == 1) {
+            rightFailure = tryWrite(connection, right);
+            attempts++;
+        }
+        if (rightFailure != null) {
+            attempts += bisect(connection, right, rightFailure, skippedItems);
+        }
+        return attempts;
+    }
+
+    // savepoint를 만들고 items를 쓴다. 실패하면 savepoint까지 rollback 하고 예외를 반환한다.
+    private Exception tryWrite(Connection connection, List<? extends T> items) throws Exception {
+        final Savepoint savepoint = connection.setSavepoint();
+        try {
+            delegate.write(new Chunk<>(items));
+            connection.releaseSavepoint(savepoint);
+            return null;
+
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            rollback(connection, savepoint, e);
+            return e;
+
+        }
+    }
+
+    private void rollback(Connection connection, Savepoint savepoint, Exception failure) throws Exception {
+        try {
+            connection.rollback(savepoint);
+
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+            throw failure;
+
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void skip(T item, Exception failure, Set<T> skippedItems) {
+        if (++skipCount > skipLimit) {
+            throw new SkipLimitExceededException(skipLimit, failure);
+        }
+        log.warn("BisectingItemWriter - skip: {}", item, failure);
+        skippedItems.add(item);
+        ((SkipListener<Object, T>) skipListener).onSkipInWrite(item, failure);
+
+        // 골라낸 item은 chunk에서 빠지기 때문에, StepContribution 대신 step 실행의 write skip count에 직접 더한다.
+        // chunk가 commit 되면 StepContribution의 건수가 여기에 더해진다. rollback 되면 step이 실패하기 때문에 되돌리지 않는다.
+        final StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext != null) {
+            final StepExecution stepExecution = stepContext.getStepExecution();
+            stepExecution.setWriteSkipCount(stepExecution.getWriteSkipCount() + 1);
+        }
+    }
+
+    private boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long getSkipCount() {
+        return skipCount;
+    }
+}
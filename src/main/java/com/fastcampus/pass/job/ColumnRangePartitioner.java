@@ -0,0 +1,72 @@
+package com.fastcampus.pass.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * 정수 컬럼의 최솟값 ~ 최댓값 구간을 gridSize 개의 범위로 나눈다.
+ * 각 partition의 ExecutionContext에는 minValue, maxValue와 partitionParameters의 값이 함께 저장된다.
+ * 대상 row가 없으면 partition도 만들지 않는다.
+ *
+ * 예) table = "pass", column = "pass_seq", where = "status = ? AND ended_at <= ?"
+ */
+@Slf4j
+public class ColumnRangePartitioner implements Partitioner {
+    public static final String MIN_VALUE = "minValue";
+    public static final String MAX_VALUE = "maxValue";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String column;
+    private final String where;
+    private final Object[] whereArguments;
+    private final Map<String, Object> partitionParameters;
+
+    public ColumnRangePartitioner(JdbcTemplate jdbcTemplate, String table, String column, String where, Object[] whereArguments, Map<String, Object> partitionParameters) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.column = column;
+        this.where = where;
+        this.whereArguments = whereArguments;
+        this.partitionParameters = partitionParameters;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        final Map<String, Object> range = jdbcTemplate.queryForMap(rangeSql(table, column, where), whereArguments);
+        final Number min = (Number) range.get("min_value");
+        final Number max = (Number) range.get("max_value");
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (min == null || max == null) {
+            log.info("ColumnRangePartitioner - partition: {}.{} 대상 없음", table, column);
+            return partitions;
+        }
+
+        final long targetSize = (max.longValue() - min.longValue()) / Math.max(gridSize, 1) + 1;
+        long start = min.longValue();
+        int number = 0;
+        while (start <= max.longValue()) {
+            final long end = Math.min(start + targetSize - 1, max.longValue());
+
+            ExecutionContext executionContext = new ExecutionContext();
+            partitionParameters.forEach(executionContext::put);
+            executionContext.putLong(MIN_VALUE, start);
+            executionContext.putLong(MAX_VALUE, end);
+            partitions.put("partition" + number++, executionContext);
+
+            start = end + 1;
+        }
+        log.info("ColumnRangePartitioner - partition: {}.{} {} ~ {}, partition {}개", table, column, min, max, partitions.size());
+        return partitions;
+    }
+
+    public static String rangeSql(String table, String column, String where) {
+        return "SELECT MIN(" + column + ") AS min_value, MAX(" + column + ") AS max_value FROM " + table + " WHERE " + where;
+    }
+}
@@ -0,0 +1,46 @@
+package com.fastcampus.pass.job;
+
+import com.fastcampus.pass.repository.deadletter.DeadLetterRepository;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+
+/*
+ * 건너뛴 item을 어느 job, step 실행에서 건너뛰었는지와 함께 dead_letter 테이블에 남긴다.
+ * 건너뛴 item을 고쳐서 다시 처리할 수 있도록, item은 toString() 결과로 저장한다.
+ */
+@Component
+public class DeadLetterSkipListener implements SkipListener<Object, Object> {
+    private final DeadLetterRepository deadLetterRepository;
+
+    public DeadLetterSkipListener(DeadLetterRepository deadLetterRepository) {
+        this.deadLetterRepository = deadLetterRepository;
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        save(null, t);
+    }
+
+    @Override
+    public void onSkipInProcess(Object item, Throwable t) {
+        save(item, t);
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        save(item, t);
+    }
+
+    private void save(Object item, Throwable t) {
+        final StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext == null) {
+            deadLetterRepository.save(null, null, null, item, t);
+            return;
+        }
+        final StepExecution stepExecution = stepContext.getStepExecution();
+        deadLetterRepository.save(stepExecution.getJobExecution().getJobInstance().getJobName(), stepExecution.getStepName(), stepExecution.getId(), item, t);
+    }
+}
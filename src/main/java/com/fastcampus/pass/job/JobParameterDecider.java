@@ -0,0 +1,27 @@
+package com.fastcampus.pass.job;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+
+/*
+ * JobParameter 값으로 다음 흐름을 결정한다.
+ * 예를 들어 mode=chunk로 실행하면 "CHUNK" 상태를 반환하고, job에서는 .on("CHUNK")로 분기한다.
+ * 값이 없으면 defaultValue를 사용한다.
+ */
+public class JobParameterDecider implements JobExecutionDecider {
+    private final String parameterName;
+    private final String defaultValue;
+
+    public JobParameterDecider(String parameterName, String defaultValue) {
+        this.parameterName = parameterName;
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        final String value = jobExecution.getJobParameters().getString(parameterName);
+        return new FlowExecutionStatus((value == null ? defaultValue : value).toUpperCase());
+    }
+}
@@ -0,0 +1,78 @@
+package com.fastcampus.pass.job.notification;
+
+import com.fastcampus.pass.adapter.message.KakaoTalkMessageAdapter;
+import com.fastcampus.pass.repository.notification.NotificationMessage;
+import com.fastcampus.pass.util.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * chunk의 알람을 WebClient로 보내고, 성공한 알람만 JDBC 배치로 sent = TRUE 처리한다.
+ * - 동시에 응답을 기다리는 요청은 최대 concurrency 건이다. (flatMap concurrency)
+ * - 요청은 token bucket을 통과해야 나가기 때문에 초당 ratePerSecond 건을 넘지 않는다. token bucket은 step 실행 간에 공유한다.
+ * - 발송에 실패한 알람은 sent = FALSE로 남겨서 다음 실행에서 다시 보낸다. 실패해도 step은 계속 진행한다.
+ *
+ * 요청을 보내고 기다리는 동안 batch thread는 chunk 전체의 응답을 기다리기만 하기 때문에, chunk 크기는 concurrency보다 충분히 크게 둔다.
+ */
+@Slf4j
+@Component
+public class NotificationSendWriter implements ItemWriter<NotificationMessage> {
+    private static final String UPDATE_SENT_SQL = "UPDATE notification SET sent = TRUE, sent_at = ?, modified_at = ? WHERE notification_seq = ?";
+
+    private final KakaoTalkMessageAdapter kakaoTalkMessageAdapter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenBucket tokenBucket;
+    private final int concurrency;
+
+    public NotificationSendWriter(KakaoTalkMessageAdapter kakaoTalkMessageAdapter, JdbcTemplate jdbcTemplate,
+                                  @Value("${notification.send.concurrency:16}") int concurrency,
+                                  @Value("${notification.send.rate-per-second:100}") double ratePerSecond) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency는 1 이상이어야 합니다.");
+        }
+        this.kakaoTalkMessageAdapter = kakaoTalkMessageAdapter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenBucket = new TokenBucket(ratePerSecond, concurrency);
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void write(Chunk<? extends NotificationMessage> chunk) {
+        final List<Integer> sentNotificationSeqs = Flux.fromIterable(chunk.getItems())
+                .flatMap(this::send, concurrency)
+                .collectList()
+                .block();
+
+        final Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SENT_SQL, sentNotificationSeqs, sentNotificationSeqs.size(), (ps, notificationSeq) -> {
+            ps.setTimestamp(1, sentAt);
+            ps.setTimestamp(2, sentAt);
+            ps.setInt(3, notificationSeq);
+        });
+        if (sentNotificationSeqs.size() < chunk.size()) {
+            log.warn("NotificationSendWriter - write: {}건 중 {}건 발송 실패", chunk.size(), chunk.size() - sentNotificationSeqs.size());
+        }
+    }
+
+    // 발송에 성공하면 notificationSeq를, 실패하면 아무것도 내보내지 않는다.
+    private Mono<Integer> send(NotificationMessage notificationMessage) {
+        return tokenBucket.acquire()
+                .then(kakaoTalkMessageAdapter.sendKakaoTalkMessage(notificationMessage.uuid(), notificationMessage.text()))
+                .onErrorResume(e -> {
+                    log.warn("NotificationSendWriter - send: 발송 실패, notificationSeq: {}, {}", notificationMessage.notificationSeq(), e.toString());
+                    return Mono.just(false);
+                })
+                .filter(Boolean::booleanValue)
+                .map(sent -> notificationMessage.notificationSeq());
+    }
+}
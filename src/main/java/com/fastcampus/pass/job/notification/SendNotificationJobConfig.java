@@ -0,0 +1,79 @@
+package com.fastcampus.pass.job.notification;
+
+import com.fastcampus.pass.config.StreamingFetchSize;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.notification.NotificationMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+
+@RequiredArgsConstructor
+@Configuration(proxyBeanMethods = false)
+public class SendNotificationJobConfig {
+    // chunk 하나의 발송이 끝날 때까지 다음 chunk를 읽지 않기 때문에, 동시 발송 건수(notification.send.concurrency)보다 충분히 크게 둔다.
+    // QueryPlanTest에서 같은 SQL의 실행 계획을 확인한다.
+    public static final String SEND_NOTIFICATION_SQL = "SELECT notification_seq, uuid, text FROM notification WHERE sent = FALSE ORDER BY notification_seq";
+
+    private final int CHUNK_SIZE = 500;
+
+    private final DataSource batchDataSource;
+    private final NotificationSendWriter notificationSendWriter;
+    private final FlightRecorderListener flightRecorderListener;
+
+    @Bean
+    public DataSourceTransactionManager sendNotificationTransactionManager() {
+        return new DataSourceTransactionManager(batchDataSource);
+    }
+
+    @Bean
+    public Job sendNotificationJob(JobRepository jobRepository, Step sendNotificationStep) {
+        return new JobBuilder("sendNotificationJob", jobRepository)
+                .start(sendNotificationStep)
+                .build();
+    }
+
+    @Bean
+    public Step sendNotificationStep(JobRepository jobRepository, DataSourceTransactionManager sendNotificationTransactionManager,
+                                     JdbcCursorItemReader<NotificationMessage> sendNotificationItemReader) {
+        return new StepBuilder("sendNotificationStep", jobRepository)
+                .<NotificationMessage, NotificationMessage>chunk(CHUNK_SIZE, sendNotificationTransactionManager)
+                .reader(sendNotificationItemReader)
+                .writer(notificationSendWriter)
+                .listener((ItemReadListener<Object>) flightRecorderListener)
+                .listener((ItemProcessListener<Object, Object>) flightRecorderListener)
+                .listener((ItemWriteListener<Object>) flightRecorderListener)
+                .build();
+    }
+
+    /**
+     * 아직 보내지 않은 알람을 JDBC cursor로 한 row씩 읽는다.
+     * 보낸 알람은 조회 조건에서 빠지기 때문에, 읽은 건수를 저장하지 않아도(saveState = false) 재시작 시 남은 알람만 다시 읽는다.
+     * 결과는 StreamingFetchSize로 streaming 하기 때문에, 알람이 많아도 driver 메모리에 모두 올리지 않는다.
+     */
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<NotificationMessage> sendNotificationItemReader() {
+        return new JdbcCursorItemReaderBuilder<NotificationMessage>()
+                .name("sendNotificationItemReader")
+                .dataSource(batchDataSource)
+                .fetchSize(StreamingFetchSize.of(batchDataSource, CHUNK_SIZE))
+                .sql(SEND_NOTIFICATION_SQL)
+                .rowMapper((rs, rowNum) -> new NotificationMessage(rs.getInt("notification_seq"), rs.getString("uuid"), rs.getString("text")))
+                .saveState(false)
+                .build();
+    }
+}
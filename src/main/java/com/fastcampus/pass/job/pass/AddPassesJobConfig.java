@@ -1,39 +1,175 @@
 package com.fastcampus.pass.job.pass;
 
+import com.fastcampus.pass.config.StreamingFetchSize;
+import com.fastcampus.pass.job.JobParameterDecider;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.pass.BulkPassEntity;
+import com.fastcampus.pass.repository.pass.BulkPassRepository;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import com.fastcampus.pass.repository.pass.PassBatchInsertWriter;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassModelMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 
 @RequiredArgsConstructor
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class AddPassesJobConfig {
+    // QueryPlanTest에서 같은 SQL의 실행 계획을 확인한다.
+    public static final String ADD_PASSES_SQL = "SELECT b.bulk_pass_seq, b.package_seq, b.user_group_id, b.count, b.started_at, b.ended_at, u.user_id" +
+            "  FROM bulk_pass b" +
+            "  JOIN user_group_mapping u ON u.user_group_id = b.user_group_id" +
+            " WHERE b.user_group_id = ? AND b.status = ? AND b.started_at > ? AND b.bulk_pass_seq <= ?" +
+            " ORDER BY b.bulk_pass_seq, u.user_id";
+
+    private final int CHUNK_SIZE = 1000;
+
     private final DataSource batchDataSource;
     private final AddPassesTasklet addPassesTasklet;
+    private final CompleteBulkPassesTasklet completeBulkPassesTasklet;
+    private final BulkPassRepository bulkPassRepository;
+    private final PassBatchInsertWriter passBatchInsertWriter;
+    private final TaskExecutor batchTaskExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final FlightRecorderListener flightRecorderListener;
 
+    /*
+     * JobParameter mode로 지급 방식을 선택한다.
+     * - chunk(기본값): user group 단위로 partition을 나누고, 각 partition에서 chunk 단위로 이용권을 추가한다.
+     * - tasklet: 하나의 tasklet, 하나의 트랜잭션에서 모든 이용권을 추가한다.
+     * - push_down: 대량 이용권마다 INSERT ... SELECT 문 하나로 DB 안에서 이용권을 추가한다. 사용자 row가 JVM을 거치지 않는다.
+     */
     @Bean
-    public DataSourceTransactionManager transactionManager() {
-        return new DataSourceTransactionManager(batchDataSource);
-    }
+    public Job addPassesJob(JobRepository jobRepository, Step addPassesStep, Step pushDownAddPassesStep, Step addPassesPartitionStep,
+                            Step completeBulkPassesStep) {
+        final JobParameterDecider modeDecider = new JobParameterDecider("mode", "CHUNK");
 
-    @Bean
-    public Job addPassesJob(JobRepository jobRepository) {
         return new JobBuilder("addPassesJob", jobRepository)
-                .start(addPassesStep(jobRepository))
+                .start(modeDecider)
+                    .on("TASKLET").to(addPassesStep)
+                .from(modeDecider)
+                    .on("PUSH_DOWN").to(pushDownAddPassesStep)
+                .from(modeDecider)
+                    .on("CHUNK").to(addPassesPartitionStep).next(completeBulkPassesStep)
+                .from(modeDecider)
+                    .on("*").fail()
+                .end()
                 .build();
     }
 
     @Bean
     public Step addPassesStep(JobRepository jobRepository) {
         return new StepBuilder("addPassesStep", jobRepository)
-                .tasklet(addPassesTasklet, transactionManager())
+                .tasklet(addPassesTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step pushDownAddPassesStep(JobRepository jobRepository, PushDownAddPassesTasklet pushDownAddPassesTasklet) {
+        return new StepBuilder("pushDownAddPassesStep", jobRepository)
+                .tasklet(pushDownAddPassesTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    public PushDownAddPassesTasklet pushDownAddPassesTasklet() {
+        return new PushDownAddPassesTasklet(new JdbcTemplate(batchDataSource));
+    }
+
+    /*
+     * user group 하나를 partition 하나로 나누고, batchTaskExecutor에서 병렬로 지급한다.
+     * 재시작하면 완료되지 않은 partition만 다시 실행된다.
+     */
+    @Bean
+    public Step addPassesPartitionStep(JobRepository jobRepository, UserGroupPartitioner userGroupPartitioner, Step addPassesWorkerStep) {
+        return new StepBuilder("addPassesPartitionStep", jobRepository)
+                .partitioner("addPassesWorkerStep", userGroupPartitioner)
+                .step(addPassesWorkerStep)
+                .taskExecutor(batchTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public UserGroupPartitioner userGroupPartitioner(@Value("#{stepExecution}") StepExecution stepExecution) {
+        return new UserGroupPartitioner(bulkPassRepository, stepExecution.getJobExecution().getExecutionContext());
+    }
+
+    @Bean
+    public Step addPassesWorkerStep(JobRepository jobRepository, JdbcCursorItemReader<BulkPassGrant> addPassesItemReader,
+                                    ItemProcessor<BulkPassGrant, PassEntity> addPassesItemProcessor) {
+        return new StepBuilder("addPassesWorkerStep", jobRepository)
+                .<BulkPassGrant, PassEntity>chunk(CHUNK_SIZE, transactionManager)
+                .reader(addPassesItemReader)
+                .processor(addPassesItemProcessor)
+                .writer(passBatchInsertWriter)
+                .listener((ItemReadListener<Object>) flightRecorderListener)
+                .listener((ItemProcessListener<Object, Object>) flightRecorderListener)
+                .listener((ItemWriteListener<Object>) flightRecorderListener)
+                .build();
+    }
+
+    /*
+     * user group에 지급할 대량 이용권과 그룹 사용자를 join해서 한 row씩 읽는다.
+     * 정렬 순서가 고정되어 있기 때문에, 재시작 시 step ExecutionContext에 저장된 read count 만큼 건너뛰고 이어서 읽는다.
+     * 결과는 StreamingFetchSize로 streaming 하기 때문에, 그룹 사용자가 많아도 join 결과를 driver 메모리에 모두 올리지 않는다.
+     */
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<BulkPassGrant> addPassesItemReader(@Value("#{stepExecutionContext[userGroupId]}") String userGroupId,
+                                                                  @Value("#{stepExecutionContext['addPasses.startedAt']}") String startedAtString,
+                                                                  @Value("#{stepExecutionContext['addPasses.maxBulkPassSeq']}") Integer maxBulkPassSeq) {
+        return new JdbcCursorItemReaderBuilder<BulkPassGrant>()
+                .name("addPassesItemReader")
+                .dataSource(batchDataSource)
+                .fetchSize(StreamingFetchSize.of(batchDataSource, CHUNK_SIZE))
+                .sql(ADD_PASSES_SQL)
+                .queryArguments(userGroupId, BulkPassStatus.READY.name(), Timestamp.valueOf(LocalDateTime.parse(startedAtString)), maxBulkPassSeq)
+                .rowMapper((rs, rowNum) -> {
+                    BulkPassEntity bulkPassEntity = new BulkPassEntity();
+                    bulkPassEntity.setBulkPassSeq(rs.getInt("bulk_pass_seq"));
+                    bulkPassEntity.setPackageSeq(rs.getInt("package_seq"));
+                    bulkPassEntity.setUserGroupId(rs.getString("user_group_id"));
+                    bulkPassEntity.setStatus(BulkPassStatus.READY);
+                    bulkPassEntity.setCount(rs.getObject("count", Integer.class));
+                    bulkPassEntity.setStartedAt(rs.getObject("started_at", LocalDateTime.class));
+                    bulkPassEntity.setEndedAt(rs.getObject("ended_at", LocalDateTime.class));
+                    return new BulkPassGrant(bulkPassEntity, rs.getString("user_id"));
+                })
+                .build();
+    }
+
+    @Bean
+    public ItemProcessor<BulkPassGrant, PassEntity> addPassesItemProcessor() {
+        return bulkPassGrant -> PassModelMapper.INSTANCE.toPassEntity(bulkPassGrant.bulkPassEntity(), bulkPassGrant.userId());
+    }
+
+    @Bean
+    public Step completeBulkPassesStep(JobRepository jobRepository) {
+        return new StepBuilder("completeBulkPassesStep", jobRepository)
+                .tasklet(completeBulkPassesTasklet, transactionManager)
                 .build();
     }
 
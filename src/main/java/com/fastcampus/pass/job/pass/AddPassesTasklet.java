@@ -1,8 +1,6 @@
 package com.fastcampus.pass.job.pass;
 
 import com.fastcampus.pass.repository.pass.*;
-import com.fastcampus.pass.repository.user.UserGroupMappingEntity;
-import com.fastcampus.pass.repository.user.UserGroupMappingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.StepContribution;
@@ -14,14 +12,15 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
 @Slf4j
 @Component
 public class AddPassesTasklet implements Tasklet {
-    private final PassRepository passRepository;
+    private final PassBatchInsertWriter passBatchInsertWriter;
     private final BulkPassRepository bulkPassRepository;
-    private final UserGroupMappingRepository userGroupMappingRepository;
+    private final UserGroupMembershipCache userGroupMembershipCache;
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
@@ -29,15 +28,13 @@ public class AddPassesTasklet implements Tasklet {
         final LocalDateTime startedAt = LocalDateTime.now().minusDays(1);
         final List<BulkPassEntity> bulkPassEntities = bulkPassRepository.findByStatusAndStartedAtGreaterThan(BulkPassStatus.READY, startedAt);
 
+        // 대량 이용권이 대상으로 하는 user group의 userId를 한 번에 조회한다. 같은 user group은 한 번만 조회한다.
+        final Map<String, String[]> userIdsByGroup = userGroupMembershipCache.getAll(bulkPassEntities.stream().map(BulkPassEntity::getUserGroupId).toList());
+
         int count = 0;
-        // 대량 이용권 정보를 돌면서 user group에 속한 userId를 조회하고 해당 userId로 이용권을 추가한다.
+        // 대량 이용권 정보를 돌면서 user group에 속한 userId로 이용권을 추가한다.
         for (BulkPassEntity bulkPassEntity : bulkPassEntities) {
-            List<String> userIds = userGroupMappingRepository.findByUserGroupId(bulkPassEntity.getUserGroupId())
-                    .stream()
-                    .map(UserGroupMappingEntity::getUserId)
-                    .toList();
-
-            count += addPasses(bulkPassEntity, userIds);
+            count += addPasses(bulkPassEntity, userIdsByGroup.get(bulkPassEntity.getUserGroupId()));
 
             bulkPassEntity.setStatus(BulkPassStatus.COMPLETED);
         }
@@ -47,13 +44,13 @@ public class AddPassesTasklet implements Tasklet {
     }
 
     // bulkPass의 정보로 pass 데이터를 생성한다.
-    private int addPasses(BulkPassEntity bulkPassEntity, List<String> userIds) {
-        List<PassEntity> passEntities = new ArrayList<>();
+    private int addPasses(BulkPassEntity bulkPassEntity, String[] userIds) {
+        List<PassEntity> passEntities = new ArrayList<>(userIds.length);
         for (String userId: userIds) {
             PassEntity passEntity = PassModelMapper.INSTANCE.toPassEntity(bulkPassEntity, userId);
             passEntities.add(passEntity);
         }
 
-        return passRepository.saveAll(passEntities).size();
+        return passBatchInsertWriter.insertAll(passEntities);
     }
 }
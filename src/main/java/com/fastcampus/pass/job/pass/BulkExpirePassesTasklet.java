@@ -0,0 +1,80 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.pass.PassStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/*
+ * 만료 대상 이용권을 엔티티로 읽지 않고 UPDATE 문으로 바로 만료시킨다.
+ * 만료 대상의 pass_seq 범위를 rangeSize 단위로 나누고, execute 한 번에 범위 하나를 UPDATE 한다.
+ * execute 한 번이 트랜잭션 하나이기 때문에 undo log가 범위 크기만큼만 쌓인다.
+ *
+ * 처리한 마지막 pass_seq와 기준 시각(now)은 step ExecutionContext에 저장된다.
+ * TaskletStep은 execute 결과와 ExecutionContext를 같은 트랜잭션에서 커밋하기 때문에, 재시작하면 다음 범위부터 이어서 처리한다.
+ */
+@Slf4j
+public class BulkExpirePassesTasklet implements Tasklet {
+    static final String NOW = "bulkExpirePasses.now";
+    static final String LAST_PASS_SEQ = "bulkExpirePasses.lastPassSeq";
+    static final String MAX_PASS_SEQ = "bulkExpirePasses.maxPassSeq";
+
+    public static final String SELECT_RANGE_SQL = "SELECT MIN(pass_seq) AS min_pass_seq, MAX(pass_seq) AS max_pass_seq FROM pass WHERE status = ? AND ended_at <= ?";
+    public static final String UPDATE_SQL = "UPDATE pass SET status = ?, expired_at = ?, modified_at = ?" +
+            " WHERE status = ? AND ended_at <= ? AND pass_seq BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rangeSize;
+
+    public BulkExpirePassesTasklet(JdbcTemplate jdbcTemplate, int rangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rangeSize = rangeSize;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        final ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        if (!executionContext.containsKey(NOW) && !initialize(executionContext)) {
+            log.info("BulkExpirePassesTasklet - execute: 만료 대상 이용권 없음");
+            return RepeatStatus.FINISHED;
+        }
+
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.parse(executionContext.getString(NOW)));
+        final int maxPassSeq = executionContext.getInt(MAX_PASS_SEQ);
+        final int lo = executionContext.getInt(LAST_PASS_SEQ) + 1;
+        final int hi = (int) Math.min((long) lo + rangeSize - 1, maxPassSeq);
+
+        final int count = jdbcTemplate.update(UPDATE_SQL,
+                PassStatus.EXPIRED.name(), now, now,
+                PassStatus.IN_PROGRESS.name(), now, lo, hi);
+        contribution.incrementWriteCount(count);
+        executionContext.putInt(LAST_PASS_SEQ, hi);
+
+        log.debug("BulkExpirePassesTasklet - execute: pass_seq {} ~ {}, 이용권 {}건 만료", lo, hi, count);
+        return hi >= maxPassSeq ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+
+    // 만료 대상의 pass_seq 범위를 조회해서 ExecutionContext에 저장한다. 대상이 없으면 false를 반환한다.
+    private boolean initialize(ExecutionContext executionContext) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<String, Object> range = jdbcTemplate.queryForMap(SELECT_RANGE_SQL, PassStatus.IN_PROGRESS.name(), Timestamp.valueOf(now));
+        final Number minPassSeq = (Number) range.get("min_pass_seq");
+        final Number maxPassSeq = (Number) range.get("max_pass_seq");
+        if (minPassSeq == null || maxPassSeq == null) {
+            return false;
+        }
+
+        executionContext.putString(NOW, now.toString());
+        executionContext.putInt(LAST_PASS_SEQ, minPassSeq.intValue() - 1);
+        executionContext.putInt(MAX_PASS_SEQ, maxPassSeq.intValue());
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.pass.BulkPassEntity;
+
+// 대량 이용권 1건과 user group에 속한 사용자 1명. 이용권(PassEntity) 1건으로 변환된다.
+public record BulkPassGrant(BulkPassEntity bulkPassEntity, String userId) {
+}
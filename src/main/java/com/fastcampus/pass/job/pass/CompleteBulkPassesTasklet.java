@@ -0,0 +1,53 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/*
+ * 모든 user group partition이 완료된 뒤, 지급이 끝난 대량 이용권의 상태를 COMPLETED로 변경한다.
+ * 조회 기준은 UserGroupPartitioner가 job ExecutionContext에 저장한 값을 사용한다.
+ * READY 상태만 변경하므로 재시작으로 다시 수행되어도 결과가 같다.
+ */
+@Slf4j
+@Component
+@StepScope
+public class CompleteBulkPassesTasklet implements Tasklet {
+    public static final String UPDATE_SQL = "UPDATE bulk_pass SET status = ? WHERE status = ? AND started_at > ? AND bulk_pass_seq <= ?";
+
+    @Value("#{jobExecutionContext['" + UserGroupPartitioner.STARTED_AT + "']}")
+    private String startedAtString;
+    @Value("#{jobExecutionContext['" + UserGroupPartitioner.MAX_BULK_PASS_SEQ + "']}")
+    private Integer maxBulkPassSeq;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CompleteBulkPassesTasklet(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        if (startedAtString == null || maxBulkPassSeq == null) {
+            // 지급 대상 대량 이용권이 없었던 경우
+            return RepeatStatus.FINISHED;
+        }
+        final LocalDateTime startedAt = LocalDateTime.parse(startedAtString);
+        final int count = jdbcTemplate.update(UPDATE_SQL,
+                BulkPassStatus.COMPLETED.name(), BulkPassStatus.READY.name(), Timestamp.valueOf(startedAt), maxBulkPassSeq);
+        contribution.incrementWriteCount(count);
+
+        log.info("CompleteBulkPassesTasklet - execute: 대량 이용권 {}건 완료 처리, startedAt={}", count, startedAt);
+        return RepeatStatus.FINISHED;
+    }
+}
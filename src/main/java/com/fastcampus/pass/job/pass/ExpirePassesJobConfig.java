@@ -1,72 +1,197 @@
 package com.fastcampus.pass.job.pass;
 
+import com.fastcampus.pass.config.StreamingFetchSize;
+import com.fastcampus.pass.job.AdaptiveCompletionPolicy;
+import com.fastcampus.pass.job.BisectingItemWriter;
+import com.fastcampus.pass.job.ColumnRangePartitioner;
+import com.fastcampus.pass.job.DeadLetterSkipListener;
+import com.fastcampus.pass.job.JobParameterDecider;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.StatelessSessionCursorItemReader;
+import com.fastcampus.pass.repository.StatelessSessionItemWriter;
 import com.fastcampus.pass.repository.pass.PassEntity;
 import com.fastcampus.pass.repository.pass.PassStatus;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaCursorItemReader;
 import org.springframework.batch.item.database.builder.JpaCursorItemReaderBuilder;
 import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 
 @RequiredArgsConstructor
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class ExpirePassesJobConfig {
 
-    private final int CHUNK_SIZE = 5;
+    // MySQL이 아닌 DB에서 stateless reader가 한 번에 가져오는 row 수. chunk 크기는 expirePassesCompletionPolicy가 정한다.
+    // QueryPlanTest에서 같은 조건의 실행 계획을 확인한다.
+    public static final String EXPIRE_PASSES_WHERE = "status = ? AND ended_at <= ?";
+    public static final String EXPIRE_PASSES_QUERY = "SELECT p from PassEntity p where p.status = :status AND p.endedAt <= :endedAt AND p.passSeq BETWEEN :minPassSeq AND :maxPassSeq";
+
+    private final int FETCH_SIZE = 1000;
+    // bulk 모드에서 UPDATE 문 하나가 다루는 pass_seq 범위
+    private final int RANGE_SIZE = 10_000;
 
     private final DataSource batchDataSource;
     private final EntityManagerFactory entityManagerFactory;
+    private final DeadLetterSkipListener deadLetterSkipListener;
+    private final TaskExecutor batchTaskExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final FlightRecorderListener flightRecorderListener;
 
-	@Bean
-	public DataSourceTransactionManager transactionManager() {
-		return new DataSourceTransactionManager(batchDataSource);
-	}
+    /*
+     * JpaItemWriter는 JPA 트랜잭션 안에서 flush 해야 하기 때문에, JPA를 사용하는 chunk step은 JpaTransactionManager를 사용한다.
+     * JpaTransactionManager는 같은 DataSource의 JDBC 커넥션도 트랜잭션에 묶어준다.
+     */
+    @Bean
+    public JpaTransactionManager expirePassesTransactionManager() {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
 
+    /*
+     * JobParameter mode로 만료 방식을 선택한다.
+     * - chunk(기본값): pass_seq 범위로 partition을 나누고, 각 partition에서 이용권을 엔티티로 읽어서 상태를 바꾸고 JPA로 저장한다.
+     * - bulk: pass_seq 범위 단위의 UPDATE 문으로 만료시킨다.
+     */
     @Bean
-    public Job expirePassesJob(JobRepository jobRepository) {
+    public Job expirePassesJob(JobRepository jobRepository, Step expirePassesPartitionStep, Step bulkExpirePassesStep) {
+        final JobParameterDecider modeDecider = new JobParameterDecider("mode", "CHUNK");
+
         return new JobBuilder("expirePassesJob", jobRepository)
-                .start(expirePassesStep(jobRepository))
+                .start(modeDecider)
+                    .on("CHUNK").to(expirePassesPartitionStep)
+                .from(modeDecider)
+                    .on("BULK").to(bulkExpirePassesStep)
+                .from(modeDecider)
+                    .on("*").fail()
+                .end()
+                .build();
+    }
+
+    /*
+     * 만료 대상 이용권의 pass_seq 구간을 gridSize 개의 범위로 나누고, 범위마다 expirePassesStep을 worker로 실행한다.
+     * gridSize는 JobParameter로 받는다. (기본값 4) 동시에 실행되는 partition 수는 batchTaskExecutor가 제한한다.
+     * partition 범위와 기준 시각은 partition ExecutionContext에 저장되기 때문에, 재시작하면 실패한 partition만 같은 범위로 다시 실행된다.
+     */
+    @Bean
+    public Step expirePassesPartitionStep(JobRepository jobRepository, ColumnRangePartitioner expirePassesPartitioner,
+                                          TaskExecutorPartitionHandler expirePassesPartitionHandler) {
+        return new StepBuilder("expirePassesPartitionStep", jobRepository)
+                .partitioner("expirePassesStep", expirePassesPartitioner)
+                .partitionHandler(expirePassesPartitionHandler)
                 .build();
     }
 
     @Bean
-    public Step expirePassesStep(JobRepository jobRepository) {
+    @StepScope
+    public ColumnRangePartitioner expirePassesPartitioner() {
+        final LocalDateTime now = LocalDateTime.now();
+        return new ColumnRangePartitioner(new JdbcTemplate(batchDataSource), "pass", "pass_seq",
+                EXPIRE_PASSES_WHERE, new Object[]{PassStatus.IN_PROGRESS.name(), now},
+                Map.of("now", now.toString()));
+    }
+
+    @Bean
+    @StepScope
+    public TaskExecutorPartitionHandler expirePassesPartitionHandler(@Value("#{jobParameters['gridSize'] ?: 4}") Integer gridSize, Step expirePassesStep) {
+        TaskExecutorPartitionHandler partitionHandler = new TaskExecutorPartitionHandler();
+        partitionHandler.setStep(expirePassesStep);
+        partitionHandler.setTaskExecutor(batchTaskExecutor);
+        partitionHandler.setGridSize(gridSize);
+        return partitionHandler;
+    }
+
+    @Bean
+    public Step expirePassesStep(JobRepository jobRepository, JpaTransactionManager expirePassesTransactionManager,
+                                 AdaptiveCompletionPolicy expirePassesCompletionPolicy,
+                                 ItemStreamReader<PassEntity> expirePassesItemReader,
+                                 ItemProcessor<PassEntity, PassEntity> expirePassesItemProcessor,
+                                 ItemWriter<PassEntity> expirePassesItemWriter) {
         return new StepBuilder("expirePassesStep", jobRepository)
-                .<PassEntity, PassEntity>chunk(CHUNK_SIZE, transactionManager())
-                .reader(expirePassesItemReader())
-                .processor(expirePassesItemProcessor())
-                .writer(expirePassesItemWriter())
+                .<PassEntity, PassEntity>chunk(expirePassesCompletionPolicy, expirePassesTransactionManager)
+                .reader(expirePassesItemReader)
+                .processor(expirePassesItemProcessor)
+                .writer(expirePassesItemWriter)
+                .listener((ItemReadListener<Object>) flightRecorderListener)
+                .listener((ItemProcessListener<Object, Object>) flightRecorderListener)
+                .listener((ItemWriteListener<Object>) flightRecorderListener)
+                .listener((StepExecutionListener) expirePassesCompletionPolicy)
+                .listener((ChunkListener) expirePassesCompletionPolicy)
                 .build();
     }
 
     /*
+     * commit 하나가 batch.chunk.expire-passes.target-duration 안에 끝나도록 chunk 크기를 조절한다.
+     * partition worker마다 step 실행이 따로 있기 때문에 크기도 partition마다 따로 정한다.
+     */
+    @Bean
+    @StepScope
+    public AdaptiveCompletionPolicy expirePassesCompletionPolicy(@Value("${batch.chunk.expire-passes.initial-size:100}") int initialSize,
+                                                                 @Value("${batch.chunk.expire-passes.min-size:10}") int minSize,
+                                                                 @Value("${batch.chunk.expire-passes.max-size:5000}") int maxSize,
+                                                                 @Value("${batch.chunk.expire-passes.target-duration:PT0.5S}") Duration targetDuration) {
+        return new AdaptiveCompletionPolicy(initialSize, minSize, maxSize, targetDuration, Metrics.globalRegistry);
+    }
+
+    /*
+     * JobParameter session으로 expirePassesStep의 reader/writer를 선택한다.
+     * - stateful(기본값): JpaCursorItemReader와 JpaItemWriter. EntityManager가 읽은 엔티티를 영속성 컨텍스트에 쌓고 dirty checking 한다.
+     * - stateless: StatelessSessionCursorItemReader와 StatelessSessionItemWriter. 영속성 컨텍스트 없이 읽고, update를 JDBC 배치로 보낸다.
+     *
      * JpaCursorItemReader: JpaPagingITemReader 만 지원하다가 Spring 4.3에서 추가됐다.
      * 페이징 기법보다 높은 성능을 가졌으며, 데이터 변경에 무관한 무결성 조회가 가능하다.
      * 여기서 페이징 기법을 사용하게 되면 데이터가 누락될 수 있다.
+     *
+     * partition ExecutionContext의 pass_seq 범위와 기준 시각으로 조회한다.
+     * 만료된 이용권은 조회 조건에서 빠지기 때문에, 읽은 건수를 저장하지 않아도(saveState = false) 재시작 시 남은 이용권만 다시 읽는다.
      */
     @Bean
     @StepScope
-    public JpaCursorItemReader<PassEntity> expirePassesItemReader() {
+    public ItemStreamReader<PassEntity> expirePassesItemReader(@Value("#{stepExecutionContext[minValue]}") Long minPassSeq,
+                                                               @Value("#{stepExecutionContext[maxValue]}") Long maxPassSeq,
+                                                               @Value("#{stepExecutionContext[now]}") String nowString,
+                                                               @Value("#{jobParameters['session'] ?: 'stateful'}") String session) {
+        final Map<String, Object> parameterValues = Map.of("status", PassStatus.IN_PROGRESS, "endedAt", LocalDateTime.parse(nowString),
+                "minPassSeq", minPassSeq.intValue(), "maxPassSeq", maxPassSeq.intValue());
+
+        if (isStateless(session)) {
+            final StatelessSessionCursorItemReader<PassEntity> reader = new StatelessSessionCursorItemReader<>("expirePassesItemReader",
+                    entityManagerFactory.unwrap(SessionFactory.class), EXPIRE_PASSES_QUERY, PassEntity.class, parameterValues, StreamingFetchSize.of(batchDataSource, FETCH_SIZE));
+            reader.setSaveState(false);
+            return reader;
+        }
         return new JpaCursorItemReaderBuilder<PassEntity>()
                 .name("expirePassesItemReader")
                 .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT p from PassEntity p where p.status = :status AND p.endedAt <= :endedAt")
-                .parameterValues(Map.of("status", PassStatus.IN_PROGRESS, "endedAt", LocalDateTime.now()))
+                .queryString(EXPIRE_PASSES_QUERY)
+                .parameterValues(parameterValues)
+                .saveState(false)
                 .build();
     }
 
@@ -81,12 +206,65 @@ public class ExpirePassesJobConfig {
 
     /*
      * JpaItemWriter: JPA의 영속성 관리를 위해 EntityManager를 필수로 설정해줘야 한다.
+     * StatelessSessionItemWriter는 JpaTransactionManager가 chunk 트랜잭션에 묶어둔 JDBC 커넥션으로 update 한다.
+     *
+     * JobParameter writeError로 쓰기가 실패했을 때의 동작을 선택한다.
+     * - fail(기본값): chunk를 rollback 하고 step을 실패시킨다.
+     * - bisect: BisectingItemWriter로 chunk를 반씩 나눠 다시 쓰면서 실패한 이용권만 dead_letter 테이블에 남기고, 나머지는 commit 한다.
+     *   savepoint rollback으로 쓴 내용을 되돌려야 하기 때문에 session=stateless에서만 사용할 수 있다.
+     *   step 실행 하나에서 batch.chunk.expire-passes.skip-limit 건보다 많이 실패하면 step을 실패시킨다.
      */
     @Bean
-    public ItemWriter<PassEntity> expirePassesItemWriter() {
+    @StepScope
+    public ItemWriter<PassEntity> expirePassesItemWriter(@Value("#{jobParameters['session'] ?: 'stateful'}") String session,
+                                                         @Value("#{jobParameters['writeError'] ?: 'fail'}") String writeError,
+                                                         @Value("${batch.chunk.expire-passes.skip-limit:100}") int skipLimit) {
+        final boolean bisect = isBisect(writeError);
+        if (isStateless(session)) {
+            final StatelessSessionItemWriter<PassEntity> writer = new StatelessSessionItemWriter<>(entityManagerFactory.unwrap(SessionFactory.class), batchDataSource, StatelessSessionItemWriter.Operation.UPDATE);
+            return bisect ? new BisectingItemWriter<>(writer, batchDataSource, deadLetterSkipListener, skipLimit) : writer;
+        }
+        if (bisect) {
+            throw new IllegalArgumentException("writeError=bisect는 session=stateless에서만 사용할 수 있습니다.");
+        }
         return new JpaItemWriterBuilder<PassEntity>()
                 .entityManagerFactory(entityManagerFactory)
                 .build();
     }
 
+    private boolean isBisect(String writeError) {
+        if ("bisect".equalsIgnoreCase(writeError)) {
+            return true;
+        }
+        if ("fail".equalsIgnoreCase(writeError)) {
+            return false;
+        }
+        throw new IllegalArgumentException("writeError는 fail 또는 bisect여야 합니다: " + writeError);
+    }
+
+    private boolean isStateless(String session) {
+        if ("stateless".equalsIgnoreCase(session)) {
+            return true;
+        }
+        if ("stateful".equalsIgnoreCase(session)) {
+            return false;
+        }
+        throw new IllegalArgumentException("session은 stateful 또는 stateless여야 합니다: " + session);
+    }
+
+    /*
+     * UPDATE 문으로 처리한 row 수가 step의 write count로 기록된다.
+     */
+    @Bean
+    public Step bulkExpirePassesStep(JobRepository jobRepository, BulkExpirePassesTasklet bulkExpirePassesTasklet) {
+        return new StepBuilder("bulkExpirePassesStep", jobRepository)
+                .tasklet(bulkExpirePassesTasklet, transactionManager)
+                .build();
+    }
+
+    @Bean
+    public BulkExpirePassesTasklet bulkExpirePassesTasklet() {
+        return new BulkExpirePassesTasklet(new JdbcTemplate(batchDataSource), RANGE_SIZE);
+    }
+
 }
@@ -0,0 +1,66 @@
+package com.fastcampus.pass.job.pass;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@RequiredArgsConstructor
+@Configuration(proxyBeanMethods = false)
+public class PassLifecycleJobConfig {
+
+    private final DataSource batchDataSource;
+
+    @Bean
+    public DataSourceTransactionManager passLifecycleTransactionManager() {
+        return new DataSourceTransactionManager(batchDataSource);
+    }
+
+    /*
+     * 이용권의 시작과 만료를 deadline에 맞춰 계속 처리하는 job. expirePassesJob처럼 주기적으로 실행하지 않고 계속 띄워둔다.
+     * JobParameter runFor(ISO-8601 기간, 예: PT1H)를 주면 그 시간 동안만 실행한다. 없으면 JobOperator.stop()으로 멈출 때까지 실행한다.
+     */
+    @Bean
+    public Job passLifecycleJob(JobRepository jobRepository, Step passLifecycleStep) {
+        return new JobBuilder("passLifecycleJob", jobRepository)
+                .start(passLifecycleStep)
+                .build();
+    }
+
+    /*
+     * tasklet은 tick마다 다음 tick까지 기다린다. 기다리는 동안 커넥션을 잡고 있지 않도록 step 트랜잭션은 ResourcelessTransactionManager로 두고,
+     * UPDATE는 tasklet이 batch 단위로 passLifecycleTransactionManager 트랜잭션에서 실행한다.
+     */
+    @Bean
+    public Step passLifecycleStep(JobRepository jobRepository, PassLifecycleTasklet passLifecycleTasklet) {
+        return new StepBuilder("passLifecycleStep", jobRepository)
+                .tasklet(passLifecycleTasklet, new ResourcelessTransactionManager())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public PassLifecycleTasklet passLifecycleTasklet(@Value("${pass.lifecycle.tick:PT1S}") Duration tick,
+                                                     @Value("${pass.lifecycle.window:PT1H}") Duration window,
+                                                     @Value("${pass.lifecycle.refill-interval:PT1M}") Duration refillInterval,
+                                                     @Value("${pass.lifecycle.batch-size:500}") int batchSize,
+                                                     @Value("#{jobParameters['runFor']}") String runFor,
+                                                     DataSourceTransactionManager passLifecycleTransactionManager) {
+        return new PassLifecycleTasklet(new JdbcTemplate(batchDataSource), new TransactionTemplate(passLifecycleTransactionManager),
+                tick, window, refillInterval, batchSize, runFor == null ? null : Duration.parse(runFor));
+    }
+
+}
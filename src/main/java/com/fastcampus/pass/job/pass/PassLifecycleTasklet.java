@@ -0,0 +1,187 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.BatchUpdateCounts;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import com.fastcampus.pass.util.TimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 이용권의 시작(READY → IN_PROGRESS)과 만료(READY, IN_PROGRESS → EXPIRED)를 started_at, ended_at이 지나는 대로 계속 처리한다.
+ * - 앞으로 window 동안 돌아오는 started_at, ended_at을 읽어서 timing wheel에 넣는다.
+ * - execute 한 번이 tick 하나다. deadline이 지난 이용권을 wheel에서 꺼내서 batchSize 건씩 UPDATE 한다. (batch 하나가 트랜잭션 하나)
+ * - refillInterval마다 이미 읽은 구간 다음부터 (현재 + window)까지만 추가로 읽는다. 테이블 전체를 다시 훑지 않는다.
+ * - 읽은 뒤에 추가되거나 기간이 바뀐 이용권은 wheel에 없을 수 있다.
+ *   그래서 refill 할 때 deadline이 지났는데 상태가 그대로인 이용권을 최대 batchSize 건씩 찾아서 바로 처리한다. (처음 시작할 때 밀린 이용권도 이렇게 처리한다)
+ * UPDATE 문은 상태와 deadline을 다시 확인하기 때문에, 읽은 뒤에 상태나 기간이 바뀐 이용권은 바꾸지 않는다.
+ *
+ * 시작하기 전에 기간이 끝난 READY 이용권은 IN_PROGRESS를 거치지 않고 바로 EXPIRED가 된다.
+ * wheel은 메모리에만 있고, step을 다시 실행하면 DB에서 다시 읽는다.
+ * step은 runFor가 지나면 끝난다. runFor가 없으면 JobOperator.stop()으로 멈출 때까지 실행한다.
+ */
+@Slf4j
+public class PassLifecycleTasklet implements Tasklet {
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
+    public static final String SELECT_STARTS_SQL = "SELECT pass_seq, started_at FROM pass WHERE status = ? AND started_at > ? AND started_at <= ?";
+    public static final String SELECT_ENDS_SQL = "SELECT pass_seq, ended_at FROM pass WHERE status IN (?, ?) AND ended_at > ? AND ended_at <= ?";
+    public static final String SELECT_OVERDUE_STARTS_SQL = "SELECT pass_seq FROM pass WHERE status = ? AND started_at <= ? AND (ended_at IS NULL OR ended_at > ?) LIMIT ?";
+    public static final String SELECT_OVERDUE_ENDS_SQL = "SELECT pass_seq FROM pass WHERE status IN (?, ?) AND ended_at <= ? LIMIT ?";
+    private static final String START_SQL = "UPDATE pass SET status = ?, modified_at = ?" +
+            " WHERE pass_seq = ? AND status = ? AND started_at <= ? AND (ended_at IS NULL OR ended_at > ?)";
+    private static final String EXPIRE_SQL = "UPDATE pass SET status = ?, expired_at = ?, modified_at = ?" +
+            " WHERE pass_seq = ? AND status IN (?, ?) AND ended_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tick;
+    private final Duration window;
+    private final Duration refillInterval;
+    private final int batchSize;
+    private final Duration runFor;
+    private final ZoneId zoneId = ZoneId.systemDefault();
+
+    private TimingWheel<PassDeadline> timingWheel;
+    private LocalDateTime loadedUntil;
+    private LocalDateTime nextRefillAt;
+    private LocalDateTime stopAt;
+    // 지난 refill에서 밀린 이용권을 batchSize 건까지 찾았다면, 남은 이용권이 있을 수 있으므로 다음 tick에 이어서 찾는다.
+    private boolean overduePending;
+
+    public PassLifecycleTasklet(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                Duration tick, Duration window, Duration refillInterval, int batchSize, Duration runFor) {
+        if (tick.isNegative() || tick.isZero() || window.compareTo(refillInterval) < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("tick은 0보다 크고, window는 refillInterval 이상, batchSize는 1 이상이어야 합니다.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tick = tick;
+        this.window = window;
+        this.refillInterval = refillInterval;
+        this.batchSize = batchSize;
+        this.runFor = runFor;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws InterruptedException {
+        final long tickStartedAt = System.nanoTime();
+        final LocalDateTime now = LocalDateTime.now();
+        if (timingWheel == null) {
+            timingWheel = new TimingWheel<>(tick.toMillis(), WHEEL_SIZE, WHEEL_LEVELS, toMillis(now));
+            loadedUntil = now;
+            nextRefillAt = now;
+            stopAt = runFor == null ? null : now.plus(runFor);
+        }
+
+        contribution.incrementWriteCount(fire(timingWheel.advance(toMillis(now)), now));
+        if (overduePending || !now.isBefore(nextRefillAt)) {
+            contribution.incrementWriteCount(refill(now));
+        }
+
+        if (stopAt != null && !now.isBefore(stopAt)) {
+            log.info("PassLifecycleTasklet - execute: runFor {} 경과, wheel에 남은 deadline {}건", runFor, timingWheel.size());
+            return RepeatStatus.FINISHED;
+        }
+        final long sleepNanos = tick.toNanos() - (System.nanoTime() - tickStartedAt);
+        if (sleepNanos > 0) {
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        }
+        return RepeatStatus.CONTINUABLE;
+    }
+
+    // (loadedUntil, now + window] 구간의 deadline을 wheel에 넣고, deadline이 지났는데 처리되지 않은 이용권을 처리한다. 처리한 이용권 수를 반환한다.
+    private int refill(LocalDateTime now) {
+        final LocalDateTime horizon = now.plus(window);
+        if (!now.isBefore(nextRefillAt) && horizon.isAfter(loadedUntil)) {
+            final int sizeBefore = timingWheel.size();
+            jdbcTemplate.query(SELECT_STARTS_SQL, rs -> {
+                timingWheel.add(toMillis(rs.getTimestamp("started_at").toLocalDateTime()), new PassDeadline(rs.getInt("pass_seq"), Transition.START));
+            }, PassStatus.READY.name(), Timestamp.valueOf(loadedUntil), Timestamp.valueOf(horizon));
+            jdbcTemplate.query(SELECT_ENDS_SQL, rs -> {
+                timingWheel.add(toMillis(rs.getTimestamp("ended_at").toLocalDateTime()), new PassDeadline(rs.getInt("pass_seq"), Transition.EXPIRE));
+            }, PassStatus.READY.name(), PassStatus.IN_PROGRESS.name(), Timestamp.valueOf(loadedUntil), Timestamp.valueOf(horizon));
+
+            log.debug("PassLifecycleTasklet - refill: {} ~ {}, deadline {}건 추가", loadedUntil, horizon, timingWheel.size() - sizeBefore);
+            loadedUntil = horizon;
+            nextRefillAt = now.plus(refillInterval);
+        }
+
+        final Timestamp timestamp = Timestamp.valueOf(now);
+        final List<Integer> overdueStarts = jdbcTemplate.queryForList(SELECT_OVERDUE_STARTS_SQL, Integer.class,
+                PassStatus.READY.name(), timestamp, timestamp, batchSize);
+        final List<Integer> overdueEnds = jdbcTemplate.queryForList(SELECT_OVERDUE_ENDS_SQL, Integer.class,
+                PassStatus.READY.name(), PassStatus.IN_PROGRESS.name(), timestamp, batchSize);
+        overduePending = overdueStarts.size() == batchSize || overdueEnds.size() == batchSize;
+
+        final int count = update(Transition.START, overdueStarts, now) + update(Transition.EXPIRE, overdueEnds, now);
+        if (count > 0) {
+            log.info("PassLifecycleTasklet - refill: wheel 밖의 이용권 {}건 처리", count);
+        }
+        return count;
+    }
+
+    // wheel에서 꺼낸 이용권을 전환별로 나눠서 처리하고, 처리한 이용권 수를 반환한다.
+    private int fire(List<PassDeadline> passDeadlines, LocalDateTime now) {
+        if (passDeadlines.isEmpty()) {
+            return 0;
+        }
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        for (PassDeadline passDeadline : passDeadlines) {
+            (passDeadline.transition() == Transition.START ? starts : ends).add(passDeadline.passSeq());
+        }
+        return update(Transition.START, starts, now) + update(Transition.EXPIRE, ends, now);
+    }
+
+    private int update(Transition transition, List<Integer> passSeqs, LocalDateTime now) {
+        final Timestamp timestamp = Timestamp.valueOf(now);
+        int count = 0;
+        for (int from = 0; from < passSeqs.size(); from += batchSize) {
+            final List<Integer> batch = passSeqs.subList(from, Math.min(from + batchSize, passSeqs.size()));
+            final int[][] updateCounts = transactionTemplate.execute(status -> transition == Transition.START
+                    ? jdbcTemplate.batchUpdate(START_SQL, batch, batch.size(), (ps, passSeq) -> {
+                        ps.setString(1, PassStatus.IN_PROGRESS.name());
+                        ps.setTimestamp(2, timestamp);
+                        ps.setInt(3, passSeq);
+                        ps.setString(4, PassStatus.READY.name());
+                        ps.setTimestamp(5, timestamp);
+                        ps.setTimestamp(6, timestamp);
+                    })
+                    : jdbcTemplate.batchUpdate(EXPIRE_SQL, batch, batch.size(), (ps, passSeq) -> {
+                        ps.setString(1, PassStatus.EXPIRED.name());
+                        ps.setTimestamp(2, timestamp);
+                        ps.setTimestamp(3, timestamp);
+                        ps.setInt(4, passSeq);
+                        ps.setString(5, PassStatus.READY.name());
+                        ps.setString(6, PassStatus.IN_PROGRESS.name());
+                        ps.setTimestamp(7, timestamp);
+                    }));
+            count += BatchUpdateCounts.count(updateCounts);
+        }
+        return count;
+    }
+
+    private long toMillis(LocalDateTime localDateTime) {
+        return localDateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private enum Transition {
+        START, EXPIRE
+    }
+
+    private record PassDeadline(int passSeq, Transition transition) {
+    }
+}
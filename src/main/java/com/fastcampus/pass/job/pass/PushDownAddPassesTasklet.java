@@ -0,0 +1,87 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 대량 이용권을 JVM으로 사용자 row를 읽지 않고, INSERT ... SELECT 문 하나로 user group 사용자에게 이용권을 추가한다.
+ * 이용권 컬럼은 PassModelMapper와 같게 채운다. (status = READY, remaining_count = 대량 이용권의 count)
+ *
+ * execute 한 번에 대량 이용권 하나를 처리한다. 대량 이용권 row를 잠그고(FOR UPDATE) 이용권을 추가한 뒤 COMPLETED로 바꾸기 때문에,
+ * 이용권 추가와 상태 변경은 같은 트랜잭션에서 commit 되고, 동시에 실행된 다른 job이 같은 대량 이용권을 다시 지급하지 않는다.
+ * 추가한 이용권 수는 step의 write count로 기록된다.
+ *
+ * 조회 기준(startedAt, maxBulkPassSeq)은 step ExecutionContext에 저장해서, 재시작 시 그 사이에 등록된 대량 이용권이 섞이지 않게 한다.
+ */
+@Slf4j
+public class PushDownAddPassesTasklet implements Tasklet {
+    static final String STARTED_AT = "pushDownAddPasses.startedAt";
+    static final String MAX_BULK_PASS_SEQ = "pushDownAddPasses.maxBulkPassSeq";
+
+    public static final String SELECT_MAX_SQL = "SELECT MAX(bulk_pass_seq) FROM bulk_pass WHERE status = ? AND started_at > ?";
+    public static final String SELECT_NEXT_SQL = "SELECT bulk_pass_seq, package_seq, user_group_id, count, started_at, ended_at FROM bulk_pass" +
+            " WHERE status = ? AND started_at > ? AND bulk_pass_seq <= ? ORDER BY bulk_pass_seq LIMIT 1 FOR UPDATE";
+    public static final String INSERT_SELECT_SQL = "INSERT INTO pass (package_seq, user_id, status, remaining_count, started_at, ended_at, expired_at, created_at, modified_at)" +
+            " SELECT ?, user_id, ?, ?, ?, ?, NULL, ?, ? FROM user_group_mapping WHERE user_group_id = ?";
+    private static final String UPDATE_STATUS_SQL = "UPDATE bulk_pass SET status = ?, modified_at = ? WHERE bulk_pass_seq = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PushDownAddPassesTasklet(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        final ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        if (!executionContext.containsKey(STARTED_AT) && !initialize(executionContext)) {
+            log.info("PushDownAddPassesTasklet - execute: 지급 대상 대량 이용권 없음");
+            return RepeatStatus.FINISHED;
+        }
+        final Timestamp startedAt = Timestamp.valueOf(LocalDateTime.parse(executionContext.getString(STARTED_AT)));
+
+        final List<Map<String, Object>> bulkPasses = jdbcTemplate.queryForList(SELECT_NEXT_SQL,
+                BulkPassStatus.READY.name(), startedAt, executionContext.getInt(MAX_BULK_PASS_SEQ));
+        if (bulkPasses.isEmpty()) {
+            return RepeatStatus.FINISHED;
+        }
+        final Map<String, Object> bulkPass = bulkPasses.get(0);
+        final int bulkPassSeq = ((Number) bulkPass.get("bulk_pass_seq")).intValue();
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        final int count = jdbcTemplate.update(INSERT_SELECT_SQL,
+                bulkPass.get("package_seq"), PassStatus.READY.name(), bulkPass.get("count"), bulkPass.get("started_at"), bulkPass.get("ended_at"),
+                now, now, bulkPass.get("user_group_id"));
+        jdbcTemplate.update(UPDATE_STATUS_SQL, BulkPassStatus.COMPLETED.name(), now, bulkPassSeq);
+        contribution.incrementReadCount();
+        contribution.incrementWriteCount(count);
+
+        log.debug("PushDownAddPassesTasklet - execute: bulkPassSeq {}, 이용권 {}건 추가", bulkPassSeq, count);
+        return RepeatStatus.CONTINUABLE;
+    }
+
+    // 이용권 시작 일시 1일 전 대량 이용권까지 지급 대상으로 삼고, 그 기준을 ExecutionContext에 저장한다. 대상이 없으면 false를 반환한다.
+    private boolean initialize(ExecutionContext executionContext) {
+        final LocalDateTime startedAt = LocalDateTime.now().minusDays(1);
+        final Integer maxBulkPassSeq = jdbcTemplate.queryForObject(SELECT_MAX_SQL, Integer.class, BulkPassStatus.READY.name(), Timestamp.valueOf(startedAt));
+        if (maxBulkPassSeq == null) {
+            return false;
+        }
+
+        executionContext.putString(STARTED_AT, startedAt.toString());
+        executionContext.putInt(MAX_BULK_PASS_SEQ, maxBulkPassSeq);
+        return true;
+    }
+}
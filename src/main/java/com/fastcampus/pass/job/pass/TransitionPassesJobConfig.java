@@ -0,0 +1,105 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.UnionAllPagingQueryProvider;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import com.fastcampus.pass.repository.pass.PassTransition;
+import com.fastcampus.pass.repository.pass.PassTransitionWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@Configuration(proxyBeanMethods = false)
+public class TransitionPassesJobConfig {
+    private final int CHUNK_SIZE = 1000;
+
+    private final DataSource batchDataSource;
+    private final PassTransitionWriter passTransitionWriter;
+    private final FlightRecorderListener flightRecorderListener;
+
+    @Bean
+    public DataSourceTransactionManager transitionPassesTransactionManager() {
+        return new DataSourceTransactionManager(batchDataSource);
+    }
+
+    /*
+     * 시작할 이용권(READY → IN_PROGRESS)과 만료할 이용권(READY, IN_PROGRESS → EXPIRED)을 step 하나에서 한 번의 scan으로 처리한다.
+     * 시작과 만료를 각각의 job으로 나누면 실행할 때마다 pass 테이블을 두 번 읽어야 한다.
+     */
+    @Bean
+    public Job transitionPassesJob(JobRepository jobRepository, Step transitionPassesStep) {
+        return new JobBuilder("transitionPassesJob", jobRepository)
+                .start(transitionPassesStep)
+                .build();
+    }
+
+    @Bean
+    public Step transitionPassesStep(JobRepository jobRepository, DataSourceTransactionManager transitionPassesTransactionManager,
+                                     JdbcPagingItemReader<PassTransition> transitionPassesItemReader) {
+        return new StepBuilder("transitionPassesStep", jobRepository)
+                .<PassTransition, PassTransition>chunk(CHUNK_SIZE, transitionPassesTransactionManager)
+                .reader(transitionPassesItemReader)
+                .writer(passTransitionWriter)
+                .listener((ItemReadListener<Object>) flightRecorderListener)
+                .listener((ItemProcessListener<Object, Object>) flightRecorderListener)
+                .listener((ItemWriteListener<Object>) flightRecorderListener)
+                .build();
+    }
+
+    /*
+     * 다음 상태로 바뀔 때가 된 이용권을 pass_seq keyset(pass_seq > 마지막으로 읽은 pass_seq)으로 page 단위로 읽는다.
+     * - 시작할 이용권은 (status, started_at), 만료할 이용권은 (status, ended_at) 인덱스 범위로 찾고 UNION ALL로 합친다.
+     *   OR 조건 하나로 쓰면 ORDER BY pass_seq 때문에 기본 키 순서로 테이블 전체를 훑을 수 있다.
+     * - pass_seq 조건과 LIMIT은 UnionAllPagingQueryProvider가 branch마다 넣는다. 두 조건은 겹치지 않기 때문에 같은 이용권을 두 번 읽지 않는다.
+     * - 상태가 바뀐 이용권은 조건에서 빠지기 때문에, 다음 실행은 그 사이 새로 때가 된 이용권과 남은 이용권만 읽는다.
+     * - 마지막으로 읽은 pass_seq는 step ExecutionContext에 저장된다. (saveState) 실패한 뒤 재시작하면 그 다음 pass_seq부터 읽는다.
+     * 기간이 끝난 READY 이용권은 시작하지 않고 바로 만료시킨다.
+     */
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<PassTransition> transitionPassesItemReader() {
+        final LocalDateTime now = LocalDateTime.now();
+        return new JdbcPagingItemReaderBuilder<PassTransition>()
+                .name("transitionPassesItemReader")
+                .dataSource(batchDataSource)
+                .pageSize(CHUNK_SIZE)
+                .fetchSize(CHUNK_SIZE)
+                .queryProvider(transitionPassesQueryProvider())
+                .parameterValues(Map.of("ready", PassStatus.READY.name(), "inProgress", PassStatus.IN_PROGRESS.name(), "now", Timestamp.valueOf(now)))
+                .rowMapper((rs, rowNum) -> {
+                    final PassStatus status = PassStatus.valueOf(rs.getString("status"));
+                    final Timestamp endedAt = rs.getTimestamp("ended_at");
+                    final boolean ended = endedAt != null && !endedAt.toLocalDateTime().isAfter(now);
+                    return new PassTransition(rs.getInt("pass_seq"), status, ended ? PassStatus.EXPIRED : PassStatus.IN_PROGRESS);
+                })
+                .build();
+    }
+
+    // QueryPlanTest에서 같은 query provider가 만든 SQL의 실행 계획을 확인한다.
+    public static UnionAllPagingQueryProvider transitionPassesQueryProvider() {
+        return new UnionAllPagingQueryProvider("pass_seq, status, ended_at", "pass", List.of(
+                "status = :ready AND started_at <= :now AND (ended_at IS NULL OR ended_at > :now)",
+                "status IN (:ready, :inProgress) AND ended_at <= :now"
+        ), "pass_seq");
+    }
+
+}
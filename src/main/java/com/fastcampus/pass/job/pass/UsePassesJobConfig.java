@@ -0,0 +1,127 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.config.StreamingFetchSize;
+import com.fastcampus.pass.job.ColumnRangePartitioner;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingUsage;
+import com.fastcampus.pass.repository.pass.PassUsageWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@Configuration(proxyBeanMethods = false)
+public class UsePassesJobConfig {
+    // chunk 안에서 같은 이용권의 예약을 묶어서 차감하기 때문에, chunk가 클수록 이용권 UPDATE 문이 줄어든다.
+    // QueryPlanTest에서 같은 SQL의 실행 계획을 확인한다.
+    public static final String USE_PASSES_WHERE = "status = ? AND used_pass = FALSE";
+    public static final String USE_PASSES_SQL = "SELECT booking_seq, pass_seq FROM booking WHERE " + USE_PASSES_WHERE + " AND booking_seq BETWEEN ? AND ? ORDER BY booking_seq";
+
+    private final int CHUNK_SIZE = 1000;
+
+    private final DataSource batchDataSource;
+    private final PassUsageWriter passUsageWriter;
+    private final TaskExecutor batchTaskExecutor;
+    private final FlightRecorderListener flightRecorderListener;
+
+    @Bean
+    public DataSourceTransactionManager usePassesTransactionManager() {
+        return new DataSourceTransactionManager(batchDataSource);
+    }
+
+    /*
+     * 완료됐지만 아직 이용권을 차감하지 않은(used_pass = FALSE) 예약만큼 이용권의 잔여 횟수를 차감한다.
+     * booking_seq 범위로 partition을 나누고, 각 partition에서 chunk 단위로 차감한다.
+     */
+    @Bean
+    public Job usePassesJob(JobRepository jobRepository, Step usePassesPartitionStep) {
+        return new JobBuilder("usePassesJob", jobRepository)
+                .start(usePassesPartitionStep)
+                .build();
+    }
+
+    /*
+     * 차감 대상 예약의 booking_seq 구간을 gridSize 개의 범위로 나누고, 범위마다 usePassesStep을 worker로 실행한다.
+     * gridSize는 JobParameter로 받는다. (기본값 4) 동시에 실행되는 partition 수는 batchTaskExecutor가 제한한다.
+     * partition끼리 예약은 겹치지 않지만 이용권은 겹칠 수 있다. 이용권 차감은 PassUsageWriter가 DB에서 원자적으로 처리한다.
+     */
+    @Bean
+    public Step usePassesPartitionStep(JobRepository jobRepository, ColumnRangePartitioner usePassesPartitioner,
+                                       TaskExecutorPartitionHandler usePassesPartitionHandler) {
+        return new StepBuilder("usePassesPartitionStep", jobRepository)
+                .partitioner("usePassesStep", usePassesPartitioner)
+                .partitionHandler(usePassesPartitionHandler)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public ColumnRangePartitioner usePassesPartitioner() {
+        return new ColumnRangePartitioner(new JdbcTemplate(batchDataSource), "booking", "booking_seq",
+                USE_PASSES_WHERE, new Object[]{BookingStatus.COMPLETED.name()}, Map.of());
+    }
+
+    @Bean
+    @StepScope
+    public TaskExecutorPartitionHandler usePassesPartitionHandler(@Value("#{jobParameters['gridSize'] ?: 4}") Integer gridSize, Step usePassesStep) {
+        TaskExecutorPartitionHandler partitionHandler = new TaskExecutorPartitionHandler();
+        partitionHandler.setStep(usePassesStep);
+        partitionHandler.setTaskExecutor(batchTaskExecutor);
+        partitionHandler.setGridSize(gridSize);
+        return partitionHandler;
+    }
+
+    @Bean
+    public Step usePassesStep(JobRepository jobRepository, DataSourceTransactionManager usePassesTransactionManager,
+                              JdbcCursorItemReader<BookingUsage> usePassesItemReader) {
+        return new StepBuilder("usePassesStep", jobRepository)
+                .<BookingUsage, BookingUsage>chunk(CHUNK_SIZE, usePassesTransactionManager)
+                .reader(usePassesItemReader)
+                .writer(passUsageWriter)
+                .listener((ItemReadListener<Object>) flightRecorderListener)
+                .listener((ItemProcessListener<Object, Object>) flightRecorderListener)
+                .listener((ItemWriteListener<Object>) flightRecorderListener)
+                .build();
+    }
+
+    /*
+     * partition ExecutionContext의 booking_seq 범위에서 차감 대상 예약의 booking_seq, pass_seq만 읽는다.
+     * 차감한 예약은 조회 조건에서 빠지기 때문에, 읽은 건수를 저장하지 않아도(saveState = false) 재시작 시 남은 예약만 다시 읽는다.
+     * 결과는 StreamingFetchSize로 streaming 하고, reader는 chunk 트랜잭션과 다른 connection을 사용하기 때문에 읽는 중에 차감할 수 있다.
+     */
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<BookingUsage> usePassesItemReader(@Value("#{stepExecutionContext[minValue]}") Long minBookingSeq,
+                                                                  @Value("#{stepExecutionContext[maxValue]}") Long maxBookingSeq) {
+        return new JdbcCursorItemReaderBuilder<BookingUsage>()
+                .name("usePassesItemReader")
+                .dataSource(batchDataSource)
+                .fetchSize(StreamingFetchSize.of(batchDataSource, CHUNK_SIZE))
+                .sql(USE_PASSES_SQL)
+                .queryArguments(BookingStatus.COMPLETED.name(), minBookingSeq, maxBookingSeq)
+                .rowMapper((rs, rowNum) -> new BookingUsage(rs.getInt("booking_seq"), rs.getInt("pass_seq")))
+                .saveState(false)
+                .build();
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.fastcampus.pass.job.pass;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/*
+ * user group에 속한 userId를 job 실행 동안 캐시한다. 같은 user group에 대량 이용권이 여러 건 있어도 그룹 사용자는 한 번만 조회한다.
+ * userId는 정렬, 중복 제거한 배열로 저장한다.
+ *
+ * getAll을 호출할 때마다 요청한 user group들의 변경 기준(MAX(COALESCE(modified_at, created_at)), COUNT(*))을 GROUP BY 쿼리 하나로 확인하고,
+ * 캐시에 없거나 기준이 바뀐 user group만 IN 쿼리로 다시 읽는다. 매핑이 추가, 수정되면 최종 일시가, 삭제되면 건수가 바뀐다.
+ * job scope이기 때문에 job 실행이 끝나면 캐시도 버려진다.
+ */
+@Slf4j
+@Component
+@JobScope
+public class UserGroupMembershipCache {
+    // IN 절 하나에 담는 user group 수
+    static final int IN_CLAUSE_SIZE = 1000;
+    private static final String[] EMPTY = new String[0];
+
+    public static final String SELECT_STAMPS_SQL = "SELECT user_group_id, MAX(COALESCE(modified_at, created_at)) AS modified_at, COUNT(*) AS user_count" +
+            "  FROM user_group_mapping WHERE user_group_id IN (:userGroupIds) GROUP BY user_group_id";
+    public static final String SELECT_USER_IDS_SQL = "SELECT user_group_id, user_id FROM user_group_mapping WHERE user_group_id IN (:userGroupIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<String, Membership> memberships = new HashMap<>();
+
+    public UserGroupMembershipCache(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // user group마다 정렬, 중복 제거된 userId 배열을 반환한다. 사용자가 없는 user group은 빈 배열이다. 반환한 배열은 변경하지 않는다.
+    public synchronized Map<String, String[]> getAll(Collection<String> userGroupIds) {
+        final List<String> distinctUserGroupIds = new ArrayList<>(new TreeSet<>(userGroupIds));
+        final Map<String, Stamp> stamps = findStamps(distinctUserGroupIds);
+
+        final List<String> staleUserGroupIds = new ArrayList<>();
+        for (String userGroupId : distinctUserGroupIds) {
+            final Membership membership = memberships.get(userGroupId);
+            if (membership == null || !membership.matches(stamps.get(userGroupId))) {
+                staleUserGroupIds.add(userGroupId);
+            }
+        }
+        if (!staleUserGroupIds.isEmpty()) {
+            final Map<String, String[]> userIdsByGroup = findUserIds(staleUserGroupIds);
+            for (String userGroupId : staleUserGroupIds) {
+                memberships.put(userGroupId, new Membership(stamps.get(userGroupId), userIdsByGroup.getOrDefault(userGroupId, EMPTY)));
+            }
+            log.info("UserGroupMembershipCache - getAll: user group {}개 중 {}개 조회", distinctUserGroupIds.size(), staleUserGroupIds.size());
+        }
+
+        Map<String, String[]> result = new LinkedHashMap<>();
+        for (String userGroupId : distinctUserGroupIds) {
+            result.put(userGroupId, memberships.get(userGroupId).userIds());
+        }
+        return result;
+    }
+
+    private Map<String, Stamp> findStamps(List<String> userGroupIds) {
+        Map<String, Stamp> stamps = new HashMap<>();
+        for (List<String> ids : partition(userGroupIds)) {
+            jdbcTemplate.query(SELECT_STAMPS_SQL,
+                    Map.of("userGroupIds", ids),
+                    rs -> {
+                        stamps.put(rs.getString("user_group_id"), new Stamp(rs.getTimestamp("modified_at"), rs.getInt("user_count")));
+                    });
+        }
+        return stamps;
+    }
+
+    private Map<String, String[]> findUserIds(List<String> userGroupIds) {
+        Map<String, List<String>> userIdLists = new HashMap<>();
+        for (List<String> ids : partition(userGroupIds)) {
+            jdbcTemplate.query(SELECT_USER_IDS_SQL,
+                    Map.of("userGroupIds", ids),
+                    rs -> {
+                        userIdLists.computeIfAbsent(rs.getString("user_group_id"), key -> new ArrayList<>()).add(rs.getString("user_id"));
+                    });
+        }
+
+        Map<String, String[]> userIdsByGroup = new HashMap<>();
+        userIdLists.forEach((userGroupId, userIds) -> userIdsByGroup.put(userGroupId, sortedDistinct(userIds)));
+        return userIdsByGroup;
+    }
+
+    static String[] sortedDistinct(List<String> userIds) {
+        final String[] sorted = userIds.toArray(EMPTY);
+        Arrays.sort(sorted);
+        int size = 0;
+        for (String userId : sorted) {
+            if (size == 0 || !sorted[size - 1].equals(userId)) {
+                sorted[size++] = userId;
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    private static List<List<String>> partition(List<String> userGroupIds) {
+        List<List<String>> partitions = new ArrayList<>();
+        for (int i = 0; i < userGroupIds.size(); i += IN_CLAUSE_SIZE) {
+            partitions.add(userGroupIds.subList(i, Math.min(i + IN_CLAUSE_SIZE, userGroupIds.size())));
+        }
+        return partitions;
+    }
+
+    // 매핑이 없는 user group의 stamp는 null이다.
+    private record Stamp(Timestamp modifiedAt, int userCount) {
+    }
+
+    private record Membership(Stamp stamp, String[] userIds) {
+        boolean matches(Stamp other) {
+            return stamp == null ? other == null : stamp.equals(other);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.pass.BulkPassEntity;
+import com.fastcampus.pass.repository.pass.BulkPassRepository;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 지급 대상 대량 이용권을 userGroupId 단위로 나눈다. gridSize와 관계 없이 user group 하나가 partition 하나가 된다.
+ * 동시에 실행되는 partition 수는 partition step의 TaskExecutor가 제한한다.
+ *
+ * 재시작 시 partitioner는 다시 호출되지 않고 이전 partition의 ExecutionContext를 그대로 사용한다.
+ * 그 사이에 새로 등록된 대량 이용권이 섞이지 않도록 조회 기준(startedAt, maxBulkPassSeq)을 함께 저장한다.
+ * 같은 기준은 job ExecutionContext에도 저장해서, 모든 partition이 끝난 뒤 대량 이용권 상태를 변경할 때 사용한다.
+ */
+@Slf4j
+public class UserGroupPartitioner implements Partitioner {
+    public static final String USER_GROUP_ID = "userGroupId";
+    public static final String STARTED_AT = "addPasses.startedAt";
+    public static final String MAX_BULK_PASS_SEQ = "addPasses.maxBulkPassSeq";
+
+    private final BulkPassRepository bulkPassRepository;
+    private final ExecutionContext jobExecutionContext;
+
+    public UserGroupPartitioner(BulkPassRepository bulkPassRepository, ExecutionContext jobExecutionContext) {
+        this.bulkPassRepository = bulkPassRepository;
+        this.jobExecutionContext = jobExecutionContext;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        // 이용권 시작 일시 1일 전 user group 내 각 사용자에게 이용권을 추가한다.
+        final LocalDateTime startedAt = LocalDateTime.now().minusDays(1);
+        final List<BulkPassEntity> bulkPassEntities = bulkPassRepository.findByStatusAndStartedAtGreaterThan(BulkPassStatus.READY, startedAt);
+
+        int maxBulkPassSeq = 0;
+        for (BulkPassEntity bulkPassEntity : bulkPassEntities) {
+            maxBulkPassSeq = Math.max(maxBulkPassSeq, bulkPassEntity.getBulkPassSeq());
+        }
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        for (BulkPassEntity bulkPassEntity : bulkPassEntities) {
+            final String userGroupId = bulkPassEntity.getUserGroupId();
+            if (partitions.containsKey(userGroupId)) {
+                continue;
+            }
+            ExecutionContext executionContext = new ExecutionContext();
+            executionContext.putString(USER_GROUP_ID, userGroupId);
+            executionContext.putString(STARTED_AT, startedAt.toString());
+            executionContext.putInt(MAX_BULK_PASS_SEQ, maxBulkPassSeq);
+            partitions.put(userGroupId, executionContext);
+        }
+
+        if (!partitions.isEmpty()) {
+            jobExecutionContext.putString(STARTED_AT, startedAt.toString());
+            jobExecutionContext.putInt(MAX_BULK_PASS_SEQ, maxBulkPassSeq);
+        }
+        log.info("UserGroupPartitioner - partition: 대량 이용권 {}건, user group {}개, startedAt={}", bulkPassEntities.size(), partitions.size(), startedAt);
+        return partitions;
+    }
+}
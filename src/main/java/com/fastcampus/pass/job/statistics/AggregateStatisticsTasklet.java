@@ -0,0 +1,53 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
+import com.fastcampus.pass.repository.statistics.StatisticsRepository;
+import com.fastcampus.pass.util.LocalDateTimeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * 일간/주간 통계 step이 공통으로 사용하는 일별 집계를 한 번만 조회해서 AggregatedStatisticsCache에 저장한다.
+ * 리포트가 날짜 순서대로 만들어지도록 정렬해서 저장한다.
+ */
+@Slf4j
+@Component
+@StepScope
+public class AggregateStatisticsTasklet implements Tasklet {
+    @Value("#{jobParameters[from]}")
+    private String fromString;
+    @Value("#{jobParameters[to]}")
+    private String toString;
+
+    private final StatisticsRepository statisticsRepository;
+    private final AggregatedStatisticsCache aggregatedStatisticsCache;
+
+    public AggregateStatisticsTasklet(StatisticsRepository statisticsRepository, AggregatedStatisticsCache aggregatedStatisticsCache) {
+        this.statisticsRepository = statisticsRepository;
+        this.aggregatedStatisticsCache = aggregatedStatisticsCache;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        final LocalDateTime from = LocalDateTimeUtils.parse(fromString);
+        final LocalDateTime to = LocalDateTimeUtils.parse(toString);
+
+        final List<AggregatedStatistics> statisticsList = statisticsRepository.findByStatisticsAtBetweenAndGroupBy(from, to).stream()
+                .sorted(Comparator.comparing(AggregatedStatistics::getStatisticsAt))
+                .toList();
+        aggregatedStatisticsCache.put(chunkContext.getStepContext().getStepExecution().getJobExecutionId(), statisticsList);
+
+        log.info("AggregateStatisticsTasklet - execute: 일별 집계 {}건", statisticsList.size());
+        return RepeatStatus.FINISHED;
+    }
+}
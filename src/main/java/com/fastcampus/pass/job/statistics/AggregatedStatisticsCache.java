@@ -0,0 +1,39 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 일간/주간 통계 step이 공통으로 사용하는 일별 집계를 job 실행(JobExecution)마다 메모리에 보관한다.
+ * AggregateStatisticsTasklet이 한 번 조회해서 저장하고, 병렬로 실행되는 리포트 tasklet들은 같은 목록을 읽기만 한다.
+ * job ExecutionContext에 넣지 않기 때문에 JobRepository에 직렬화되지 않는다. job이 끝나면(afterJob) 지운다.
+ * 일별 집계는 하루에 한 건이라, 기간이 길어도 보관하는 객체 수는 날짜 수만큼이다.
+ */
+@Component
+public class AggregatedStatisticsCache implements JobExecutionListener {
+    private final Map<Long, List<AggregatedStatistics>> aggregatedStatistics = new ConcurrentHashMap<>();
+
+    public void put(long jobExecutionId, List<AggregatedStatistics> statisticsList) {
+        aggregatedStatistics.put(jobExecutionId, List.copyOf(statisticsList));
+    }
+
+    // 목록 안의 객체는 다른 tasklet과 공유하기 때문에 값을 바꾸면 안 된다.
+    public List<AggregatedStatistics> get(long jobExecutionId) {
+        final List<AggregatedStatistics> statisticsList = aggregatedStatistics.get(jobExecutionId);
+        if (statisticsList == null) {
+            throw new IllegalStateException("일별 집계가 없습니다. aggregateStatisticsStep이 먼저 실행되어야 합니다: jobExecutionId=" + jobExecutionId);
+        }
+        return statisticsList;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        aggregatedStatistics.remove(jobExecution.getId());
+    }
+}
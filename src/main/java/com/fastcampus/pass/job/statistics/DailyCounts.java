@@ -0,0 +1,33 @@
+package com.fastcampus.pass.job.statistics;
+
+import java.util.Arrays;
+
+/*
+ * 일별 건수 {epochDay, allCount, attendedCount, cancelledCount}를 ExecutionContext에 저장하기 위한 문자열로 바꾼다.
+ * 형식: "epochDay,all,attended,cancelled;..."
+ */
+final class DailyCounts {
+
+    private DailyCounts() {
+    }
+
+    static String encode(long[][] rows) {
+        StringBuilder sb = new StringBuilder();
+        for (long[] row : rows) {
+            if (!sb.isEmpty()) {
+                sb.append(';');
+            }
+            sb.append(row[0]).append(',').append(row[1]).append(',').append(row[2]).append(',').append(row[3]);
+        }
+        return sb.toString();
+    }
+
+    static long[][] decode(String dailyCounts) {
+        if (dailyCounts == null || dailyCounts.isEmpty()) {
+            return new long[0][];
+        }
+        return Arrays.stream(dailyCounts.split(";"))
+                .map(row -> Arrays.stream(row.split(",")).mapToLong(Long::parseLong).toArray())
+                .toArray(long[][]::new);
+    }
+}
@@ -0,0 +1,176 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingSummary;
+import com.fastcampus.pass.repository.statistics.StatisticsEntity;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * 통계 추출 step 전체에 걸쳐 예약 건수를 일(epoch day) 단위로 누적한다.
+ * chunk마다 DB에 쓰지 않고, step이 끝난 뒤 FlushStatisticsTasklet이 하루에 한 row씩 upsert 한다.
+ *
+ * - 날짜별 건수는 epoch day를 key로 하는 open addressing 배열(long[])에 저장한다. LocalDateTime이나 boxing된 값을 만들지 않는다.
+ * - multi-threaded step에서 공유할 수 있도록 stripe를 여러 개 두고, thread마다 stripe 하나를 나눠준다.
+ *   같은 날짜의 예약이 몰려도 thread끼리 lock을 다투지 않고, 읽을 때 모든 stripe를 합친다.
+ * - chunk가 커밋될 때마다(update) 누적 값을 step ExecutionContext에 저장하기 때문에, 재시작하면 저장된 값부터 이어서 누적한다.
+ *   multi-threaded step에서는 아직 커밋되지 않은 다른 chunk의 건수가 함께 저장될 수 있으므로, 재시작이 필요한 step은 single thread로 실행한다.
+ */
+public class DailyStatisticsAccumulator implements ItemStreamWriter<BookingSummary> {
+    public static final String DAILY_COUNTS = "statistics.dailyCounts";
+
+    private static final int STRIPE_COUNT = 8;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<Stripe> currentStripe = ThreadLocal.withInitial(() -> stripes[nextStripe.getAndIncrement() % STRIPE_COUNT]);
+
+    public DailyStatisticsAccumulator() {
+        for (int i = 0; i < STRIPE_COUNT; ++i) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        if (executionContext.containsKey(DAILY_COUNTS)) {
+            final Stripe stripe = stripes[0];
+            synchronized (stripe) {
+                for (long[] row : DailyCounts.decode(executionContext.getString(DAILY_COUNTS))) {
+                    stripe.add(row[0], row[1], row[2], row[3]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putString(DAILY_COUNTS, DailyCounts.encode(snapshot()));
+    }
+
+    /*
+     * 실패한 chunk를 나눠서 다시 쓸 수 있도록(BisectingItemWriter) chunk 전체를 누적하거나 하나도 누적하지 않는다.
+     * 예외가 날 수 있는 epoch day 계산을 먼저 끝낸 뒤에 누적한다.
+     */
+    @Override
+    public void write(Chunk<? extends BookingSummary> chunk) {
+        final List<? extends BookingSummary> bookingSummaries = chunk.getItems();
+        final long[] epochDays = new long[bookingSummaries.size()];
+        for (int i = 0; i < epochDays.length; ++i) {
+            // LocalDateTime.toLocalDate()는 내부 필드를 그대로 반환하기 때문에 새 객체를 만들지 않는다.
+            epochDays[i] = bookingSummaries.get(i).endedAt().toLocalDate().toEpochDay();
+        }
+
+        final Stripe stripe = currentStripe.get();
+        synchronized (stripe) {
+            for (int i = 0; i < epochDays.length; ++i) {
+                final BookingSummary bookingSummary = bookingSummaries.get(i);
+                stripe.add(epochDays[i], 1,
+                        bookingSummary.attended() ? 1 : 0,
+                        BookingStatus.CANCELLED.equals(bookingSummary.status()) ? 1 : 0);
+            }
+        }
+    }
+
+    // 모든 stripe를 합쳐서 {epochDay, allCount, attendedCount, cancelledCount}를 날짜 순으로 반환한다.
+    long[][] snapshot() {
+        final Stripe merged = new Stripe();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(merged::add);
+            }
+        }
+        List<long[]> rows = new ArrayList<>(merged.size);
+        merged.forEach((epochDay, allCount, attendedCount, cancelledCount) -> rows.add(new long[]{epochDay, allCount, attendedCount, cancelledCount}));
+        rows.sort(Comparator.comparingLong(row -> row[0]));
+        return rows.toArray(new long[0][]);
+    }
+
+    // ExecutionContext에 저장된 누적 값을 하루 한 건의 StatisticsEntity로 변환한다.
+    public static List<StatisticsEntity> toStatisticsEntities(String dailyCounts) {
+        List<StatisticsEntity> statisticsEntities = new ArrayList<>();
+        for (long[] row : DailyCounts.decode(dailyCounts)) {
+            StatisticsEntity statisticsEntity = new StatisticsEntity();
+            statisticsEntity.setStatisticsAt(LocalDate.ofEpochDay(row[0]).atStartOfDay());
+            statisticsEntity.setAllCount(Math.toIntExact(row[1]));
+            statisticsEntity.setAttendedCount(Math.toIntExact(row[2]));
+            statisticsEntity.setCancelledCount(Math.toIntExact(row[3]));
+            statisticsEntities.add(statisticsEntity);
+        }
+        return statisticsEntities;
+    }
+
+    @FunctionalInterface
+    private interface DayCountsConsumer {
+        void accept(long epochDay, long allCount, long attendedCount, long cancelledCount);
+    }
+
+    // epoch day → 건수 3개를 저장하는 open addressing hash map. 호출하는 쪽에서 synchronized로 보호한다.
+    private static final class Stripe {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(16);
+        private long[] counts = new long[16 * 3];
+        private int size;
+
+        void add(long epochDay, long allCount, long attendedCount, long cancelledCount) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            final int slot = slot(keys, epochDay);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = epochDay;
+                size++;
+            }
+            counts[slot * 3] += allCount;
+            counts[slot * 3 + 1] += attendedCount;
+            counts[slot * 3 + 2] += cancelledCount;
+        }
+
+        void forEach(DayCountsConsumer consumer) {
+            for (int i = 0; i < keys.length; ++i) {
+                if (keys[i] != EMPTY) {
+                    consumer.accept(keys[i], counts[i * 3], counts[i * 3 + 1], counts[i * 3 + 2]);
+                }
+            }
+        }
+
+        private void resize() {
+            final long[] oldKeys = keys;
+            final long[] oldCounts = counts;
+            keys = newKeys(oldKeys.length * 2);
+            counts = new long[keys.length * 3];
+            for (int i = 0; i < oldKeys.length; ++i) {
+                if (oldKeys[i] != EMPTY) {
+                    final int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    System.arraycopy(oldCounts, i * 3, counts, slot * 3, 3);
+                }
+            }
+        }
+
+        // 선형 탐사(linear probing)로 key가 있는 칸이나 비어 있는 칸을 찾는다. 배열 크기는 항상 2의 거듭제곱이다.
+        private static int slot(long[] keys, long epochDay) {
+            final int mask = keys.length - 1;
+            int slot = Long.hashCode(epochDay * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != epochDay) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static long[] newKeys(int capacity) {
+            final long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.statistics.StatisticsEntity;
+import com.fastcampus.pass.repository.statistics.StatisticsUpsertWriter;
+import com.fastcampus.pass.repository.watermark.WatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * 통계 추출 step이 성공한 뒤에 다시 계산한 날짜의 일별 건수를 하루 한 row씩 덮어쓰고, watermark를 이번 실행의 watermarkUntil로 옮긴다.
+ * 다시 계산한 날짜 중 종료된 예약이 없는 날은 통계를 지운다.
+ * 두 작업이 tasklet 트랜잭션 하나로 커밋되기 때문에, 건수만 반영되고 watermark는 그대로 남는 경우가 없다.
+ * 값은 통계 추출 step에서 job ExecutionContext로 승격(promotion)된 값을 사용한다.
+ */
+@Slf4j
+@Component
+@StepScope
+public class FlushStatisticsTasklet implements Tasklet {
+    @Value("#{jobExecutionContext['" + DailyStatisticsAccumulator.DAILY_COUNTS + "']}")
+    private String dailyCounts;
+    @Value("#{jobExecutionContext['" + StatisticsWatermarkListener.STATISTICS_DAYS + "']}")
+    private String days;
+    @Value("#{jobExecutionContext['" + StatisticsWatermarkListener.WATERMARK_NAME + "']}")
+    private String watermarkName;
+    @Value("#{jobExecutionContext['" + StatisticsWatermarkListener.WATERMARK_UNTIL + "']}")
+    private String watermarkUntilString;
+
+    private final StatisticsUpsertWriter statisticsUpsertWriter;
+    private final WatermarkRepository watermarkRepository;
+
+    public FlushStatisticsTasklet(StatisticsUpsertWriter statisticsUpsertWriter, WatermarkRepository watermarkRepository) {
+        this.statisticsUpsertWriter = statisticsUpsertWriter;
+        this.watermarkRepository = watermarkRepository;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        final List<StatisticsEntity> statisticsEntities = DailyStatisticsAccumulator.toStatisticsEntities(dailyCounts);
+        statisticsUpsertWriter.upsertAll(statisticsEntities);
+        contribution.incrementWriteCount(statisticsEntities.size());
+
+        final Set<LocalDateTime> countedDays = statisticsEntities.stream().map(StatisticsEntity::getStatisticsAt).collect(Collectors.toSet());
+        final List<LocalDateTime> emptyDays = Arrays.stream(StatisticsDays.decode(days))
+                .mapToObj(epochDay -> LocalDate.ofEpochDay(epochDay).atStartOfDay())
+                .filter(statisticsAt -> !countedDays.contains(statisticsAt))
+                .toList();
+        statisticsUpsertWriter.deleteAll(emptyDays);
+
+        final LocalDateTime watermarkUntil = LocalDateTime.parse(watermarkUntilString);
+        watermarkRepository.saveWatermarkAt(watermarkName, watermarkUntil);
+
+        log.info("FlushStatisticsTasklet - execute: 일별 통계 {}건, 삭제 {}건, {} → {}", statisticsEntities.size(), emptyDays.size(), watermarkName, watermarkUntil);
+        return RepeatStatus.FINISHED;
+    }
+}
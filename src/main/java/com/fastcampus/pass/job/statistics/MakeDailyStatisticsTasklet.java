@@ -1,11 +1,11 @@
 package com.fastcampus.pass.job.statistics;
 
-import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
-import com.fastcampus.pass.repository.statistics.StatisticsRepository;
-import com.fastcampus.pass.util.CustomCSVWriter;
+import com.fastcampus.pass.util.CsvReportWriter;
 import com.fastcampus.pass.util.LocalDateTimeUtils;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
@@ -13,9 +13,8 @@ import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Slf4j
 @Component
@@ -23,32 +22,34 @@ import java.util.List;
 public class MakeDailyStatisticsTasklet implements Tasklet {
     @Value("#{jobParameters[from]}")
     private String fromString;
-    @Value("#{jobParameters[to]}")
-    private String toString;
-    private final StatisticsRepository statisticsRepository;
+    @Value("${statistics.report.directory:.}")
+    private String reportDirectory;
+    @Value("${statistics.report.gzip:false}")
+    private boolean gzip;
 
-    public MakeDailyStatisticsTasklet(StatisticsRepository statisticsRepository) {
-        this.statisticsRepository = statisticsRepository;
+    private final AggregatedStatisticsCache aggregatedStatisticsCache;
+
+    public MakeDailyStatisticsTasklet(AggregatedStatisticsCache aggregatedStatisticsCache) {
+        this.aggregatedStatisticsCache = aggregatedStatisticsCache;
     }
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
         final LocalDateTime from = LocalDateTimeUtils.parse(fromString);
-        final LocalDateTime to = LocalDateTimeUtils.parse(toString);
-
-        final List<AggregatedStatistics> statisticsList = statisticsRepository.findByStatisticsAtBetweenAndGroupBy(from, to);
-
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"statisticsAt", "allCount", "attendedCount", "cancelledCount"});
-        for (AggregatedStatistics statistics : statisticsList) {
-            data.add(new String[]{
-                    LocalDateTimeUtils.format(statistics.getStatisticsAt()),
-                    String.valueOf(statistics.getAllCount()),
-                    String.valueOf(statistics.getAttendedCount()),
-                    String.valueOf(statistics.getCancelledCount())
-            });
-        }
-        CustomCSVWriter.write("daily_statistics_" + LocalDateTimeUtils.format(from, LocalDateTimeUtils.YYYY_MM_DD) + ".csv", data);
+
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(
+                Path.of(reportDirectory, "daily_statistics_" + LocalDateTimeUtils.format(from, LocalDateTimeUtils.YYYY_MM_DD) + ".csv"), gzip, Metrics.globalRegistry,
+                "statisticsAt", "allCount", "attendedCount", "cancelledCount");
+        // aggregateStatisticsStep이 조회한 일별 집계를 row로 바꾸면서 바로 쓴다.
+        final StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        final long rows = csvReportWriter.writeAll(stepExecution.getExecutionContext(),
+                aggregatedStatisticsCache.get(stepExecution.getJobExecutionId()).stream().map(statistics -> new String[]{
+                        LocalDateTimeUtils.format(statistics.getStatisticsAt()),
+                        String.valueOf(statistics.getAllCount()),
+                        String.valueOf(statistics.getAttendedCount()),
+                        String.valueOf(statistics.getCancelledCount())
+                }));
+        contribution.incrementWriteCount(rows);
         return RepeatStatus.FINISHED;
 
     }
@@ -1,52 +1,65 @@
 package com.fastcampus.pass.job.statistics;
 
-import com.fastcampus.pass.repository.booking.BookingEntity;
-import com.fastcampus.pass.repository.statistics.StatisticsEntity;
-import com.fastcampus.pass.repository.statistics.StatisticsRepository;
-import com.fastcampus.pass.util.LocalDateTimeUtils;
-import jakarta.persistence.EntityManagerFactory;
+import com.fastcampus.pass.config.StreamingFetchSize;
+import com.fastcampus.pass.job.AdaptiveCompletionPolicy;
+import com.fastcampus.pass.job.BisectingItemWriter;
+import com.fastcampus.pass.job.DeadLetterSkipListener;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingSummary;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.FlowBuilder;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.listener.ExecutionContextPromotionListener;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaCursorItemReader;
-import org.springframework.batch.item.database.builder.JpaCursorItemReaderBuilder;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
-import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @RequiredArgsConstructor
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class MakeStatisticsJobConfig {
-    private final int CHUNK_SIZE = 10;
+    // MySQL이 아닌 DB에서 cursor가 한 번에 가져오는 row 수. chunk 크기는 addStatisticsCompletionPolicy가 정한다.
+    private final int FETCH_SIZE = 1000;
 
     private final DataSource batchDataSource;
-    private final EntityManagerFactory entityManagerFactory;
-    private final StatisticsRepository statisticsRepository;
+    private final StatisticsWatermarkListener statisticsWatermarkListener;
+    private final FlushStatisticsTasklet flushStatisticsTasklet;
+    private final AggregateStatisticsTasklet aggregateStatisticsTasklet;
+    private final AggregatedStatisticsCache aggregatedStatisticsCache;
     private final MakeDailyStatisticsTasklet makeDailyStatisticsTasklet;
     private final MakeWeeklyStatisticsTasklet makeWeeklyStatisticsTasklet;
-
-    @Bean
-    public DataSourceTransactionManager transactionManager() {
-        return new DataSourceTransactionManager(batchDataSource);
-    }
+    private final DeadLetterSkipListener deadLetterSkipListener;
+    private final TaskExecutor batchTaskExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final FlightRecorderListener flightRecorderListener;
 
     /*
      * 통계 생성 job은 3개의 step으로 구성되어 있다.
@@ -55,95 +68,173 @@ public class MakeStatisticsJobConfig {
      * 3. 주간 통계 집계
      *
      * 2, 3번 step은 서로 의존성을 갖지 않고 독립적으로 시행되도 괜찮기 때문에 병렬로 수행한다.
+     *
+     * 1번 통계 데이터 추출은 실행 기간에 걸친 날짜와 지난 실행 이후 예약이 수정된 날짜(watermark)를 정하고,
+     * 그 날짜에 종료된 예약 전체를 읽어서 건수를 step 전체에 걸쳐 일 단위로 누적한다.
+     * 추출이 끝나면 다시 계산한 날짜의 일별 통계를 덮어쓰고(upsert), watermark를 이번 실행의 시작 일시로 옮긴다.
+     *
+     * 2, 3번 step이 같은 일별 집계를 사용하기 때문에, 병렬 수행 전에 집계 쿼리를 한 번만 실행해서(aggregateStatisticsStep)
+     * AggregatedStatisticsCache로 넘긴다. 일별 집계는 job이 끝나면 메모리에서 지운다.
      */
     @Bean
-    public Job makeStatisticsJob(JobRepository jobRepository) {
+    public Job makeStatisticsJob(JobRepository jobRepository, Step addStatisticsStep, Step flushStatisticsStep, Step aggregateStatisticsStep,
+                                 Step makeDailyStatisticsStep, Step makeWeeklyStatisticsStep) {
         Flow addStatisticsFlow = new FlowBuilder<Flow>("addStatisticsFlow")
-                .start(addStatisticsStep(jobRepository))
+                .start(addStatisticsStep)
+                .next(flushStatisticsStep)
                 .build();
 
         Flow makeDailyStatisticsFlow = new FlowBuilder<Flow>("makeDailyStatisticsFlow")
-                .start(makeDailyStatisticsStep(jobRepository))
+                .start(makeDailyStatisticsStep)
                 .build();
 
         Flow makeWeeklyStatisticsFlow = new FlowBuilder<Flow>("makeWeeklyStatisticsFlow")
-                .start(makeWeeklyStatisticsStep(jobRepository))
+                .start(makeWeeklyStatisticsStep)
                 .build();
 
         Flow parallelMakeStatisticsFlow = new FlowBuilder<Flow>("parallelMakeStatisticsFlow")
-                .split(new SimpleAsyncTaskExecutor())
+                .split(batchTaskExecutor)
                 .add(makeDailyStatisticsFlow, makeWeeklyStatisticsFlow)
                 .build();
 
         return new JobBuilder("makeStatisticsJob", jobRepository)
+                .listener(aggregatedStatisticsCache)
                 .start(addStatisticsFlow)
+                .next(aggregateStatisticsStep)
                 .next(parallelMakeStatisticsFlow)
                 .build()
                 .build();
     }
 
     @Bean
-    public Step addStatisticsStep(JobRepository jobRepository) {
+    public Step addStatisticsStep(JobRepository jobRepository, AdaptiveCompletionPolicy addStatisticsCompletionPolicy,
+                                  JdbcCursorItemReader<BookingSummary> addStatisticsItemReader,
+                                  ItemStreamWriter<BookingSummary> addStatisticsItemWriter,
+                                  ExecutionContextPromotionListener statisticsWatermarkPromotionListener) {
         return new StepBuilder("addStatisticsStep", jobRepository)
-                .<BookingEntity, BookingEntity>chunk(CHUNK_SIZE, transactionManager())
-                .reader(addStatisticsItemReader(null, null))
-                .writer(addStatisticsItemWriter())
+                .<BookingSummary, BookingSummary>chunk(addStatisticsCompletionPolicy, transactionManager)
+                .reader(addStatisticsItemReader)
+                .writer(addStatisticsItemWriter)
+                .listener((ItemReadListener<Object>) flightRecorderListener)
+                .listener((ItemProcessListener<Object, Object>) flightRecorderListener)
+                .listener((ItemWriteListener<Object>) flightRecorderListener)
+                .listener((StepExecutionListener) addStatisticsCompletionPolicy)
+                .listener((ChunkListener) addStatisticsCompletionPolicy)
+                .listener(statisticsWatermarkListener)
+                .listener(statisticsWatermarkPromotionListener)
                 .build();
     }
 
+    /*
+     * 통계 추출 step은 chunk마다 읽은 건수를 메모리에 누적하고 JobRepository에 읽은 위치만 저장한다.
+     * commit 하나가 batch.chunk.add-statistics.target-duration 안에 끝나도록 chunk 크기를 조절한다.
+     */
     @Bean
     @StepScope
-    public JpaCursorItemReader<BookingEntity> addStatisticsItemReader(@Value("#{jobParameters[from]}") String fromString, @Value("#{jobParameters[to]}") String toString) {
-        final LocalDateTime from = LocalDateTimeUtils.parse(fromString);
-        final LocalDateTime to = LocalDateTimeUtils.parse(toString);
-
-        return new JpaCursorItemReaderBuilder<BookingEntity>()
-                .name("usePassesItemReader")
-                .entityManagerFactory(entityManagerFactory)
-                // JobParameter를 받아 종료 일시(endedAt) 기준으로 통계 대상 예약(Booking)을 조회합니다.
-                .queryString("select b from BookingEntity b where b.endedAt between :from and :to")
-                .parameterValues(Map.of("from", from, "to", to))
-                .build();
+    public AdaptiveCompletionPolicy addStatisticsCompletionPolicy(@Value("${batch.chunk.add-statistics.initial-size:100}") int initialSize,
+                                                                  @Value("${batch.chunk.add-statistics.min-size:10}") int minSize,
+                                                                  @Value("${batch.chunk.add-statistics.max-size:10000}") int maxSize,
+                                                                  @Value("${batch.chunk.add-statistics.target-duration:PT0.5S}") Duration targetDuration) {
+        return new AdaptiveCompletionPolicy(initialSize, minSize, maxSize, targetDuration, Metrics.globalRegistry);
     }
 
+    // 통계 추출 step이 완료되면 누적된 일별 건수, 다시 계산한 날짜와 watermark를 job ExecutionContext로 옮긴다.
     @Bean
-    public ItemWriter<BookingEntity> addStatisticsItemWriter() {
-        return bookingEntities -> {
-            Map<LocalDateTime, StatisticsEntity> statisticsEntityMap = new LinkedHashMap<>();
-
-            for (BookingEntity bookingEntity : bookingEntities) {
-                final LocalDateTime statisticsAt = bookingEntity.getStatisticsAt();
-                StatisticsEntity statisticsEntity = statisticsEntityMap.get(statisticsAt);
+    public ExecutionContextPromotionListener statisticsWatermarkPromotionListener() {
+        ExecutionContextPromotionListener promotionListener = new ExecutionContextPromotionListener();
+        promotionListener.setKeys(new String[]{DailyStatisticsAccumulator.DAILY_COUNTS, StatisticsWatermarkListener.WATERMARK_NAME, StatisticsWatermarkListener.WATERMARK_UNTIL,
+                StatisticsWatermarkListener.STATISTICS_DAYS});
+        return promotionListener;
+    }
 
-                if (statisticsEntity == null) {
-                    // 기존에 저장되어 있는 통계 데이터가 없다면 새로 생성
-                    statisticsEntityMap.put(statisticsAt, StatisticsEntity.create(bookingEntity));
+    /**
+     * 통계에 필요한 컬럼(ended_at, attended, status)만 JDBC cursor로 읽어서 BookingSummary로 매핑한다.
+     * BookingEntity와 연관 엔티티 proxy를 만들지 않고, 영속성 컨텍스트도 거치지 않는다.
+     * 결과는 StreamingFetchSize로 streaming 하기 때문에, 예약이 많아도 driver 메모리에 모두 올리지 않는다.
+     */
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<BookingSummary> addStatisticsItemReader(@Value("#{stepExecutionContext['" + StatisticsWatermarkListener.STATISTICS_DAYS + "']}") String days) {
+        // 다시 계산할 날짜에 종료된 예약(Booking)을 모두 조회합니다. 연속된 날짜는 종료 일시(endedAt) 범위 하나로 묶습니다.
+        final List<long[]> ranges = StatisticsDays.ranges(StatisticsDays.decode(days));
+        List<Object> queryArguments = new ArrayList<>();
+        for (long[] range : ranges) {
+            queryArguments.add(Timestamp.valueOf(LocalDate.ofEpochDay(range[0]).atStartOfDay()));
+            queryArguments.add(Timestamp.valueOf(LocalDate.ofEpochDay(range[1]).atStartOfDay()));
+        }
+        return new JdbcCursorItemReaderBuilder<BookingSummary>()
+                .name("addStatisticsItemReader")
+                .dataSource(batchDataSource)
+                .fetchSize(StreamingFetchSize.of(batchDataSource, FETCH_SIZE))
+                .sql(addStatisticsSql(ranges.size()))
+                .queryArguments(queryArguments)
+                .rowMapper((rs, rowNum) -> new BookingSummary(
+                        rs.getObject("ended_at", LocalDateTime.class),
+                        rs.getBoolean("attended"),
+                        BookingStatus.valueOf(rs.getString("status"))))
+                .build();
+    }
 
-                } else {
-                    // 있다면 기존 데이터에 추가로 합산
-                    statisticsEntity.add(bookingEntity);
+    /*
+     * 종료 일시 구간 수만큼 범위 조건을 OR로 잇는다. ended_at 인덱스에서 구간마다 범위를 읽는다.
+     * 재시작 시 읽은 건수만큼 건너뛰기 때문에 정렬 순서를 고정한다.
+     */
+    public static String addStatisticsSql(int rangeCount) {
+        if (rangeCount == 0) {
+            return "SELECT ended_at, attended, status FROM booking WHERE 1 = 0 ORDER BY booking_seq";
+        }
+        return "SELECT ended_at, attended, status FROM booking WHERE " + String.join(" OR ", Collections.nCopies(rangeCount, "(ended_at >= ? AND ended_at < ?)"))
+                + " ORDER BY booking_seq";
+    }
 
-                }
+    /*
+     * step 실행마다 새로 누적해야 하기 때문에 step scope로 만든다.
+     * JobParameter writeError=bisect이면 누적에 실패한 예약만 dead_letter 테이블에 남기고 나머지는 누적한다. (기본값 fail)
+     * DailyStatisticsAccumulator는 chunk 전체를 누적하거나 하나도 누적하지 않기 때문에 나눠서 다시 쓸 수 있다.
+     */
+    @Bean
+    @StepScope
+    public ItemStreamWriter<BookingSummary> addStatisticsItemWriter(@Value("#{jobParameters['writeError'] ?: 'fail'}") String writeError,
+                                                                    @Value("${batch.chunk.add-statistics.skip-limit:100}") int skipLimit) {
+        final DailyStatisticsAccumulator dailyStatisticsAccumulator = new DailyStatisticsAccumulator();
+        if ("bisect".equalsIgnoreCase(writeError)) {
+            return new BisectingItemWriter<>(dailyStatisticsAccumulator, batchDataSource, deadLetterSkipListener, skipLimit);
+        }
+        if ("fail".equalsIgnoreCase(writeError)) {
+            return dailyStatisticsAccumulator;
+        }
+        throw new IllegalArgumentException("writeError는 fail 또는 bisect여야 합니다: " + writeError);
+    }
 
-            }
-            final List<StatisticsEntity> statisticsEntities = new ArrayList<>(statisticsEntityMap.values());
-            statisticsRepository.saveAll(statisticsEntities);
-            log.info("### addStatisticsStep 종료");
+    @Bean
+    public Step flushStatisticsStep(JobRepository jobRepository) {
+        return new StepBuilder("flushStatisticsStep", jobRepository)
+                .tasklet(flushStatisticsTasklet, transactionManager)
+                .build();
+    }
 
-        };
+    /*
+     * 일별 집계는 메모리에만 있기 때문에, 리포트 step이 실패해서 재시작하면 이미 완료된 이 step도 다시 실행해서 집계를 다시 만든다.
+     */
+    @Bean
+    public Step aggregateStatisticsStep(JobRepository jobRepository) {
+        return new StepBuilder("aggregateStatisticsStep", jobRepository)
+                .tasklet(aggregateStatisticsTasklet, transactionManager)
+                .allowStartIfComplete(true)
+                .build();
     }
 
     @Bean
     public Step makeDailyStatisticsStep(JobRepository jobRepository) {
         return new StepBuilder("makeDailyStatisticsStep", jobRepository)
-                .tasklet(makeDailyStatisticsTasklet, transactionManager())
+                .tasklet(makeDailyStatisticsTasklet, transactionManager)
                 .build();
     }
 
     @Bean
     public Step makeWeeklyStatisticsStep(JobRepository jobRepository) {
         return new StepBuilder("makeWeeklyStatisticsStep", jobRepository)
-                .tasklet(makeWeeklyStatisticsTasklet, transactionManager())
+                .tasklet(makeWeeklyStatisticsTasklet, transactionManager)
                 .build();
     }
 
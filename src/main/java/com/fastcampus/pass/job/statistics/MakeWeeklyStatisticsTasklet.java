@@ -1,11 +1,12 @@
 package com.fastcampus.pass.job.statistics;
 
 import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
-import com.fastcampus.pass.repository.statistics.StatisticsRepository;
-import com.fastcampus.pass.util.CustomCSVWriter;
+import com.fastcampus.pass.util.CsvReportWriter;
 import com.fastcampus.pass.util.LocalDateTimeUtils;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
@@ -13,11 +14,14 @@ import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 @Component
@@ -25,50 +29,81 @@ import java.util.Map;
 public class MakeWeeklyStatisticsTasklet implements Tasklet {
     @Value("#{jobParameters[from]}")
     private String fromString;
-    @Value("#{jobParameters[to]}")
-    private String toString;
+    @Value("${statistics.report.directory:.}")
+    private String reportDirectory;
+    @Value("${statistics.report.gzip:false}")
+    private boolean gzip;
 
-    private final StatisticsRepository statisticsRepository;
+    private final AggregatedStatisticsCache aggregatedStatisticsCache;
 
-    public MakeWeeklyStatisticsTasklet(StatisticsRepository statisticsRepository) {
-        this.statisticsRepository = statisticsRepository;
+    public MakeWeeklyStatisticsTasklet(AggregatedStatisticsCache aggregatedStatisticsCache) {
+        this.aggregatedStatisticsCache = aggregatedStatisticsCache;
     }
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
         final LocalDateTime from = LocalDateTimeUtils.parse(fromString);
-        final LocalDateTime to = LocalDateTimeUtils.parse(toString);
 
-        final List<AggregatedStatistics> statisticsList = statisticsRepository.findByStatisticsAtBetweenAndGroupBy(from, to);
-        Map<Integer, AggregatedStatistics> weeklyStatisticsEntityMap = new LinkedHashMap<>();
-
-        for (AggregatedStatistics statistics : statisticsList) {
-            int week = LocalDateTimeUtils.getWeekOfYear(statistics.getStatisticsAt());
-            AggregatedStatistics savedStatisticsEntity = weeklyStatisticsEntityMap.get(week);
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(
+                Path.of(reportDirectory, "weekly_statistics_" + LocalDateTimeUtils.format(from, LocalDateTimeUtils.YYYY_MM_DD) + ".csv"), gzip, Metrics.globalRegistry,
+                "week", "allCount", "attendedCount", "cancelledCount");
+        final StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        final long rows = csvReportWriter.writeAll(stepExecution.getExecutionContext(),
+                weeklyRows(aggregatedStatisticsCache.get(stepExecution.getJobExecutionId()).stream()));
+        contribution.incrementWriteCount(rows);
+        return RepeatStatus.FINISHED;
 
-            if (savedStatisticsEntity == null) {
-                weeklyStatisticsEntityMap.put(week, statistics);
+    }
 
-            } else {
-                savedStatisticsEntity.merge(statistics);
+    /*
+     * 일별 통계는 날짜 순으로 읽히기 때문에, 연속된 같은 주의 값을 합치면서 주가 바뀔 때마다 row를 만든다.
+     * 일별 통계를 필요한 만큼만 꺼내기 때문에, 주간 row는 합치는 중인 주 하나와 다음 주의 첫날만 메모리에 둔다.
+     * 일별 통계는 일간 통계 step과 공유하기 때문에, 주마다 첫날의 복사본에 합친다.
+     * 반환한 Stream을 닫으면 일별 통계 Stream도 닫힌다.
+     */
+    static Stream<String[]> weeklyRows(Stream<AggregatedStatistics> dailyStatistics) {
+        final Iterator<AggregatedStatistics> iterator = dailyStatistics.iterator();
+        final Iterator<String[]> weeklyIterator = new Iterator<>() {
+            // 다음 주의 첫날. 이미 꺼냈지만 아직 합치지 않은 일별 통계다.
+            private AggregatedStatistics pending;
 
+            @Override
+            public boolean hasNext() {
+                return pending != null || iterator.hasNext();
             }
 
-        }
-
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"week", "allCount", "attendedCount", "cancelledCount"});
-        weeklyStatisticsEntityMap.forEach((week, statistics) -> {
-            data.add(new String[]{
-                    "Week " + week,
-                    String.valueOf(statistics.getAllCount()),
-                    String.valueOf(statistics.getAttendedCount()),
-                    String.valueOf(statistics.getCancelledCount())
-            });
+            @Override
+            public String[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final AggregatedStatistics firstDay = pending != null ? pending : iterator.next();
+                final AggregatedStatistics weeklyStatistics = new AggregatedStatistics(firstDay.getStatisticsAt(),
+                        firstDay.getAllCount(), firstDay.getAttendedCount(), firstDay.getCancelledCount());
+                final int week = LocalDateTimeUtils.getWeekOfYear(weeklyStatistics.getStatisticsAt());
+                pending = null;
 
-        });
-        CustomCSVWriter.write("weekly_statistics_" + LocalDateTimeUtils.format(from, LocalDateTimeUtils.YYYY_MM_DD) + ".csv", data);
-        return RepeatStatus.FINISHED;
+                while (iterator.hasNext()) {
+                    final AggregatedStatistics statistics = iterator.next();
+                    if (LocalDateTimeUtils.getWeekOfYear(statistics.getStatisticsAt()) != week) {
+                        pending = statistics;
+                        break;
+                    }
+                    weeklyStatistics.merge(statistics);
+                }
+                return toRow(week, weeklyStatistics);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(weeklyIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(dailyStatistics::close);
+    }
 
+    private static String[] toRow(int week, AggregatedStatistics statistics) {
+        return new String[]{
+                "Week " + week,
+                String.valueOf(statistics.getAllCount()),
+                String.valueOf(statistics.getAttendedCount()),
+                String.valueOf(statistics.getCancelledCount())
+        };
     }
 }
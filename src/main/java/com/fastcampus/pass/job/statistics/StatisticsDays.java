@@ -0,0 +1,51 @@
+package com.fastcampus.pass.job.statistics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/*
+ * 다시 계산할 날짜(epoch day) 목록을 ExecutionContext에 저장하기 위한 문자열로 바꾼다.
+ * 형식: "epochDay,epochDay,..." (날짜 순, 중복 없음)
+ * 연속된 날짜는 [시작일, 끝난 다음 날) 구간 하나로 묶어서, 예약을 종료 일시 범위 조건으로 읽을 수 있게 한다.
+ */
+final class StatisticsDays {
+
+    private StatisticsDays() {
+    }
+
+    static String encode(Collection<LocalDate> days) {
+        StringBuilder sb = new StringBuilder();
+        for (LocalDate day : new TreeSet<>(days)) {
+            if (!sb.isEmpty()) {
+                sb.append(',');
+            }
+            sb.append(day.toEpochDay());
+        }
+        return sb.toString();
+    }
+
+    static long[] decode(String days) {
+        if (days == null || days.isEmpty()) {
+            return new long[0];
+        }
+        return Arrays.stream(days.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    // 날짜 순으로 정렬된 epoch day를 연속된 구간 {시작일, 끝난 다음 날}로 묶는다.
+    static List<long[]> ranges(long[] epochDays) {
+        List<long[]> ranges = new ArrayList<>();
+        for (long epochDay : epochDays) {
+            final long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] == epochDay) {
+                last[1] = epochDay + 1;
+            } else {
+                ranges.add(new long[]{epochDay, epochDay + 1});
+            }
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,73 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.booking.BookingModificationRepository;
+import com.fastcampus.pass.repository.watermark.WatermarkRepository;
+import com.fastcampus.pass.util.LocalDateTimeUtils;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * 통계 추출 step이 다시 계산할 날짜를 정해서 step ExecutionContext에 저장한다.
+ * 하루의 통계는 그 날 종료된 예약 전체로 다시 계산하고 덮어쓰기 때문에, 같은 날을 여러 번 계산해도 건수가 중복되지 않는다.
+ * - JobParameter의 기간(from ~ to)에 걸친 날짜. 앞선 기간으로 실행하면(backfill) 그 기간을 다시 계산한다.
+ * - 마지막에 성공한 실행 이후 수정된(modified_at) 예약의 종료 날짜. 집계된 뒤에 상태(출석, 취소)가 바뀐 예약도 반영된다.
+ *   watermark는 예약의 modified_at 기준이며, step마다 하나만 둔다. 처음 실행이면 기간에 걸친 날짜만 계산한다.
+ * - watermarkUntil: 이번 실행의 시작 일시. DB timestamp 정밀도에 맞춰 초 단위로 자른다.
+ *
+ * 재시작 시에는 저장된 날짜와 구간을 그대로 사용하기 때문에, 처음 실행한 뒤에 수정된 예약은 다음 실행에서 반영된다.
+ * 종료 일시(ended_at)는 바뀌지 않는다고 가정한다. 종료 일시를 옮긴 예약은 옮긴 날짜만 다시 계산된다.
+ */
+@Component
+public class StatisticsWatermarkListener implements StepExecutionListener {
+    public static final String WATERMARK_NAME = "statistics.watermarkName";
+    public static final String WATERMARK_UNTIL = "statistics.watermarkUntil";
+    public static final String STATISTICS_DAYS = "statistics.days";
+
+    private final WatermarkRepository watermarkRepository;
+    private final BookingModificationRepository bookingModificationRepository;
+
+    public StatisticsWatermarkListener(WatermarkRepository watermarkRepository, BookingModificationRepository bookingModificationRepository) {
+        this.watermarkRepository = watermarkRepository;
+        this.bookingModificationRepository = bookingModificationRepository;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        final ExecutionContext executionContext = stepExecution.getExecutionContext();
+        if (executionContext.containsKey(WATERMARK_UNTIL)) {
+            return;
+        }
+
+        final String watermarkName = stepExecution.getStepName();
+        final LocalDateTime watermarkUntil = LocalDateTime.now().withNano(0);
+
+        final LocalDateTime from = LocalDateTimeUtils.parse(stepExecution.getJobParameters().getString("from"));
+        final LocalDateTime to = LocalDateTimeUtils.parse(stepExecution.getJobParameters().getString("to"));
+        final List<LocalDate> days = new ArrayList<>(daysBetween(from, to));
+
+        final Optional<LocalDateTime> watermarkFrom = watermarkRepository.findWatermarkAt(watermarkName);
+        watermarkFrom.ifPresent(modifiedAfter -> days.addAll(bookingModificationRepository.findEndedDatesModifiedBetween(modifiedAfter, watermarkUntil)));
+
+        executionContext.putString(WATERMARK_NAME, watermarkName);
+        executionContext.putString(WATERMARK_UNTIL, watermarkUntil.toString());
+        executionContext.putString(STATISTICS_DAYS, StatisticsDays.encode(days));
+    }
+
+    // [from, to) 구간에 걸친 날짜. to가 자정이면 그 날은 포함하지 않는다.
+    static List<LocalDate> daysBetween(LocalDateTime from, LocalDateTime to) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        return days;
+    }
+
+}
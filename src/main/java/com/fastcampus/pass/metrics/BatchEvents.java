@@ -0,0 +1,121 @@
+package com.fastcampus.pass.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+/*
+ * 배치 처리 단계를 JDK Flight Recorder 이벤트로 남긴다. JMC에서 Pass Batch 카테고리로 볼 수 있다.
+ * 모든 이벤트는 기본적으로 꺼져 있고(@Enabled(false)), job 파라미터 jfr=true로 실행하면 FlightRecorderListener가 켠다.
+ * 꺼져 있을 때는 이벤트 객체를 만들기 전에 isEnabled()로 확인하기 때문에 비용이 거의 없다.
+ *
+ * 공통 필드
+ * - stepName: partition 이름을 뺀 step 이름
+ * - partitionId: partition worker step이면 partition 이름 (addPassesWorkerStep:G10024 → G10024), 아니면 빈 문자열
+ * - itemCount: 이벤트 구간에서 처리한 item 수
+ */
+public final class BatchEvents {
+    private static final String CATEGORY = "Pass Batch";
+
+    private BatchEvents() {
+    }
+
+    @Enabled(false)
+    @StackTrace(false)
+    public abstract static class BatchEvent extends Event {
+        @Label("Step Name")
+        public String stepName;
+
+        @Label("Partition Id")
+        public String partitionId;
+
+        @Label("Item Count")
+        public long itemCount;
+
+        public void setStep(String fullStepName) {
+            if (fullStepName == null) {
+                stepName = "";
+                partitionId = "";
+                return;
+            }
+            final int partitionIndex = fullStepName.indexOf(':');
+            stepName = partitionIndex < 0 ? fullStepName : fullStepName.substring(0, partitionIndex);
+            partitionId = partitionIndex < 0 ? "" : fullStepName.substring(partitionIndex + 1);
+        }
+
+        public void setStep(StepExecution stepExecution) {
+            setStep(stepExecution.getStepName());
+        }
+
+        // 현재 thread에서 실행 중인 step으로 설정한다. step 밖에서 호출되면 빈 문자열이 된다.
+        public void setCurrentStep() {
+            final StepContext stepContext = StepSynchronizationManager.getContext();
+            setStep(stepContext == null ? null : stepContext.getStepName());
+        }
+    }
+
+    @Name("com.fastcampus.pass.ChunkRead")
+    @Label("Chunk Read")
+    @Category({CATEGORY, "Chunk"})
+    @Description("chunk 하나의 item을 모두 읽는 구간")
+    public static class ChunkRead extends BatchEvent {
+    }
+
+    @Name("com.fastcampus.pass.ChunkProcess")
+    @Label("Chunk Process")
+    @Category({CATEGORY, "Chunk"})
+    @Description("chunk 하나의 item을 모두 processor로 변환하는 구간")
+    public static class ChunkProcess extends BatchEvent {
+    }
+
+    @Name("com.fastcampus.pass.ChunkWrite")
+    @Label("Chunk Write")
+    @Category({CATEGORY, "Chunk"})
+    @Description("writer가 chunk 하나를 쓰는 구간")
+    public static class ChunkWrite extends BatchEvent {
+    }
+
+    @Name("com.fastcampus.pass.ChunkCommit")
+    @Label("Chunk Commit")
+    @Category({CATEGORY, "Chunk"})
+    @Description("writer가 끝난 뒤 JobRepository를 갱신하고 transaction을 commit 하기까지의 구간")
+    public static class ChunkCommit extends BatchEvent {
+    }
+
+    @Name("com.fastcampus.pass.TaskletExecution")
+    @Label("Tasklet Execution")
+    @Category(CATEGORY)
+    @Description("tasklet 한 번의 실행과 commit 구간. itemCount는 tasklet이 증가시킨 write count")
+    public static class TaskletExecution extends BatchEvent {
+    }
+
+    @Name("com.fastcampus.pass.JobRepositoryOperation")
+    @Label("JobRepository Operation")
+    @Category(CATEGORY)
+    @Description("JobRepository 메서드 호출. itemCount는 StepExecution을 갱신한 경우의 write count")
+    public static class JobRepositoryOperation extends BatchEvent {
+        @Label("Method")
+        public String method;
+    }
+
+    @Name("com.fastcampus.pass.CsvWrite")
+    @Label("CSV Write")
+    @Category(CATEGORY)
+    @Description("CSV 리포트 row 쓰기. itemCount는 쓴 row 수")
+    public static class CsvWrite extends BatchEvent {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.fastcampus.pass.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/*
+ * 모든 job, step, chunk의 수행 시간과 처리 건수를 Micrometer로 기록한다. BatchConfig에서 모든 job과 step에 등록한다.
+ * - batch.job.duration, batch.step.duration: job, step 수행 시간 (status tag)
+ * - batch.step.items: step이 끝날 때 read, write, filter, skip, commit, rollback 건수를 type tag로 나눠 더한다.
+ * - batch.chunk.duration: chunk 하나를 읽고 쓰고 JobRepository를 갱신해서 commit 하기까지 걸린 시간 (histogram)
+ *
+ * partition worker step 이름(addPassesWorkerStep:G10024)은 partition 마다 달라지기 때문에 ':' 앞부분만 step.name tag로 사용한다.
+ * job이 끝나면 PrometheusTextFileExporter로 지금까지의 metric을 파일로 내보낸다.
+ */
+public class BatchMetricsListener implements JobExecutionListener, StepExecutionListener, ChunkListener {
+    private static final String CHUNK_STARTED_AT = BatchMetricsListener.class.getName() + ".chunkStartedAt";
+
+    private final MeterRegistry meterRegistry;
+    private final PrometheusTextFileExporter textFileExporter;
+
+    public BatchMetricsListener(MeterRegistry meterRegistry, PrometheusTextFileExporter textFileExporter) {
+        this.meterRegistry = meterRegistry;
+        this.textFileExporter = textFileExporter;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        Timer.builder("batch.job.duration")
+                .description("배치 job 수행 시간")
+                .tags("job.name", jobExecution.getJobInstance().getJobName(), "status", jobExecution.getStatus().name())
+                .register(meterRegistry)
+                .record(duration(jobExecution.getStartTime()));
+        textFileExporter.export(jobExecution.getJobInstance().getJobName());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        final Tags tags = stepTags(stepExecution);
+        Timer.builder("batch.step.duration")
+                .description("배치 step 수행 시간")
+                .tags(tags.and("status", stepExecution.getStatus().name()))
+                .register(meterRegistry)
+                .record(duration(stepExecution.getStartTime()));
+
+        incrementItems(tags, "read", stepExecution.getReadCount());
+        incrementItems(tags, "write", stepExecution.getWriteCount());
+        incrementItems(tags, "filter", stepExecution.getFilterCount());
+        incrementItems(tags, "skip", stepExecution.getSkipCount());
+        incrementItems(tags, "commit", stepExecution.getCommitCount());
+        incrementItems(tags, "rollback", stepExecution.getRollbackCount());
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(CHUNK_STARTED_AT, System.nanoTime());
+    }
+
+    // afterChunk는 chunk transaction이 commit 된 뒤에 호출된다.
+    @Override
+    public void afterChunk(ChunkContext context) {
+        recordChunk(context, "COMMITTED");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        recordChunk(context, "ROLLED_BACK");
+    }
+
+    private void recordChunk(ChunkContext context, String status) {
+        if (!(context.removeAttribute(CHUNK_STARTED_AT) instanceof Long startedAt)) {
+            return;
+        }
+        Timer.builder("batch.chunk.duration")
+                .description("chunk 하나의 처리부터 commit 까지 걸린 시간")
+                .tags(stepTags(context.getStepContext().getStepExecution()).and("status", status))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    private void incrementItems(Tags tags, String type, long count) {
+        Counter.builder("batch.step.items")
+                .description("step에서 처리한 item 건수")
+                .tags(tags.and("type", type))
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public static Tags stepTags(StepExecution stepExecution) {
+        final String stepName = stepExecution.getStepName();
+        final int partitionIndex = stepName.indexOf(':');
+        return Tags.of("job.name", stepExecution.getJobExecution().getJobInstance().getJobName(),
+                "step.name", partitionIndex < 0 ? stepName : stepName.substring(0, partitionIndex));
+    }
+
+    private static Duration duration(LocalDateTime startedAt) {
+        return startedAt == null ? Duration.ZERO : Duration.between(startedAt, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,216 @@
+package com.fastcampus.pass.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * job 파라미터 jfr=true로 실행한 job을 JDK Flight Recorder로 기록하고, chunk와 tasklet 단계를 BatchEvents 이벤트로 남긴다.
+ * 예) java -jar pass-batch.jar --spring.batch.job.name=addPassesJob jfr=true
+ *
+ * - job이 시작하면 JDK의 profile 설정에 BatchEvents를 켠 recording을 시작하고, 끝나면 {batch.jfr.directory}/{job 이름}-{job execution id}.jfr로 저장한다.
+ * - BatchConfig에서 모든 job과 tasklet step에 등록한다. chunk step은 item 단위 구간을 나누기 위해 job 설정의 step builder에서 item listener로도 등록한다.
+ * - chunk 하나의 구간은 read → process → write → commit 순서로 이어진다. 같은 chunk는 한 thread에서 처리되기 때문에 ThreadLocal에 진행 상태를 둔다.
+ * - item listener가 호출되지 않은 chunk는 tasklet 실행으로 기록한다.
+ * - 이벤트가 꺼져 있으면 chunk 시작 시 한 번만 확인하고, item 마다는 ThreadLocal 조회만 한다.
+ */
+@Slf4j
+@Component
+public class FlightRecorderListener implements JobExecutionListener, ChunkListener,
+        ItemReadListener<Object>, ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+    public static final String JFR_PARAMETER = "jfr";
+
+    private static final List<Class<? extends BatchEvents.BatchEvent>> EVENT_CLASSES = List.of(
+            BatchEvents.ChunkRead.class, BatchEvents.ChunkProcess.class, BatchEvents.ChunkWrite.class, BatchEvents.ChunkCommit.class,
+            BatchEvents.TaskletExecution.class, BatchEvents.JobRepositoryOperation.class, BatchEvents.CsvWrite.class);
+    private static final EventType CHUNK_EVENT_TYPE = EventType.getEventType(BatchEvents.ChunkCommit.class);
+
+    private final Path directory;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final ThreadLocal<ChunkEvents> currentChunk = new ThreadLocal<>();
+
+    public FlightRecorderListener(@Value("${batch.jfr.directory:.}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        if (!"true".equalsIgnoreCase(jobExecution.getJobParameters().getString(JFR_PARAMETER))) {
+            return;
+        }
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName(jobExecution.getJobInstance().getJobName() + "-" + jobExecution.getId());
+            EVENT_CLASSES.forEach(eventClass -> recording.enable(eventClass).withoutThreshold());
+            recording.start();
+            recordings.put(jobExecution.getId(), recording);
+
+        } catch (IOException | ParseException e) {
+            log.warn("FlightRecorderListener - beforeJob: recording을 시작할 수 없습니다.", e);
+
+        }
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        final Recording recording = recordings.remove(jobExecution.getId());
+        if (recording == null) {
+            return;
+        }
+        final Path file = directory.resolve(recording.getName() + ".jfr");
+        try (recording) {
+            recording.stop();
+            Files.createDirectories(directory);
+            recording.dump(file);
+            log.info("FlightRecorderListener - afterJob: {}", file);
+
+        } catch (IOException e) {
+            log.warn("FlightRecorderListener - afterJob: recording 저장 실패, file: {}", file, e);
+
+        }
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (!CHUNK_EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        currentChunk.set(new ChunkEvents(context.getStepContext().getStepExecution()));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents == null) {
+            return;
+        }
+        currentChunk.remove();
+        if (!chunkEvents.itemListenerCalled) {
+            chunkEvents.tasklet.itemCount = chunkEvents.stepExecution.getWriteCount() - chunkEvents.writeCountBefore;
+            chunkEvents.tasklet.commit();
+            return;
+        }
+        if (chunkEvents.commit != null) {
+            chunkEvents.commit.commit();
+            return;
+        }
+        // 마지막 chunk처럼 읽은 item이 없으면 write 없이 끝난다.
+        chunkEvents.endRead();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        currentChunk.remove();
+    }
+
+    @Override
+    public void beforeRead() {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents != null) {
+            chunkEvents.itemListenerCalled = true;
+        }
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents != null) {
+            chunkEvents.read.itemCount++;
+        }
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents != null && chunkEvents.process == null) {
+            chunkEvents.endRead();
+            chunkEvents.process = chunkEvents.newEvent(new BatchEvents.ChunkProcess());
+        }
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents != null && chunkEvents.process != null) {
+            chunkEvents.process.itemCount++;
+        }
+    }
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents == null) {
+            return;
+        }
+        chunkEvents.endRead();
+        if (chunkEvents.process != null) {
+            chunkEvents.process.commit();
+        }
+        chunkEvents.write = chunkEvents.newEvent(new BatchEvents.ChunkWrite());
+        chunkEvents.write.itemCount = items.size();
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        final ChunkEvents chunkEvents = currentChunk.get();
+        if (chunkEvents == null || chunkEvents.write == null) {
+            return;
+        }
+        chunkEvents.write.commit();
+        chunkEvents.commit = chunkEvents.newEvent(new BatchEvents.ChunkCommit());
+        chunkEvents.commit.itemCount = items.size();
+    }
+
+    // chunk 하나의 진행 중인 이벤트들
+    private static final class ChunkEvents {
+        private final StepExecution stepExecution;
+        private final long writeCountBefore;
+        private final BatchEvents.ChunkRead read;
+        private final BatchEvents.TaskletExecution tasklet;
+        private BatchEvents.ChunkProcess process;
+        private BatchEvents.ChunkWrite write;
+        private BatchEvents.ChunkCommit commit;
+        private boolean itemListenerCalled;
+        private boolean readEnded;
+
+        ChunkEvents(StepExecution stepExecution) {
+            this.stepExecution = stepExecution;
+            this.writeCountBefore = stepExecution.getWriteCount();
+            this.read = newEvent(new BatchEvents.ChunkRead());
+            this.tasklet = newEvent(new BatchEvents.TaskletExecution());
+        }
+
+        <T extends BatchEvents.BatchEvent> T newEvent(T event) {
+            event.setStep(stepExecution);
+            event.begin();
+            return event;
+        }
+
+        void endRead() {
+            if (!readEnded) {
+                readEnded = true;
+                read.commit();
+            }
+        }
+    }
+}
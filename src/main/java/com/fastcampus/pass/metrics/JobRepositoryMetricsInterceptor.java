@@ -0,0 +1,55 @@
+package com.fastcampus.pass.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.EventType;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.batch.core.StepExecution;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * JobRepository 호출마다 걸린 시간을 batch.jobrepository.duration(method tag)으로 기록한다.
+ * chunk가 commit 될 때마다 StepExecution과 ExecutionContext를 갱신하기 때문에, 메타 테이블 갱신이 chunk 처리 시간에서 차지하는 비중을 볼 수 있다.
+ * JFR recording 중이면 호출마다 BatchEvents.JobRepositoryOperation 이벤트도 남긴다. 이벤트가 꺼져 있으면 이벤트 객체를 만들지 않는다.
+ */
+public class JobRepositoryMetricsInterceptor implements MethodInterceptor {
+    private static final EventType EVENT_TYPE = EventType.getEventType(BatchEvents.JobRepositoryOperation.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public JobRepositoryMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final BatchEvents.JobRepositoryOperation event = EVENT_TYPE.isEnabled() ? new BatchEvents.JobRepositoryOperation() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final long startedAt = System.nanoTime();
+        try {
+            return invocation.proceed();
+
+        } finally {
+            if (event != null && event.shouldCommit()) {
+                event.method = invocation.getMethod().getName();
+                if (invocation.getArguments().length > 0 && invocation.getArguments()[0] instanceof StepExecution stepExecution) {
+                    event.setStep(stepExecution);
+                    event.itemCount = stepExecution.getWriteCount();
+                } else {
+                    event.setCurrentStep();
+                }
+                event.commit();
+            }
+            Timer.builder("batch.jobrepository.duration")
+                    .description("JobRepository 호출 시간")
+                    .tag("method", invocation.getMethod().getName())
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        }
+    }
+}
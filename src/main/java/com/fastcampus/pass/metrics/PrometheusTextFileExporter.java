@@ -0,0 +1,50 @@
+package com.fastcampus.pass.metrics;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Supplier;
+
+/*
+ * PrometheusMeterRegistry의 metric을 Prometheus text format으로 {directory}/{job 이름}.prom 파일에 쓴다.
+ * cron으로 실행되는 job은 scrape 되기 전에 프로세스가 끝나기 때문에, node_exporter의 textfile collector가 이 파일을 읽도록 한다.
+ *
+ * - 임시 파일에 쓰고 atomic rename 하기 때문에 collector는 항상 완성된 파일만 읽는다.
+ * - directory가 없거나 PrometheusMeterRegistry가 없으면 아무것도 하지 않는다.
+ * - 내보내기에 실패해도 job 결과에는 영향을 주지 않고 로그만 남긴다.
+ */
+@Slf4j
+public class PrometheusTextFileExporter {
+    private final Supplier<PrometheusMeterRegistry> prometheusMeterRegistry;
+    private final Path directory;
+
+    public PrometheusTextFileExporter(Supplier<PrometheusMeterRegistry> prometheusMeterRegistry, Path directory) {
+        this.prometheusMeterRegistry = prometheusMeterRegistry;
+        this.directory = directory;
+    }
+
+    public void export(String jobName) {
+        final PrometheusMeterRegistry registry = prometheusMeterRegistry.get();
+        if (directory == null || registry == null) {
+            return;
+        }
+
+        final Path target = directory.resolve(jobName + ".prom");
+        final Path temp = directory.resolve(jobName + ".prom.tmp");
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(temp, registry.scrape(), StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("PrometheusTextFileExporter - export: {}", target);
+
+        } catch (IOException e) {
+            log.warn("PrometheusTextFileExporter - export: metric 파일 쓰기 실패, file: {}", target, e);
+
+        }
+    }
+}
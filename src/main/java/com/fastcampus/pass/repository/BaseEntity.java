@@ -20,4 +20,15 @@ public class BaseEntity {
     @LastModifiedDate
     private LocalDateTime modifiedAt;
 
+    /*
+     * StatelessSession은 entity listener를 실행하지 않기 때문에 auditing 컬럼이 채워지지 않는다.
+     * StatelessSession으로 insert/update 하기 전에 직접 채운다. createdAt은 처음 저장할 때만 채운다.
+     */
+    public void touch(LocalDateTime now) {
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        modifiedAt = now;
+    }
+
 }
@@ -0,0 +1,46 @@
+package com.fastcampus.pass.repository;
+
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+
+import java.sql.Statement;
+
+/*
+ * JdbcTemplate.batchUpdate가 반환한 건별 update count로, 조건부 UPDATE(WHERE used_pass = FALSE, WHERE status = ? 등)가 row를 바꿨는지 확인한다.
+ * driver가 건별 update count를 주지 않으면(SUCCESS_NO_INFO) 이번 실행이 바꿨는지 알 수 없다.
+ * UPDATE가 이미 실행된 뒤라 row를 다시 읽어도 누가 바꿨는지 구분할 수 없기 때문에, 바뀐 것으로 보지 않고 예외를 던져서 chunk를 rollback 한다.
+ */
+public final class BatchUpdateCounts {
+
+    private BatchUpdateCounts() {
+    }
+
+    // batchUpdate에 넘긴 순서대로 row가 바뀌었는지 반환한다.
+    public static boolean[] updated(int[][] updateCounts) {
+        int size = 0;
+        for (int[] batchUpdateCounts : updateCounts) {
+            size += batchUpdateCounts.length;
+        }
+        final boolean[] updated = new boolean[size];
+        int index = 0;
+        for (int[] batchUpdateCounts : updateCounts) {
+            for (int updateCount : batchUpdateCounts) {
+                if (updateCount == Statement.SUCCESS_NO_INFO) {
+                    throw new IncorrectUpdateSemanticsDataAccessException("JDBC driver가 건별 update count를 반환하지 않아 UPDATE 결과를 확인할 수 없습니다.");
+                }
+                updated[index++] = updateCount > 0;
+            }
+        }
+        return updated;
+    }
+
+    // 바뀐 row 수를 반환한다.
+    public static int count(int[][] updateCounts) {
+        int count = 0;
+        for (boolean updated : updated(updateCounts)) {
+            if (updated) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
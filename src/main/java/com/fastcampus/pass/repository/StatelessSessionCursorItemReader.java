@@ -0,0 +1,68 @@
+package com.fastcampus.pass.repository;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.util.Map;
+
+/*
+ * StatelessSession으로 HQL 조회 결과를 cursor(ScrollMode.FORWARD_ONLY)로 한 row씩 읽는다.
+ * StatelessSession은 영속성 컨텍스트가 없어서, 읽은 엔티티를 1차 캐시에 쌓거나 dirty checking용 스냅샷을 만들지 않는다.
+ * 그래서 JpaCursorItemReader와 달리 읽은 건수가 늘어나도 메모리 사용량이 일정하다.
+ *
+ * cursor는 chunk 트랜잭션과 별개의 커넥션에서 열린다. (JpaCursorItemReader와 같다)
+ * fetchSize는 JDBC statement에 그대로 넘긴다. MySQL은 양수 fetch size를 무시하고 결과 전체를 받아오기 때문에,
+ * 메모리 사용량을 일정하게 유지하려면 StreamingFetchSize로 정한 값(MySQL이면 Integer.MIN_VALUE)을 넘긴다.
+ * streaming 중인 커넥션은 다른 쿼리에 쓸 수 없지만, 이 reader의 커넥션은 cursor 전용이라 상관없다.
+ * 읽은 엔티티는 detached 상태이기 때문에, 변경 내용은 StatelessSessionItemWriter처럼 명시적으로 update 해야 한다.
+ */
+public class StatelessSessionCursorItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+    private final SessionFactory sessionFactory;
+    private final String queryString;
+    private final Class<T> resultType;
+    private final Map<String, Object> parameterValues;
+    private final int fetchSize;
+
+    private StatelessSession session;
+    private ScrollableResults<T> cursor;
+
+    public StatelessSessionCursorItemReader(String name, SessionFactory sessionFactory, String queryString, Class<T> resultType,
+                                            Map<String, Object> parameterValues, int fetchSize) {
+        setName(name);
+        this.sessionFactory = sessionFactory;
+        this.queryString = queryString;
+        this.resultType = resultType;
+        this.parameterValues = parameterValues;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    protected void doOpen() {
+        session = sessionFactory.openStatelessSession();
+        final Query<T> query = session.createQuery(queryString, resultType);
+        query.setFetchSize(fetchSize);
+        parameterValues.forEach(query::setParameter);
+        cursor = query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    @Override
+    protected T doRead() {
+        return cursor.next() ? cursor.get() : null;
+    }
+
+    @Override
+    protected void doClose() {
+        if (cursor != null) {
+            cursor.close();
+            cursor = null;
+        }
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fastcampus.pass.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+
+/*
+ * chunk의 엔티티를 StatelessSession으로 insert 또는 update 한다.
+ * 영속성 컨텍스트가 없기 때문에 dirty checking 없이 엔티티마다 SQL 한 건을 만들고, chunk 단위로 JDBC 배치로 보낸다.
+ * entity listener도 실행되지 않기 때문에 auditing 컬럼은 BaseEntity.touch()로 직접 채운다.
+ *
+ * StatelessSession은 chunk 트랜잭션이 잡고 있는 커넥션 위에서 연다. 그래서 chunk가 rollback 되면 여기서 보낸 SQL도 함께 rollback 된다.
+ * - Hibernate는 자신의 트랜잭션이 시작된 상태에서만 JDBC 배치를 사용하기 때문에 begin()을 호출한다.
+ *   커넥션이 이미 autocommit = false 이므로 실제로는 아무 것도 하지 않는다.
+ * - 모아둔 배치를 보내기 위해 executeBatch()를 직접 호출하고, commit 없이 session을 닫는다. commit은 chunk 트랜잭션이 한다.
+ * 그래서 chunk 트랜잭션 밖에서 호출하면 SQL이 commit 되지 않으므로 예외를 던진다.
+ *
+ * IDENTITY 전략의 엔티티는 insert 할 때마다 생성된 키를 받아와야 해서 Hibernate가 insert를 배치로 묶지 않는다. update는 항상 배치로 묶인다.
+ */
+public class StatelessSessionItemWriter<T extends BaseEntity> implements ItemWriter<T> {
+    public enum Operation {
+        INSERT, UPDATE
+    }
+
+    private final SessionFactory sessionFactory;
+    private final DataSource dataSource;
+    private final Operation operation;
+
+    public StatelessSessionItemWriter(SessionFactory sessionFactory, DataSource dataSource, Operation operation) {
+        this.sessionFactory = sessionFactory;
+        this.dataSource = dataSource;
+        this.operation = operation;
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("StatelessSessionItemWriter는 chunk 트랜잭션 안에서 호출해야 합니다.");
+        }
+
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession session = sessionFactory.withStatelessOptions().connection(connection).openStatelessSession()) {
+            session.setJdbcBatchSize(chunk.size());
+            session.getTransaction().begin();
+
+            final LocalDateTime now = LocalDateTime.now();
+            for (T item : chunk) {
+                item.touch(now);
+                if (operation == Operation.INSERT) {
+                    session.insert(item);
+                } else {
+                    session.update(item);
+                }
+            }
+            ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.fastcampus.pass.repository;
+
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.PagingQueryProvider;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+ * 여러 조건을 UNION ALL로 합친 결과를 정렬 키 하나로 keyset paging 하는 JdbcPagingItemReader용 query provider이다.
+ * 기본 provider에 UNION ALL을 넘기려면 FROM (... UNION ALL ...) 처럼 derived table로 감싸야 하는데,
+ * 그러면 정렬 키 조건과 LIMIT이 derived table 밖에 걸려서 MySQL은 page마다 조건에 맞는 row 전체를 다시 만든다.
+ * 이 provider는 정렬 키 조건(sortKey > :_sortKey)과 ORDER BY, LIMIT을 branch마다 넣고, 합친 결과를 다시 정렬해서 page 크기만큼 자른다.
+ * 그래서 page 하나를 읽을 때 branch마다 인덱스 범위에서 최대 page 크기만큼만 읽는다.
+ * 정렬 키는 branch 사이에서도 겹치지 않아야 한다. (같은 row가 두 branch에 모두 걸리면 두 번 읽는다)
+ */
+public class UnionAllPagingQueryProvider implements PagingQueryProvider {
+    private final String selectClause;
+    private final String fromClause;
+    private final List<String> whereClauses;
+    private final String sortKey;
+
+    public UnionAllPagingQueryProvider(String selectClause, String fromClause, List<String> whereClauses, String sortKey) {
+        this.selectClause = selectClause;
+        this.fromClause = fromClause;
+        this.whereClauses = whereClauses;
+        this.sortKey = sortKey;
+    }
+
+    @Override
+    public void init(DataSource dataSource) {
+    }
+
+    @Override
+    public String generateFirstPageQuery(int pageSize) {
+        return generateQuery(pageSize, false);
+    }
+
+    @Override
+    public String generateRemainingPagesQuery(int pageSize) {
+        return generateQuery(pageSize, true);
+    }
+
+    private String generateQuery(int pageSize, boolean afterSortKey) {
+        final String keysetClause = afterSortKey ? " AND " + sortKey + " > " + getSortKeyPlaceHolder(sortKey) : "";
+        return whereClauses.stream()
+                .map(whereClause -> "(SELECT " + selectClause + " FROM " + fromClause + " WHERE (" + whereClause + ")" + keysetClause
+                        + " ORDER BY " + sortKey + " ASC LIMIT " + pageSize + ")")
+                .collect(Collectors.joining(" UNION ALL ", "", " ORDER BY " + sortKey + " ASC LIMIT " + pageSize));
+    }
+
+    // JdbcPagingItemReader는 named parameter를 쓰지 않으면 parameterValues를 ? 순서대로 넘기는데, branch마다 같은 값이 반복되기 때문에 named parameter만 지원한다.
+    @Override
+    public int getParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public boolean isUsingNamedParameters() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Order> getSortKeys() {
+        return Map.of(sortKey, Order.ASCENDING);
+    }
+
+    @Override
+    public String getSortKeyPlaceHolder(String keyName) {
+        return ":_" + keyName;
+    }
+
+    @Override
+    public Map<String, Order> getSortKeysWithoutAliases() {
+        return getSortKeys();
+    }
+
+}
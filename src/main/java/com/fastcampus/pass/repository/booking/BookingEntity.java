@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @Setter
 @ToString
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", indexes = {
+        @Index(name = "idx_booking_ended_at", columnList = "ended_at"),
+        @Index(name = "idx_booking_modified_at_ended_at", columnList = "modified_at, ended_at"),
+        @Index(name = "idx_booking_used_pass_status", columnList = "used_pass, status")
+})
 public class BookingEntity extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,30 @@
+package com.fastcampus.pass.repository.booking;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * 수정 일시(modified_at) 기준으로 바뀐 예약을 찾는다.
+ * (modified_at, ended_at) 인덱스만 읽기 때문에 바뀐 예약이 많아도 테이블에는 접근하지 않는다.
+ */
+@Repository
+public class BookingModificationRepository {
+    public static final String SELECT_ENDED_DATES_SQL = "SELECT DISTINCT CAST(ended_at AS DATE) AS ended_date FROM booking WHERE modified_at > ? AND modified_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingModificationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // (after, until] 사이에 수정된 예약들의 종료 날짜를 중복 없이 반환한다.
+    public List<LocalDate> findEndedDatesModifiedBetween(LocalDateTime after, LocalDateTime until) {
+        return jdbcTemplate.query(SELECT_ENDED_DATES_SQL, (rs, rowNum) -> rs.getDate("ended_date").toLocalDate(),
+                Timestamp.valueOf(after), Timestamp.valueOf(until));
+    }
+}
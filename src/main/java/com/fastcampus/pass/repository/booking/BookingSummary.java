@@ -0,0 +1,13 @@
+package com.fastcampus.pass.repository.booking;
+
+import java.time.LocalDateTime;
+
+// 통계 추출 step이 읽는 예약 한 건. 종료 일시로 날짜를 정하고, 출석 여부와 상태로 건수를 센다.
+public record BookingSummary(LocalDateTime endedAt, boolean attended, BookingStatus status) {
+
+    // 예약이 종료된 날의 0시 0분 0초로 반환
+    public LocalDateTime getStatisticsAt() {
+        return this.endedAt.withHour(0).withMinute(0).withSecond(0).withNano(0);
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.fastcampus.pass.repository.booking;
+
+// 이용권을 차감할 예약. passSeq의 잔여 횟수를 줄이고, bookingSeq의 used_pass를 표시한다.
+public record BookingUsage(Integer bookingSeq, Integer passSeq) {
+}
@@ -0,0 +1,28 @@
+package com.fastcampus.pass.repository.deadletter;
+
+import com.fastcampus.pass.repository.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "dead_letter", indexes = @Index(name = "idx_dead_letter_step", columnList = "job_name, step_name"))
+public class DeadLetterEntity extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long deadLetterSeq;
+    private String jobName;
+    private String stepName;
+    private Long stepExecutionId;
+    private String itemType;
+
+    @Column(length = DeadLetterRepository.ITEM_LENGTH)
+    private String item;
+    @Column(length = DeadLetterRepository.ERROR_LENGTH)
+    private String error;
+
+}
@@ -0,0 +1,38 @@
+package com.fastcampus.pass.repository.deadletter;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/*
+ * 배치가 처리하지 못하고 건너뛴 item을 dead_letter 테이블에 남긴다.
+ * 건너뛴 chunk와 함께 commit 되도록 JdbcTemplate으로 chunk 트랜잭션의 커넥션을 사용한다.
+ * item과 error는 컬럼 길이에 맞춰 자른다.
+ */
+@Repository
+public class DeadLetterRepository {
+    public static final int ITEM_LENGTH = 4000;
+    public static final int ERROR_LENGTH = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO dead_letter (job_name, step_name, step_execution_id, item_type, item, error, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeadLetterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(String jobName, String stepName, Long stepExecutionId, Object item, Throwable error) {
+        jdbcTemplate.update(INSERT_SQL, jobName, stepName, stepExecutionId,
+                item == null ? null : item.getClass().getName(),
+                item == null ? null : truncate(String.valueOf(item), ITEM_LENGTH),
+                truncate(error.getClass().getName() + ": " + error.getMessage(), ERROR_LENGTH),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private String truncate(String value, int length) {
+        return value.length() > length ? value.substring(0, length) : value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fastcampus.pass.repository.notification;
+
+import com.fastcampus.pass.repository.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "notification", indexes = @Index(name = "idx_notification_sent", columnList = "sent, notification_seq"))
+public class NotificationEntity extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer notificationSeq;
+    private String uuid;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationEvent event;
+    private String text;
+    private boolean sent;
+    private LocalDateTime sentAt;
+
+}
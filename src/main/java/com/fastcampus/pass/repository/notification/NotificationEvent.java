@@ -0,0 +1,5 @@
+package com.fastcampus.pass.repository.notification;
+
+public enum NotificationEvent {
+    BEFORE_CLASS
+}
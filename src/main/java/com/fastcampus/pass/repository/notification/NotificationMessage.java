@@ -0,0 +1,5 @@
+package com.fastcampus.pass.repository.notification;
+
+// 아직 보내지 않은 알람 한 건. 보낸 뒤에는 notificationSeq로 sent를 표시한다.
+public record NotificationMessage(Integer notificationSeq, String uuid, String text) {
+}
@@ -0,0 +1,6 @@
+package com.fastcampus.pass.repository.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationRepository extends JpaRepository<NotificationEntity, Integer> {
+}
@@ -1,5 +1,6 @@
 package com.fastcampus.pass.repository.pass;
 
+import com.fastcampus.pass.repository.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,8 +12,8 @@ import java.time.LocalDateTime;
 @Setter
 @ToString
 @Entity
-@Table(name = "bulk_pass")
-public class BulkPassEntity {
+@Table(name = "bulk_pass", indexes = @Index(name = "idx_bulk_pass_status_started_at", columnList = "status, started_at"))
+public class BulkPassEntity extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // 기본 키 생성을 DB에 위임합니다. (AUTO_INCREMENT)
     private Integer bulkPassSeq;
@@ -0,0 +1,109 @@
+package com.fastcampus.pass.repository.pass;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * PassEntity를 JdbcTemplate 배치로 저장하는 writer.
+ * PassEntity는 IDENTITY 전략을 사용하기 때문에 JPA saveAll은 사용자 한 명당 INSERT 한 번씩 DB와 왕복한다.
+ * 여기서는 하나의 INSERT 문에 여러 row를 담고(multi-row insert), 그 INSERT 문들을 다시 JDBC 배치로 묶어서 보낸다.
+ * JPA를 거치지 않기 때문에 BaseEntity의 Auditing 컬럼(created_at, modified_at)은 직접 채워준다.
+ * 생성된 pass_seq는 조회하지 않으므로 저장 후에도 PassEntity의 passSeq는 null이다.
+ */
+@Component
+public class PassBatchInsertWriter implements ItemWriter<PassEntity> {
+    private static final String INSERT_SQL = "INSERT INTO pass (package_seq, user_id, status, remaining_count, started_at, ended_at, expired_at, created_at, modified_at) VALUES ";
+    private static final String VALUES_SQL = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // INSERT 문 하나에 담을 row 수
+    private final int rowsPerStatement;
+    // JDBC 배치 한 번에 보낼 INSERT 문 수
+    private final int statementsPerBatch;
+    private final String multiRowInsertSql;
+
+    public PassBatchInsertWriter(JdbcTemplate jdbcTemplate,
+                                 @Value("${pass.batch.insert.rows-per-statement:500}") int rowsPerStatement,
+                                 @Value("${pass.batch.insert.statements-per-batch:20}") int statementsPerBatch) {
+        if (rowsPerStatement < 1 || statementsPerBatch < 1) {
+            throw new IllegalArgumentException("rowsPerStatement, statementsPerBatch는 1 이상이어야 합니다.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsPerStatement = rowsPerStatement;
+        this.statementsPerBatch = statementsPerBatch;
+        this.multiRowInsertSql = insertSql(rowsPerStatement);
+    }
+
+    @Override
+    public void write(Chunk<? extends PassEntity> chunk) {
+        insertAll(chunk.getItems());
+    }
+
+    // 저장한 row 수를 반환한다.
+    public int insertAll(List<? extends PassEntity> passEntities) {
+        if (passEntities.isEmpty()) {
+            return 0;
+        }
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // rowsPerStatement 단위로 자르고, 꽉 찬 묶음은 같은 SQL로 배치 전송한다.
+        final int fullRows = passEntities.size() - passEntities.size() % rowsPerStatement;
+        List<List<? extends PassEntity>> statements = new ArrayList<>();
+        for (int i = 0; i < fullRows; i += rowsPerStatement) {
+            statements.add(passEntities.subList(i, i + rowsPerStatement));
+        }
+        if (!statements.isEmpty()) {
+            jdbcTemplate.batchUpdate(multiRowInsertSql, statements, statementsPerBatch, (ps, rows) -> bind(ps, rows, now));
+        }
+
+        // 남은 row는 크기에 맞는 SQL 하나로 저장한다.
+        if (fullRows < passEntities.size()) {
+            final List<? extends PassEntity> remainingRows = passEntities.subList(fullRows, passEntities.size());
+            jdbcTemplate.update(insertSql(remainingRows.size()), ps -> bind(ps, remainingRows, now));
+        }
+        return passEntities.size();
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL.length() + rows * (VALUES_SQL.length() + 2));
+        sql.append(INSERT_SQL);
+        for (int i = 0; i < rows; ++i) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_SQL);
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement ps, List<? extends PassEntity> rows, Timestamp now) throws SQLException {
+        int index = 1;
+        for (PassEntity passEntity : rows) {
+            ps.setInt(index++, passEntity.getPackageSeq());
+            ps.setString(index++, passEntity.getUserId());
+            ps.setString(index++, passEntity.getStatus().name());
+            ps.setObject(index++, passEntity.getRemainingCount(), Types.INTEGER);
+            ps.setTimestamp(index++, toTimestamp(passEntity.getStartedAt()));
+            ps.setTimestamp(index++, toTimestamp(passEntity.getEndedAt()));
+            ps.setTimestamp(index++, toTimestamp(passEntity.getExpiredAt()));
+            ps.setTimestamp(index++, now);
+            ps.setTimestamp(index++, now);
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime localDateTime) {
+        return localDateTime == null ? null : Timestamp.valueOf(localDateTime);
+    }
+
+}
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 @Setter
 @ToString
 @Entity
-@Table(name = "pass")
+@Table(name = "pass", indexes = {
+        @Index(name = "idx_pass_status_ended_at", columnList = "status, ended_at"),
+        @Index(name = "idx_pass_status_started_at", columnList = "status, started_at")
+})
 public class PassEntity extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,6 +23,8 @@ public class PassEntity extends BaseEntity {
     private Integer packageSeq;
     private String userId;
 
+    // 순번(ORDINAL)으로 저장하던 DB는 db/migration/001_pass_status_to_string.sql로 상태 이름으로 바꾼 뒤에 실행한다.
+    @Enumerated(EnumType.STRING)
     private PassStatus status;
     private Integer remainingCount;
 
@@ -0,0 +1,5 @@
+package com.fastcampus.pass.repository.pass;
+
+// 이용권 상태 전환에 필요한 컬럼만 담는다. 읽었을 때의 상태(fromStatus)에서 다음 상태(toStatus)로 바꾼다.
+public record PassTransition(Integer passSeq, PassStatus fromStatus, PassStatus toStatus) {
+}
@@ -0,0 +1,65 @@
+package com.fastcampus.pass.repository.pass;
+
+import com.fastcampus.pass.repository.BatchUpdateCounts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * chunk의 이용권을 바뀔 상태(toStatus)별로 묶어서, 상태마다 JDBC 배치 하나로 UPDATE 한다.
+ * - IN_PROGRESS: READY 이용권을 시작한다.
+ * - EXPIRED: READY 또는 IN_PROGRESS 이용권을 만료시키고 expired_at을 채운다.
+ * UPDATE 문은 읽었을 때의 상태(fromStatus)를 다시 확인하기 때문에, 그 사이 다른 job이 바꾼 이용권은 바꾸지 않는다.
+ */
+@Slf4j
+@Component
+public class PassTransitionWriter implements ItemWriter<PassTransition> {
+    private static final String START_SQL = "UPDATE pass SET status = ?, modified_at = ? WHERE pass_seq = ? AND status = ?";
+    private static final String EXPIRE_SQL = "UPDATE pass SET status = ?, expired_at = ?, modified_at = ? WHERE pass_seq = ? AND status = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PassTransitionWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends PassTransition> chunk) {
+        List<PassTransition> starts = new ArrayList<>();
+        List<PassTransition> expires = new ArrayList<>();
+        for (PassTransition passTransition : chunk) {
+            (passTransition.toStatus() == PassStatus.EXPIRED ? expires : starts).add(passTransition);
+        }
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int count = 0;
+        if (!starts.isEmpty()) {
+            count += BatchUpdateCounts.count(jdbcTemplate.batchUpdate(START_SQL, starts, starts.size(), (ps, passTransition) -> {
+                ps.setString(1, PassStatus.IN_PROGRESS.name());
+                ps.setTimestamp(2, now);
+                ps.setInt(3, passTransition.passSeq());
+                ps.setString(4, passTransition.fromStatus().name());
+            }));
+        }
+        if (!expires.isEmpty()) {
+            count += BatchUpdateCounts.count(jdbcTemplate.batchUpdate(EXPIRE_SQL, expires, expires.size(), (ps, passTransition) -> {
+                ps.setString(1, PassStatus.EXPIRED.name());
+                ps.setTimestamp(2, now);
+                ps.setTimestamp(3, now);
+                ps.setInt(4, passTransition.passSeq());
+                ps.setString(5, passTransition.fromStatus().name());
+            }));
+        }
+        if (count < chunk.size()) {
+            log.info("PassTransitionWriter - write: {}건 중 {}건은 이미 상태가 바뀐 이용권", chunk.size(), chunk.size() - count);
+        }
+    }
+
+}
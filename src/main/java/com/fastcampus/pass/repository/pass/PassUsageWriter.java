@@ -0,0 +1,82 @@
+package com.fastcampus.pass.repository.pass;
+
+import com.fastcampus.pass.repository.BatchUpdateCounts;
+import com.fastcampus.pass.repository.booking.BookingUsage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * 완료된 예약만큼 이용권의 잔여 횟수를 차감한다.
+ * 1. 예약을 used_pass = FALSE 조건으로 used_pass = TRUE로 바꾼다. (JDBC 배치)
+ *    다른 partition이나 다른 job 실행이 먼저 바꾼 예약은 update count가 0이므로 차감 대상에서 빠진다.
+ * 2. 선점한 예약을 pass_seq별로 묶어서, 이용권마다 UPDATE 문 하나로 remaining_count를 차감한다. (JDBC 배치)
+ *    remaining_count = remaining_count - ? 로 DB에서 차감하기 때문에, 같은 이용권을 여러 partition이 동시에 차감해도 값을 잃지 않는다.
+ *    이용권 row lock은 pass_seq 순서로 잡아서 partition 간 deadlock을 피한다.
+ * 두 UPDATE는 chunk 트랜잭션 안에서 실행되기 때문에 함께 commit 되거나 함께 rollback 된다.
+ * remaining_count가 NULL(무제한)인 이용권은 차감하지 않는다.
+ */
+@Slf4j
+@Component
+public class PassUsageWriter implements ItemWriter<BookingUsage> {
+    private static final String USE_BOOKING_SQL = "UPDATE booking SET used_pass = TRUE, modified_at = ? WHERE booking_seq = ? AND used_pass = FALSE";
+    private static final String DEDUCT_PASS_SQL = "UPDATE pass SET remaining_count = remaining_count - ?, modified_at = ? WHERE pass_seq = ? AND remaining_count IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PassUsageWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends BookingUsage> chunk) {
+        useAll(chunk.getItems());
+    }
+
+    // 차감한 예약 수를 반환한다.
+    public int useAll(List<? extends BookingUsage> bookingUsages) {
+        if (bookingUsages.isEmpty()) {
+            return 0;
+        }
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        final int[][] updateCounts = jdbcTemplate.batchUpdate(USE_BOOKING_SQL, bookingUsages, bookingUsages.size(), (ps, bookingUsage) -> {
+            ps.setTimestamp(1, now);
+            ps.setInt(2, bookingUsage.bookingSeq());
+        });
+
+        // 선점한 예약만 pass_seq별로 센다. 선점 여부를 알 수 없으면 BatchUpdateCounts가 예외를 던져서 차감하지 않는다.
+        final boolean[] used = BatchUpdateCounts.updated(updateCounts);
+        Map<Integer, Integer> countByPassSeq = new TreeMap<>();
+        for (int i = 0; i < used.length; ++i) {
+            if (used[i]) {
+                countByPassSeq.merge(bookingUsages.get(i).passSeq(), 1, Integer::sum);
+            }
+        }
+        final int usedCount = countByPassSeq.values().stream().mapToInt(Integer::intValue).sum();
+        if (usedCount < bookingUsages.size()) {
+            log.info("PassUsageWriter - useAll: {}건 중 {}건은 이미 차감된 예약", bookingUsages.size(), bookingUsages.size() - usedCount);
+        }
+        if (countByPassSeq.isEmpty()) {
+            return 0;
+        }
+
+        final List<Map.Entry<Integer, Integer>> deductions = new ArrayList<>(countByPassSeq.entrySet());
+        jdbcTemplate.batchUpdate(DEDUCT_PASS_SQL, deductions, deductions.size(), (ps, deduction) -> {
+            ps.setInt(1, deduction.getValue());
+            ps.setTimestamp(2, now);
+            ps.setInt(3, deduction.getKey());
+        });
+        return usedCount;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.fastcampus.pass.repository.statistics;
 
 import com.fastcampus.pass.repository.booking.BookingEntity;
 import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingSummary;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 @Setter
 @ToString
 @Entity
-@Table(name = "statistics")
+@Table(name = "statistics", uniqueConstraints = @UniqueConstraint(name = "uk_statistics_at", columnNames = "statistics_at"))
 public class StatisticsEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // 기본 키 생성을 DB에 위임합니다. (AUTO_INCREMENT)
@@ -40,6 +41,14 @@ public class StatisticsEntity {
 
     }
 
+    public static StatisticsEntity create(final BookingSummary bookingSummary) {
+        StatisticsEntity statisticsEntity = new StatisticsEntity();
+        statisticsEntity.setStatisticsAt(bookingSummary.getStatisticsAt());
+        statisticsEntity.add(bookingSummary);
+        return statisticsEntity;
+
+    }
+
     public void add(final BookingEntity bookingEntity) {
         this.allCount++;
 
@@ -54,4 +63,18 @@ public class StatisticsEntity {
 
     }
 
+    public void add(final BookingSummary bookingSummary) {
+        this.allCount++;
+
+        if (bookingSummary.attended()) {
+            this.attendedCount++;
+
+        }
+        if (BookingStatus.CANCELLED.equals(bookingSummary.status())) {
+            this.cancelledCount++;
+
+        }
+
+    }
+
 }
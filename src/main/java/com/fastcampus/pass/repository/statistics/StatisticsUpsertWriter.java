@@ -0,0 +1,56 @@
+package com.fastcampus.pass.repository.statistics;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * 일별 통계를 statistics_at(unique key) 기준으로 upsert 한다.
+ * 같은 날의 통계가 이미 있으면 새 row를 만들지 않고, 넘겨받은 건수로 덮어쓴다.
+ * 따라서 넘겨주는 StatisticsEntity는 그 날에 종료된 예약 전체로 다시 계산한 건수여야 한다. 같은 날을 여러 번 써도 건수가 중복되지 않는다.
+ */
+@Component
+public class StatisticsUpsertWriter implements ItemWriter<StatisticsEntity> {
+    private static final String UPSERT_SQL = "INSERT INTO statistics (statistics_at, all_count, attended_count, cancelled_count) VALUES (?, ?, ?, ?)" +
+            " ON DUPLICATE KEY UPDATE all_count = VALUES(all_count)," +
+            "                         attended_count = VALUES(attended_count)," +
+            "                         cancelled_count = VALUES(cancelled_count)";
+    private static final String DELETE_SQL = "DELETE FROM statistics WHERE statistics_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatisticsUpsertWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends StatisticsEntity> chunk) {
+        upsertAll(chunk.getItems());
+    }
+
+    public void upsertAll(List<? extends StatisticsEntity> statisticsEntities) {
+        if (statisticsEntities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, statisticsEntities, statisticsEntities.size(), (ps, statisticsEntity) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(statisticsEntity.getStatisticsAt()));
+            ps.setInt(2, statisticsEntity.getAllCount());
+            ps.setInt(3, statisticsEntity.getAttendedCount());
+            ps.setInt(4, statisticsEntity.getCancelledCount());
+        });
+    }
+
+    // 다시 계산했더니 종료된 예약이 없는 날은 통계를 지운다.
+    public void deleteAll(List<LocalDateTime> statisticsAts) {
+        if (statisticsAts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, statisticsAts, statisticsAts.size(), (ps, statisticsAt) -> ps.setTimestamp(1, Timestamp.valueOf(statisticsAt)));
+    }
+
+}
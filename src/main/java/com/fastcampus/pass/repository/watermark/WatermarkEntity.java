@@ -0,0 +1,23 @@
+package com.fastcampus.pass.repository.watermark;
+
+import com.fastcampus.pass.repository.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "watermark")
+public class WatermarkEntity extends BaseEntity {
+    @Id
+    private String watermarkName;
+    private LocalDateTime watermarkAt;
+
+}
@@ -0,0 +1,38 @@
+package com.fastcampus.pass.repository.watermark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * 배치가 마지막으로 처리한 위치(watermark)를 저장한다.
+ * step의 chunk 트랜잭션(DataSourceTransactionManager)에 함께 묶이도록 JdbcTemplate으로 접근한다.
+ */
+@Repository
+public class WatermarkRepository {
+    private static final String SELECT_SQL = "SELECT watermark_at FROM watermark WHERE watermark_name = ?";
+    private static final String UPDATE_SQL = "UPDATE watermark SET watermark_at = ?, modified_at = ? WHERE watermark_name = ?";
+    private static final String INSERT_SQL = "INSERT INTO watermark (watermark_name, watermark_at, created_at, modified_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WatermarkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<LocalDateTime> findWatermarkAt(String watermarkName) {
+        final List<Timestamp> watermarks = jdbcTemplate.queryForList(SELECT_SQL, Timestamp.class, watermarkName);
+        return watermarks.stream().findFirst().map(Timestamp::toLocalDateTime);
+    }
+
+    public void saveWatermarkAt(String watermarkName, LocalDateTime watermarkAt) {
+        final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(UPDATE_SQL, Timestamp.valueOf(watermarkAt), now, watermarkName) == 0) {
+            jdbcTemplate.update(INSERT_SQL, watermarkName, Timestamp.valueOf(watermarkAt), now, now);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.fastcampus.pass.util;
+
+import com.fastcampus.pass.metrics.BatchEvents;
+import com.fastcampus.pass.metrics.BatchMetricsListener;
+import com.opencsv.CSVWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * CSV 리포트를 row 단위로 파일에 쓴다. 리포트 전체를 메모리에 올리지 않는다.
+ * - UTF-8로 인코딩하고, FileChannel 앞에 큰 버퍼를 두어 write system call 횟수를 줄인다. gzip 옵션을 켜면 압축해서 쓴다.
+ * - 같은 디렉토리의 임시 파일(*.tmp)에 쓰고, publish 할 때 최종 파일 이름으로 atomic rename 한다.
+ *   실패하면 임시 파일을 지우기 때문에, 최종 파일은 항상 완성된 리포트만 남는다.
+ * - 쓴 row 수와 파일 크기(byte)는 update 할 때 ExecutionContext에 저장된다. 재시작하면 리포트를 처음부터 다시 쓴다.
+ * - publish 할 때 row 수와 파일 크기를 batch.report.rows, batch.report.bytes counter에 더한다.
+ *   BatchMetricsListener와 같은 job.name, step.name tag를 사용하고, step 밖에서 쓰면 두 tag는 none이 된다.
+ * - I/O 오류는 ItemStreamException으로 던져서 step을 실패시킨다.
+ * - JFR recording 중이면 chunk 또는 writeAll 한 번마다 BatchEvents.CsvWrite 이벤트를 남긴다.
+ *
+ * chunk step의 writer로 사용할 때는 listener로도 등록하면, step이 COMPLETED로 끝난 경우에만 publish 한다.
+ * tasklet에서 사용할 때는 writeAll로 row stream을 넘기면 open부터 publish까지 한 번에 처리한다.
+ */
+@Slf4j
+public class CsvReportWriter implements ItemStreamWriter<String[]>, StepExecutionListener {
+    public static final String ROWS = "CsvReportWriter.rows";
+    public static final String BYTES = "CsvReportWriter.bytes";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path target;
+    private final Path temp;
+    private final boolean gzip;
+    private final String[] header;
+    private final MeterRegistry meterRegistry;
+
+    private FileChannel channel;
+    private CSVWriter csvWriter;
+    private long rows;
+    private long bytes;
+
+    public CsvReportWriter(Path target, boolean gzip, MeterRegistry meterRegistry, String... header) {
+        this.target = gzip ? target.resolveSibling(target.getFileName() + ".gz") : target;
+        this.temp = this.target.resolveSibling(this.target.getFileName() + ".tmp");
+        this.gzip = gzip;
+        this.meterRegistry = meterRegistry;
+        this.header = header;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        try {
+            channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            OutputStream outputStream = Channels.newOutputStream(channel);
+            if (gzip) {
+                outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            }
+            csvWriter = new CSVWriter(new OutputStreamWriter(new BufferedOutputStream(outputStream, BUFFER_SIZE), StandardCharsets.UTF_8));
+            rows = 0;
+            bytes = 0;
+
+        } catch (IOException e) {
+            throw new ItemStreamException("CSV 리포트 파일을 열 수 없습니다. file: " + temp, e);
+
+        }
+        if (header.length > 0) {
+            writeNext(header);
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends String[]> chunk) {
+        final BatchEvents.CsvWrite event = new BatchEvents.CsvWrite();
+        event.begin();
+        for (String[] row : chunk) {
+            writeRow(row);
+        }
+        commitEvent(event, chunk.size());
+    }
+
+    public void writeRow(String... row) {
+        writeNext(row);
+        rows++;
+    }
+
+    private void writeNext(String[] row) {
+        csvWriter.writeNext(row);
+        // CSVWriter는 IOException을 던지지 않고 내부에 보관하기 때문에, 매번 확인해서 바로 실패시킨다.
+        // checkError()는 호출할 때마다 flush 하기 때문에 사용하지 않는다.
+        if (csvWriter.getException() != null) {
+            throw new ItemStreamException("CSV 리포트를 쓰는 중 오류가 발생했습니다. file: " + temp, csvWriter.getException());
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        try {
+            csvWriter.flush();
+            bytes = channel.position();
+
+        } catch (IOException e) {
+            throw new ItemStreamException("CSV 리포트를 쓰는 중 오류가 발생했습니다. file: " + temp, e);
+
+        }
+        executionContext.putLong(ROWS, rows);
+        executionContext.putLong(BYTES, bytes);
+    }
+
+    @Override
+    public void close() {
+        if (csvWriter == null) {
+            return;
+        }
+        try {
+            // gzip trailer까지 쓰기 위해 writer를 먼저 닫고, 남은 크기를 확인한다.
+            csvWriter.close();
+            bytes = Files.size(temp);
+
+        } catch (IOException e) {
+            throw new ItemStreamException("CSV 리포트 파일을 닫을 수 없습니다. file: " + temp, e);
+
+        } finally {
+            csvWriter = null;
+            channel = null;
+
+        }
+    }
+
+    /**
+     * tasklet에서 리포트 전체를 쓸 때 사용한다. row는 stream에서 하나씩 꺼내서 바로 쓰기 때문에 리포트 크기와 상관없이 메모리 사용량이 일정하다.
+     * 성공하면 publish 하고 쓴 row 수(header 제외)를 반환한다. 실패하면 임시 파일을 지우고 예외를 그대로 던진다.
+     */
+    public long writeAll(ExecutionContext executionContext, Stream<String[]> rowStream) {
+        final BatchEvents.CsvWrite event = new BatchEvents.CsvWrite();
+        event.begin();
+        open(executionContext);
+        try (rowStream) {
+            rowStream.forEach(this::writeRow);
+            update(executionContext);
+            close();
+            commitEvent(event, rows);
+
+        } catch (RuntimeException e) {
+            closeQuietly();
+            discard();
+            throw e;
+
+        }
+        publish();
+        return rows;
+    }
+
+    private void commitEvent(BatchEvents.CsvWrite event, long rowCount) {
+        if (event.shouldCommit()) {
+            event.setCurrentStep();
+            event.file = target.toString();
+            event.itemCount = rowCount;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+
+        } catch (ItemStreamException e) {
+            log.warn("CsvReportWriter - closeQuietly: 파일 닫기 실패, file: {}", temp, e);
+
+        }
+    }
+
+    // 임시 파일을 최종 파일 이름으로 바꾼다. 같은 디렉토리 안의 rename이기 때문에 읽는 쪽은 완성된 파일만 보게 된다.
+    public void publish() {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("CsvReportWriter - publish: {}, rows: {}, bytes: {}", target, rows, bytes);
+
+        } catch (IOException e) {
+            throw new ItemStreamException("CSV 리포트 파일을 저장할 수 없습니다. file: " + target, e);
+
+        }
+        recordMetrics();
+    }
+
+    private void recordMetrics() {
+        final StepContext stepContext = StepSynchronizationManager.getContext();
+        final Tags tags = stepContext == null ? Tags.of("job.name", "none", "step.name", "none") : BatchMetricsListener.stepTags(stepContext.getStepExecution());
+        Counter.builder("batch.report.rows")
+                .description("리포트 파일에 쓴 row 수 (header 제외)")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment(rows);
+        Counter.builder("batch.report.bytes")
+                .description("리포트 파일 크기")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    // 실패한 리포트의 임시 파일을 지운다.
+    public void discard() {
+        try {
+            Files.deleteIfExists(temp);
+
+        } catch (IOException e) {
+            log.warn("CsvReportWriter - discard: 임시 파일 삭제 실패, file: {}", temp, e);
+
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (ExitStatus.COMPLETED.equals(stepExecution.getExitStatus())) {
+            publish();
+
+        } else {
+            discard();
+
+        }
+        return null;
+    }
+}
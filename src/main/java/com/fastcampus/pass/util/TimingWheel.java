@@ -0,0 +1,122 @@
+package com.fastcampus.pass.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * deadline이 지난 항목을 tick 단위로 꺼내는 계층형 timing wheel.
+ * - level 0의 bucket 하나는 tick 하나, level L의 bucket 하나는 wheelSize^L tick 구간을 담는다.
+ * - 항목은 현재 tick과 같은 상위 구간 안에 있는 가장 낮은 level에 넣는다.
+ *   상위 level의 bucket은 그 구간이 시작되는 tick에 아래 level로 다시 나눠 넣는다. (cascade)
+ * - 가장 높은 level의 구간(wheelSize^levels tick)을 벗어나는 항목은 overflow에 두었다가, 다음 구간이 시작될 때 다시 넣는다.
+ * 추가는 O(1)이고, tick 하나를 진행할 때는 그 tick에 해당하는 bucket만 본다. 남은 항목을 정렬하거나 전체를 훑지 않는다.
+ *
+ * deadline은 tick 단위로 올림한다. 그래서 항목은 deadline보다 일찍 나오지 않고, 늦어도 tick 하나 안에 나온다.
+ * thread-safe 하지 않다.
+ */
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    // spans[L]: level L의 bucket 하나가 담는 tick 수. spans[levels]는 wheel 전체가 담는 tick 수다.
+    private final long[] spans;
+    private final List<List<Entry<T>>> buckets;
+
+    private List<Entry<T>> overflow = new ArrayList<>();
+    private List<T> due = new ArrayList<>();
+    private long currentTick;
+    private int pendingCount;
+
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("tickMillis는 1 이상, wheelSize는 2 이상, levels는 1 이상이어야 합니다.");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.spans = new long[levels + 1];
+        this.spans[0] = 1;
+        for (int level = 1; level <= levels; ++level) {
+            spans[level] = Math.multiplyExact(spans[level - 1], wheelSize);
+        }
+        this.buckets = new ArrayList<>(levels * wheelSize);
+        for (int i = 0; i < levels * wheelSize; ++i) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public void add(long deadlineMillis, T item) {
+        // 올림: deadline이 tick 중간이면 다음 tick에 꺼낸다.
+        place(new Entry<>(-Math.floorDiv(-deadlineMillis, tickMillis), item));
+    }
+
+    // nowMillis까지 tick을 진행하고, deadline이 지난 항목을 deadline 순서(tick 단위)로 반환한다.
+    public List<T> advance(long nowMillis) {
+        final long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < nowTick) {
+            if (pendingCount == 0) {
+                currentTick = nowTick;
+                break;
+            }
+            ++currentTick;
+            if (currentTick % spans[levels] == 0) {
+                final List<Entry<T>> entries = overflow;
+                overflow = new ArrayList<>();
+                entries.forEach(this::replace);
+            }
+            for (int level = levels - 1; level >= 0; --level) {
+                if (currentTick % spans[level] == 0) {
+                    cascade(bucket(level, currentTick));
+                }
+            }
+        }
+
+        final List<T> result = due;
+        due = new ArrayList<>();
+        return result;
+    }
+
+    // 아직 꺼내지 않은 항목 수
+    public int size() {
+        return pendingCount + due.size();
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadlineTick() <= currentTick) {
+            due.add(entry.item());
+            return;
+        }
+        ++pendingCount;
+        for (int level = 0; level < levels; ++level) {
+            if (Math.floorDiv(entry.deadlineTick(), spans[level + 1]) == Math.floorDiv(currentTick, spans[level + 1])) {
+                bucket(level, entry.deadlineTick()).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    // 이미 세어둔 항목을 다시 넣는다.
+    private void replace(Entry<T> entry) {
+        --pendingCount;
+        place(entry);
+    }
+
+    // bucket의 항목은 모두 현재 tick이 시작한 구간 안에 있으므로, 아래 level로 내려가거나 due가 된다.
+    private void cascade(List<Entry<T>> bucket) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        final List<Entry<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        entries.forEach(this::replace);
+    }
+
+    private List<Entry<T>> bucket(int level, long tick) {
+        return buckets.get(level * wheelSize + (int) Math.floorMod(Math.floorDiv(tick, spans[level]), (long) wheelSize));
+    }
+
+    private record Entry<T>(long deadlineTick, T item) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.fastcampus.pass.util;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/*
+ * 초당 ratePerSecond개의 token을 채우고, 최대 capacity개까지 모아두는 token bucket.
+ * token이 없으면 다음 token이 채워질 시각을 예약하고 그만큼 기다린다. 예약이기 때문에 요청 순서대로 token을 받는다.
+ *
+ * 내부적으로는 token 개수 대신 "다음 token을 받을 수 있는 시각"만 저장한다. (GCRA)
+ * 오래 쉬었더라도 capacity개를 넘게 한 번에 보내지 않도록, 그 시각은 현재보다 capacity개 분량 이전으로 당겨지지 않는다.
+ */
+public class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+
+    private long nextTokenAt;
+
+    public TokenBucket(double ratePerSecond, int capacity) {
+        this(ratePerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int capacity, LongSupplier nanoTime) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("ratePerSecond는 0보다 크고, capacity는 1 이상이어야 합니다.");
+        }
+        this.nanosPerToken = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = nanosPerToken * (capacity - 1);
+        this.nanoTime = nanoTime;
+        this.nextTokenAt = nanoTime.getAsLong() - burstNanos;
+    }
+
+    // token 하나를 예약하고, 받을 때까지 기다려야 하는 시간(ns)을 반환한다.
+    public synchronized long reserve() {
+        final long now = nanoTime.getAsLong();
+        nextTokenAt = Math.max(nextTokenAt, now - burstNanos);
+        final long waitNanos = Math.max(0, nextTokenAt - now);
+        nextTokenAt += nanosPerToken;
+        return waitNanos;
+    }
+
+    // 구독할 때 token을 예약하고, token을 받으면 완료되는 Mono. thread를 막지 않고 timer로 기다린다.
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            final long waitNanos = reserve();
+            return waitNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.fastcampus.pass.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BatchTaskExecutorConfigTest {
+
+    @DisplayName("concurrency를 설정하지 않으면 worker마다 connection 2개, JobRepository용 connection 1개를 남기고 platform thread pool을 만든다.")
+    @Test
+    void test_batchTaskExecutor_platform() {
+        // Given
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(10);
+
+        // When
+        final TaskExecutor taskExecutor = new BatchTaskExecutorConfig().batchTaskExecutor(dataSource, false, 0);
+
+        // Then
+        assertThat(taskExecutor).isInstanceOf(ThreadPoolTaskExecutor.class);
+        assertThat(((ThreadPoolTaskExecutor) taskExecutor).getCorePoolSize()).isEqualTo(4);
+        assertThat(((ThreadPoolTaskExecutor) taskExecutor).getMaxPoolSize()).isEqualTo(4);
+    }
+
+    @DisplayName("Java 21 미만에서 virtual thread 모드를 설정하면 실패한다.")
+    @Test
+    void test_batchTaskExecutor_virtualThreadsBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThatThrownBy(() -> new BatchTaskExecutorConfig().batchTaskExecutor(new HikariDataSource(), true, 4))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.fastcampus.pass.config;
+
+import com.fastcampus.pass.job.pass.AddPassesJobConfig;
+import com.fastcampus.pass.job.pass.PassLifecycleTasklet;
+import com.fastcampus.pass.job.pass.TransitionPassesJobConfig;
+import com.fastcampus.pass.job.statistics.MakeStatisticsJobConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobConfigurationExcludeFilterTest {
+    private final MetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory();
+
+    @DisplayName("요청한 job을 정의하지 않은 job 설정만 제외한다.")
+    @Test
+    void test_match() throws IOException {
+        // Given
+        final JobConfigurationExcludeFilter jobConfigurationExcludeFilter = new JobConfigurationExcludeFilter("transitionPassesJob");
+
+        // When, Then
+        assertThat(match(jobConfigurationExcludeFilter, TransitionPassesJobConfig.class)).isFalse();
+        assertThat(match(jobConfigurationExcludeFilter, AddPassesJobConfig.class)).isTrue();
+        assertThat(match(jobConfigurationExcludeFilter, MakeStatisticsJobConfig.class)).isTrue();
+        // job 패키지의 @Configuration이 아닌 class, job 패키지 밖의 설정은 제외하지 않는다.
+        assertThat(match(jobConfigurationExcludeFilter, PassLifecycleTasklet.class)).isFalse();
+        assertThat(match(jobConfigurationExcludeFilter, BatchConfig.class)).isFalse();
+    }
+
+    private boolean match(JobConfigurationExcludeFilter jobConfigurationExcludeFilter, Class<?> type) throws IOException {
+        return jobConfigurationExcludeFilter.match(metadataReaderFactory.getMetadataReader(type.getName()), metadataReaderFactory);
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.fastcampus.pass.job;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveCompletionPolicyTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @DisplayName("chunk가 목표 시간보다 빨리 끝나면 한 번에 두 배까지 늘리고, maxSize를 넘지 않는다.")
+    @Test
+    void test_grow() {
+        // Given
+        final AdaptiveCompletionPolicy completionPolicy = new AdaptiveCompletionPolicy(100, 10, 300, Duration.ofSeconds(10), meterRegistry);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution("expirePassesStep", 1L);
+        completionPolicy.beforeStep(stepExecution);
+
+        // When
+        commit(completionPolicy, stepExecution, 100, 0);
+        final int afterFirstChunk = completionPolicy.getSize();
+        commit(completionPolicy, stepExecution, 200, 0);
+
+        // Then
+        assertThat(afterFirstChunk).isEqualTo(200);
+        assertThat(completionPolicy.getSize()).isEqualTo(300);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveCompletionPolicy.SIZE)).isEqualTo(300);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveCompletionPolicy.SMALLEST)).isEqualTo(100);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveCompletionPolicy.LARGEST)).isEqualTo(300);
+        assertThat(meterRegistry.get("batch.chunk.size").tags("step.name", "expirePassesStep").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("batch.chunk.size").summary().totalAmount()).isEqualTo(300);
+
+        // 바뀐 크기만큼 읽어야 chunk가 끝난다.
+        final RepeatContext repeatContext = completionPolicy.start(null);
+        for (int i = 0; i < 299; ++i) {
+            completionPolicy.update(repeatContext);
+        }
+        assertThat(completionPolicy.isComplete(repeatContext)).isFalse();
+        completionPolicy.update(repeatContext);
+        assertThat(completionPolicy.isComplete(repeatContext)).isTrue();
+    }
+
+    @DisplayName("chunk가 목표 시간보다 오래 걸리거나 rollback 되면 절반까지 줄이고, minSize보다 작게 줄이지 않는다.")
+    @Test
+    void test_shrink() {
+        // Given
+        final AdaptiveCompletionPolicy completionPolicy = new AdaptiveCompletionPolicy(100, 40, 1000, Duration.ofMillis(50), meterRegistry);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution("addStatisticsStep", 1L);
+        completionPolicy.beforeStep(stepExecution);
+
+        // When
+        commit(completionPolicy, stepExecution, 100, 200);
+        final int afterSlowChunk = completionPolicy.getSize();
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        completionPolicy.beforeChunk(chunkContext);
+        completionPolicy.afterChunkError(chunkContext);
+
+        // Then
+        assertThat(afterSlowChunk).isEqualTo(50);
+        assertThat(completionPolicy.getSize()).isEqualTo(40);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveCompletionPolicy.SMALLEST)).isEqualTo(40);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveCompletionPolicy.LARGEST)).isEqualTo(100);
+    }
+
+    @DisplayName("재시작하면 ExecutionContext에 남은 크기부터 시작한다.")
+    @Test
+    void test_beforeStep_restart() {
+        // Given
+        final AdaptiveCompletionPolicy completionPolicy = new AdaptiveCompletionPolicy(100, 10, 500, Duration.ofSeconds(1), meterRegistry);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution("expirePassesStep", 2L);
+        stepExecution.getExecutionContext().putInt(AdaptiveCompletionPolicy.SIZE, 800);
+
+        // When
+        completionPolicy.beforeStep(stepExecution);
+
+        // Then: 설정이 바뀌었을 수 있으므로 [minSize, maxSize] 안으로 맞춘다.
+        assertThat(completionPolicy.getSize()).isEqualTo(500);
+    }
+
+    // items 건을 읽고 sleepMillis 동안 처리한 chunk가 commit 된 것처럼 호출한다.
+    private void commit(AdaptiveCompletionPolicy completionPolicy, StepExecution stepExecution, int items, long sleepMillis) {
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        completionPolicy.beforeChunk(chunkContext);
+        stepExecution.setReadCount(stepExecution.getReadCount() + items);
+        if (sleepMillis > 0) {
+            try {
+                Thread.sleep(sleepMillis);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+            }
+        }
+        completionPolicy.afterChunk(chunkContext);
+    }
+
+}
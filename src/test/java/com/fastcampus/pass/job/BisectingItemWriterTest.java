@@ -0,0 +1,170 @@
+package com.fastcampus.pass.job;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.StatelessSessionItemWriter;
+import com.fastcampus.pass.repository.deadletter.DeadLetterRepository;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassRepository;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class BisectingItemWriterTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PassRepository passRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private StepExecution stepExecution;
+    private DeadLetterSkipListener deadLetterSkipListener;
+
+    @BeforeEach
+    void setUp() {
+        stepExecution = MetaDataInstanceFactory.createStepExecution("expirePassesStep", 1L);
+        StepSynchronizationManager.register(stepExecution);
+        deadLetterSkipListener = new DeadLetterSkipListener(new DeadLetterRepository(jdbcTemplate));
+    }
+
+    @AfterEach
+    void tearDown() {
+        StepSynchronizationManager.close();
+    }
+
+    @DisplayName("쓰기에 실패한 이용권만 골라서 dead_letter 테이블에 남기고, 나머지는 같은 트랜잭션에서 쓴다.")
+    @Test
+    void test_write_bisect() throws Exception {
+        // Given: user_id 컬럼보다 긴 값으로 바꾼 이용권은 JDBC 배치 중간에 실패한다.
+        final List<PassEntity> passEntities = savePassEntities(64);
+        final Set<Integer> poisonIndexes = Set.of(5, 37);
+        for (int index : poisonIndexes) {
+            passEntities.get(index).setUserId("A".repeat(300));
+        }
+        final AtomicInteger attempts = new AtomicInteger();
+        final BisectingItemWriter<PassEntity> bisectingItemWriter = new BisectingItemWriter<>(countingWriter(statelessSessionItemWriter(), attempts),
+                dataSource, deadLetterSkipListener, 10);
+        final Chunk<PassEntity> chunk = new Chunk<>(passEntities);
+
+        // When
+        bisectingItemWriter.write(chunk);
+
+        // Then
+        assertThat(count("SELECT COUNT(*) FROM pass WHERE status = 'EXPIRED'")).isEqualTo(62);
+        for (int index : poisonIndexes) {
+            assertThat(jdbcTemplate.queryForObject("SELECT status FROM pass WHERE pass_seq = ?", String.class, passEntities.get(index).getPassSeq())).isEqualTo("IN_PROGRESS");
+        }
+        assertThat(count("SELECT COUNT(*) FROM dead_letter WHERE step_name = 'expirePassesStep' AND item_type = '" + PassEntity.class.getName() + "'")).isEqualTo(2);
+        // 골라낸 이용권은 chunk에서 빠지고 write skip count에 더해진다.
+        assertThat(chunk.size()).isEqualTo(62);
+        assertThat(chunk.getItems()).doesNotContain(passEntities.get(5), passEntities.get(37));
+        assertThat(stepExecution.getWriteSkipCount()).isEqualTo(2);
+        // 이용권 하나씩 다시 쓰면 64번 써야 하지만, poison item 하나당 약 2 * log2(64)번 안에 골라낸다.
+        assertThat(attempts.get()).isLessThanOrEqualTo(1 + 2 * 2 * 6);
+    }
+
+    @DisplayName("실패한 item이 skipLimit보다 많으면 SkipLimitExceededException을 던진다.")
+    @Test
+    void test_write_skipLimit() {
+        // Given
+        final List<PassEntity> passEntities = savePassEntities(8);
+        passEntities.get(1).setUserId("A".repeat(300));
+        passEntities.get(6).setUserId("A".repeat(300));
+        final BisectingItemWriter<PassEntity> bisectingItemWriter = new BisectingItemWriter<>(statelessSessionItemWriter(), dataSource, deadLetterSkipListener, 1);
+
+        // When, Then
+        assertThatThrownBy(() -> bisectingItemWriter.write(new Chunk<>(passEntities))).isInstanceOf(SkipLimitExceededException.class);
+        assertThat(bisectingItemWriter.getSkipCount()).isEqualTo(2);
+    }
+
+    @DisplayName("일시적인 오류는 chunk를 나누지 않고 그대로 던진다.")
+    @Test
+    void test_write_transient() {
+        // Given
+        final AtomicInteger attempts = new AtomicInteger();
+        final ItemWriter<PassEntity> failingWriter = chunk -> {
+            throw new QueryTimeoutException("timeout");
+        };
+        final BisectingItemWriter<PassEntity> bisectingItemWriter = new BisectingItemWriter<>(countingWriter(failingWriter, attempts), dataSource, deadLetterSkipListener, 10);
+
+        // When, Then
+        assertThatThrownBy(() -> bisectingItemWriter.write(new Chunk<>(savePassEntities(4)))).isInstanceOf(QueryTimeoutException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM dead_letter")).isZero();
+    }
+
+    private StatelessSessionItemWriter<PassEntity> statelessSessionItemWriter() {
+        return new StatelessSessionItemWriter<>(entityManagerFactory.unwrap(SessionFactory.class), dataSource, StatelessSessionItemWriter.Operation.UPDATE);
+    }
+
+    private ItemWriter<PassEntity> countingWriter(ItemWriter<PassEntity> delegate, AtomicInteger attempts) {
+        return chunk -> {
+            attempts.incrementAndGet();
+            delegate.write(chunk);
+        };
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    // 만료 대상 이용권을 저장하고, expirePassesItemProcessor처럼 만료 상태로 바꿔서 반환한다.
+    private List<PassEntity> savePassEntities(int count) {
+        final LocalDateTime now = LocalDateTime.now();
+        List<PassEntity> passEntities = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            PassEntity passEntity = new PassEntity();
+            passEntity.setPackageSeq(1);
+            passEntity.setUserId("A1000000");
+            passEntity.setStatus(PassStatus.IN_PROGRESS);
+            passEntity.setRemainingCount(10);
+            passEntity.setStartedAt(now.minusDays(10));
+            passEntity.setEndedAt(now.minusDays(1));
+            passEntities.add(passEntity);
+        }
+        passRepository.saveAllAndFlush(passEntities);
+        // StatelessSession으로 쓰는 것처럼 영속성 컨텍스트 밖에서 바꾼다.
+        testEntityManager.clear();
+        for (PassEntity passEntity : passEntities) {
+            passEntity.setStatus(PassStatus.EXPIRED);
+            passEntity.setExpiredAt(now);
+        }
+        return passEntities;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.fastcampus.pass.job;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnRangePartitionerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("최솟값 ~ 최댓값 구간을 gridSize 개의 범위로 나눈다.")
+    @Test
+    void test_partition() {
+        // Given
+        when(jdbcTemplate.queryForMap(anyString(), any(Object[].class))).thenReturn(range(1, 10));
+        ColumnRangePartitioner partitioner = new ColumnRangePartitioner(jdbcTemplate, "pass", "pass_seq", "status = ?", new Object[]{"IN_PROGRESS"}, Map.of("now", "2022-09-01T00:00"));
+
+        // When
+        final Map<String, ExecutionContext> partitions = partitioner.partition(3);
+
+        // Then
+        // 1 ~ 4, 5 ~ 8, 9 ~ 10
+        assertThat(partitions).hasSize(3);
+        assertThat(partitions.get("partition0").getLong(ColumnRangePartitioner.MIN_VALUE)).isEqualTo(1);
+        assertThat(partitions.get("partition0").getLong(ColumnRangePartitioner.MAX_VALUE)).isEqualTo(4);
+        assertThat(partitions.get("partition2").getLong(ColumnRangePartitioner.MIN_VALUE)).isEqualTo(9);
+        assertThat(partitions.get("partition2").getLong(ColumnRangePartitioner.MAX_VALUE)).isEqualTo(10);
+        assertThat(partitions.values()).allSatisfy(executionContext -> assertThat(executionContext.getString("now")).isEqualTo("2022-09-01T00:00"));
+    }
+
+    @DisplayName("범위가 gridSize보다 작으면 partition 수도 줄어든다.")
+    @Test
+    void test_partition_small() {
+        // Given
+        when(jdbcTemplate.queryForMap(anyString(), any(Object[].class))).thenReturn(range(7, 8));
+        ColumnRangePartitioner partitioner = new ColumnRangePartitioner(jdbcTemplate, "pass", "pass_seq", "status = ?", new Object[]{"IN_PROGRESS"}, Map.of());
+
+        // When
+        final Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+        // Then
+        assertThat(partitions).hasSize(2);
+    }
+
+    @DisplayName("대상 row가 없으면 partition도 없다.")
+    @Test
+    void test_partition_empty() {
+        // Given
+        when(jdbcTemplate.queryForMap(anyString(), any(Object[].class))).thenReturn(range(null, null));
+        ColumnRangePartitioner partitioner = new ColumnRangePartitioner(jdbcTemplate, "pass", "pass_seq", "status = ?", new Object[]{"IN_PROGRESS"}, Map.of());
+
+        // When
+        final Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+        // Then
+        assertThat(partitions).isEmpty();
+    }
+
+    private Map<String, Object> range(Integer min, Integer max) {
+        Map<String, Object> range = new HashMap<>();
+        range.put("min_value", min);
+        range.put("max_value", max);
+        return range;
+    }
+
+}
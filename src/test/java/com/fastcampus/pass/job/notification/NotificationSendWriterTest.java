@@ -0,0 +1,133 @@
+package com.fastcampus.pass.job.notification;
+
+import com.fastcampus.pass.adapter.message.KakaoTalkMessageAdapter;
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.notification.NotificationEntity;
+import com.fastcampus.pass.repository.notification.NotificationEvent;
+import com.fastcampus.pass.repository.notification.NotificationMessage;
+import com.fastcampus.pass.repository.notification.NotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class NotificationSendWriterTest {
+    private static final int CONCURRENCY = 4;
+    private static final Pattern UUID_PATTERN = Pattern.compile("\"([^\"]+)\"");
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private HttpServer stubServer;
+    private ExecutorService stubExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    // 카카오톡 메시지 API 대신 응답하는 stub 서버. uuid가 fail로 시작하면 500으로 응답한다.
+    @BeforeEach
+    void setUp() throws IOException {
+        stubExecutor = Executors.newFixedThreadPool(16);
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/v1/api/talk/friends/message/default/send", this::handle);
+        stubServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @DisplayName("동시에 concurrency 건까지만 보내고, 발송에 성공한 알람만 sent로 바꾼다.")
+    @Test
+    void test_write() {
+        // Given
+        List<NotificationMessage> notificationMessages = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            final NotificationEntity notificationEntity = notificationRepository.save(notificationEntity(i % 10 == 9 ? "fail" + i : "uuid" + i));
+            notificationMessages.add(new NotificationMessage(notificationEntity.getNotificationSeq(), notificationEntity.getUuid(), notificationEntity.getText()));
+        }
+        final KakaoTalkMessageAdapter kakaoTalkMessageAdapter = new KakaoTalkMessageAdapter(new ObjectMapper(),
+                "http://127.0.0.1:" + stubServer.getAddress().getPort(), "token", CONCURRENCY, 3000);
+        final NotificationSendWriter notificationSendWriter = new NotificationSendWriter(kakaoTalkMessageAdapter, jdbcTemplate, CONCURRENCY, 1000);
+
+        // When
+        notificationSendWriter.write(new Chunk<>(notificationMessages));
+
+        // Then
+        assertThat(requestCount.get()).isEqualTo(20);
+        assertThat(maxInFlight.get()).isBetween(2, CONCURRENCY);
+
+        final Map<String, Boolean> sentByUuid = jdbcTemplate.queryForList("SELECT uuid, sent FROM notification").stream()
+                .collect(Collectors.toMap(row -> (String) row.get("uuid"), row -> (Boolean) row.get("sent")));
+        assertThat(sentByUuid).hasSize(20);
+        assertThat(sentByUuid).containsEntry("uuid0", true).containsEntry("fail9", false).containsEntry("fail19", false);
+        assertThat(sentByUuid.values().stream().filter(Boolean::booleanValue).count()).isEqualTo(18);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification WHERE sent = TRUE AND sent_at IS NOT NULL", Integer.class)).isEqualTo(18);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            final String body = URLDecoder.decode(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            final Matcher matcher = UUID_PATTERN.matcher(body.substring(body.indexOf("receiver_uuids=")));
+            final String uuid = matcher.find() ? matcher.group(1) : "";
+            Thread.sleep(50);
+
+            final byte[] response = (uuid.startsWith("fail") ? "{\"msg\":\"internal error\",\"code\":-1}" : "{\"successful_receiver_uuids\":[\"" + uuid + "\"]}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(uuid.startsWith("fail") ? 500 : 200, response.length);
+            exchange.getResponseBody().write(response);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+
+        }
+    }
+
+    private NotificationEntity notificationEntity(String uuid) {
+        NotificationEntity notificationEntity = new NotificationEntity();
+        notificationEntity.setUuid(uuid);
+        notificationEntity.setEvent(NotificationEvent.BEFORE_CLASS);
+        notificationEntity.setText("내일 10시 수업이 있습니다.");
+        return notificationEntity;
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.config.BatchConfig;
+import com.fastcampus.pass.config.BatchTaskExecutorConfig;
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import com.fastcampus.pass.repository.pass.PassBatchInsertWriter;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * chunk 모드(기본값)의 addPassesJob을 내장 DB에서 실행한다.
+ * user group partition → bulk_pass/user_group_mapping join reader → PassBatchInsertWriter → CompleteBulkPassesTasklet 순서로 수행된다.
+ * @EnableBatchProcessing을 사용하면 Spring Boot가 배치 메타 테이블을 만들지 않기 때문에, 테스트마다 Spring Batch의 H2 스크립트로 다시 만든다.
+ */
+@SpringBatchTest
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@TestPropertySource(properties = "batch.jfr.directory=${java.io.tmpdir}")
+@Sql({"classpath:org/springframework/batch/core/schema-drop-h2.sql", "classpath:org/springframework/batch/core/schema-h2.sql"})
+@ContextConfiguration(classes = {AddPassesJobConfig.class, AddPassesTasklet.class, CompleteBulkPassesTasklet.class, UserGroupMembershipCache.class,
+        PassBatchInsertWriter.class, BatchConfig.class, BatchTaskExecutorConfig.class, FlightRecorderListener.class, TestBatchConfig.class})
+class AddPassesJobConfigTest {
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${batch.jfr.directory}")
+    private Path jfrDirectory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM pass");
+        jdbcTemplate.update("DELETE FROM bulk_pass");
+        jdbcTemplate.update("DELETE FROM user_group_mapping");
+    }
+
+    @DisplayName("user group의 사용자마다 이용권을 추가하고, 지급한 대량 이용권을 COMPLETED로 변경한다.")
+    @Test
+    void test_addPassesJob_chunk() throws Exception {
+        // Given
+        final LocalDateTime now = LocalDateTime.now();
+        addUserGroupMappings("GROUP1", "A1000000", "A1000001", "A1000002");
+        addUserGroupMappings("GROUP2", "B1000000");
+        final int group1BulkPassSeq = addBulkPass("GROUP1", 10, now.plusDays(1));
+        final int group2BulkPassSeq = addBulkPass("GROUP2", 5, now.plusDays(1));
+        // 지급 기준(시작 일시 1일 전)보다 이전에 시작한 대량 이용권은 지급하지 않는다.
+        final int startedBulkPassSeq = addBulkPass("GROUP2", 5, now.minusDays(2));
+
+        // When
+        final JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters(1));
+
+        // Then
+        assertThat(jobExecution.getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+        final List<Map<String, Object>> passes = jdbcTemplate.queryForList("SELECT user_id, package_seq, status, remaining_count FROM pass ORDER BY user_id");
+        assertThat(passes).extracting(pass -> pass.get("user_id")).containsExactly("A1000000", "A1000001", "A1000002", "B1000000");
+        assertThat(passes).extracting(pass -> pass.get("remaining_count")).containsExactly(10, 10, 10, 5);
+        assertThat(passes).allSatisfy(pass -> assertThat(pass.get("status")).isEqualTo("READY"));
+
+        assertThat(bulkPassStatus(group1BulkPassSeq)).isEqualTo("COMPLETED");
+        assertThat(bulkPassStatus(group2BulkPassSeq)).isEqualTo("COMPLETED");
+        assertThat(bulkPassStatus(startedBulkPassSeq)).isEqualTo("READY");
+    }
+
+    @DisplayName("다시 실행해도 이미 지급한 대량 이용권의 이용권을 중복으로 추가하지 않는다.")
+    @Test
+    void test_addPassesJob_rerun() throws Exception {
+        // Given
+        final LocalDateTime now = LocalDateTime.now();
+        addUserGroupMappings("GROUP1", "A1000000", "A1000001");
+        addBulkPass("GROUP1", 10, now.plusDays(1));
+        assertThat(jobLauncherTestUtils.launchJob(jobParameters(1)).getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+
+        // When
+        final JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters(2));
+
+        // Then
+        assertThat(jobExecution.getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bulk_pass WHERE status = 'COMPLETED'", Integer.class)).isEqualTo(1);
+    }
+
+    @DisplayName("jfr=true로 실행하면 step builder에 등록한 listener로 chunk step의 read, process, write 구간을 기록한다.")
+    @Test
+    void test_addPassesJob_jfr() throws Exception {
+        // Given
+        addUserGroupMappings("GROUP1", "A1000000", "A1000001");
+        addBulkPass("GROUP1", 10, LocalDateTime.now().plusDays(1));
+        final JobParameters jobParameters = new JobParametersBuilder(jobParameters(1))
+                .addString(FlightRecorderListener.JFR_PARAMETER, "true")
+                .toJobParameters();
+
+        // When
+        final JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters);
+
+        // Then
+        assertThat(jobExecution.getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+        final Path recordingFile = jfrDirectory.resolve("addPassesJob-" + jobExecution.getId() + ".jfr");
+        assertThat(RecordingFile.readAllEvents(recordingFile))
+                .filteredOn(event -> event.hasField("stepName") && "addPassesWorkerStep".equals(event.getString("stepName")))
+                .extracting(event -> event.getEventType().getName())
+                .contains("com.fastcampus.pass.ChunkRead", "com.fastcampus.pass.ChunkProcess", "com.fastcampus.pass.ChunkWrite");
+    }
+
+    private JobParameters jobParameters(long runId) {
+        return new JobParametersBuilder()
+                .addString("mode", "CHUNK")
+                .addLong("run.id", runId)
+                .toJobParameters();
+    }
+
+    private void addUserGroupMappings(String userGroupId, String... userIds) {
+        for (String userId : userIds) {
+            jdbcTemplate.update("INSERT INTO user_group_mapping (user_group_id, user_id, user_group_name, description, created_at) VALUES (?, ?, ?, '테스트 그룹', ?)",
+                    userGroupId, userId, userGroupId, LocalDateTime.now());
+        }
+    }
+
+    private String bulkPassStatus(int bulkPassSeq) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bulk_pass WHERE bulk_pass_seq = ?", String.class, bulkPassSeq);
+    }
+
+    // job이 다른 트랜잭션에서 읽을 수 있도록 바로 commit 되는 JDBC로 저장한다.
+    private int addBulkPass(String userGroupId, Integer count, LocalDateTime startedAt) {
+        jdbcTemplate.update("INSERT INTO bulk_pass (package_seq, user_group_id, status, count, started_at, ended_at, created_at) VALUES (1, ?, ?, ?, ?, ?, ?)",
+                userGroupId, BulkPassStatus.READY.name(), count, startedAt, startedAt.plusDays(30), LocalDateTime.now());
+        return jdbcTemplate.queryForObject("SELECT MAX(bulk_pass_seq) FROM bulk_pass", Integer.class);
+    }
+
+}
@@ -1,8 +1,6 @@
 package com.fastcampus.pass.job.pass;
 
 import com.fastcampus.pass.repository.pass.*;
-import com.fastcampus.pass.repository.user.UserGroupMappingEntity;
-import com.fastcampus.pass.repository.user.UserGroupMappingRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +15,7 @@ import org.springframework.batch.repeat.RepeatStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,13 +33,13 @@ class AddPassesTaskletTest {
     private ChunkContext chunkContext;
 
     @Mock
-    private PassRepository passRepository;
+    private PassBatchInsertWriter passBatchInsertWriter;
 
     @Mock
     private BulkPassRepository bulkPassRepository;
 
     @Mock
-    private UserGroupMappingRepository userGroupMappingRepository;
+    private UserGroupMembershipCache userGroupMembershipCache;
 
     // @InjectMocks 클래스의 인스턴스를 생성하고 @Mock으로 생성된 객체를 주입한다.
     @InjectMocks
@@ -65,13 +64,9 @@ class AddPassesTaskletTest {
         bulkPassEntity.setStartedAt(now);
         bulkPassEntity.setEndedAt(now.plusDays(60));
 
-        final UserGroupMappingEntity userGroupMappingEntity = new UserGroupMappingEntity();
-        userGroupMappingEntity.setUserGroupId(userGroupId);
-        userGroupMappingEntity.setUserId(userId);
-
         // When
         when(bulkPassRepository.findByStatusAndStartedAtGreaterThan(eq(BulkPassStatus.READY), any())).thenReturn(List.of(bulkPassEntity));
-        when(userGroupMappingRepository.findByUserGroupId(eq("GROUP"))).thenReturn(List.of(userGroupMappingEntity));
+        when(userGroupMembershipCache.getAll(eq(List.of("GROUP")))).thenReturn(Map.of(userGroupId, new String[]{userId}));
 
         RepeatStatus repeatStatus = addPassesTasklet.execute(stepContribution, chunkContext);
 
@@ -80,9 +75,9 @@ class AddPassesTaskletTest {
         assertThat(repeatStatus).isEqualTo(RepeatStatus.FINISHED);
 
         // 추가된 PassEntity 값을 확인한다.
-        // passRepository.saveAll(...)을 수행한 부분을 캡쳐
+        // passBatchInsertWriter.insertAll(...)을 수행한 부분을 캡쳐
         ArgumentCaptor<List> passEntitiesCaptor = ArgumentCaptor.forClass(List.class);
-        verify(passRepository, times(1)).saveAll(passEntitiesCaptor.capture());
+        verify(passBatchInsertWriter, times(1)).insertAll(passEntitiesCaptor.capture());
         final List<PassEntity> passEntities = passEntitiesCaptor.getValue();
 
         assertThat(passEntities.size()).isEqualTo(1);
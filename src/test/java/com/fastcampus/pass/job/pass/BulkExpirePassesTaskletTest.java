@@ -0,0 +1,101 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassRepository;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class BulkExpirePassesTaskletTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PassRepository passRepository;
+
+    @DisplayName("pass_seq 범위 단위로 만료 대상 이용권만 만료시킨다.")
+    @Test
+    void test_execute() {
+        // Given
+        final LocalDateTime now = LocalDateTime.now();
+        List<PassEntity> passEntities = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            // 짝수 번째는 만료 대상, 홀수 번째는 아직 종료되지 않은 이용권
+            passEntities.add(passEntity(i, i % 2 == 0 ? now.minusDays(1) : now.plusDays(1)));
+        }
+        passRepository.saveAllAndFlush(passEntities);
+
+        final BulkExpirePassesTasklet bulkExpirePassesTasklet = new BulkExpirePassesTasklet(jdbcTemplate, 3);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        // When
+        int executeCount = 0;
+        int writeCount = 0;
+        RepeatStatus repeatStatus;
+        do {
+            StepContribution contribution = stepExecution.createStepContribution();
+            repeatStatus = bulkExpirePassesTasklet.execute(contribution, chunkContext);
+            writeCount += (int) contribution.getWriteCount();
+            executeCount++;
+        } while (repeatStatus.isContinuable());
+
+        // Then
+        // 만료 대상 pass_seq 범위(첫 번째 ~ 아홉 번째)를 3씩 나눠서 처리한다.
+        assertThat(executeCount).isEqualTo(3);
+        assertThat(writeCount).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE status = 'EXPIRED' AND expired_at IS NOT NULL", Integer.class)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE status = 'IN_PROGRESS'", Integer.class)).isEqualTo(5);
+        assertThat(stepExecution.getExecutionContext().getInt(BulkExpirePassesTasklet.LAST_PASS_SEQ))
+                .isEqualTo(stepExecution.getExecutionContext().getInt(BulkExpirePassesTasklet.MAX_PASS_SEQ));
+    }
+
+    @DisplayName("만료 대상이 없으면 바로 종료한다.")
+    @Test
+    void test_execute_empty() {
+        // Given
+        final BulkExpirePassesTasklet bulkExpirePassesTasklet = new BulkExpirePassesTasklet(jdbcTemplate, 3);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        // When
+        RepeatStatus repeatStatus = bulkExpirePassesTasklet.execute(stepExecution.createStepContribution(), new ChunkContext(new StepContext(stepExecution)));
+
+        // Then
+        assertThat(repeatStatus).isEqualTo(RepeatStatus.FINISHED);
+        assertThat(stepExecution.getExecutionContext().isEmpty()).isTrue();
+    }
+
+    private PassEntity passEntity(int i, LocalDateTime endedAt) {
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A" + (1000000 + i));
+        passEntity.setStatus(PassStatus.IN_PROGRESS);
+        passEntity.setRemainingCount(10);
+        passEntity.setStartedAt(endedAt.minusDays(30));
+        passEntity.setEndedAt(endedAt);
+        return passEntity;
+    }
+
+}
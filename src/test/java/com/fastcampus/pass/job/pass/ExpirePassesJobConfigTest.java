@@ -1,6 +1,11 @@
 package com.fastcampus.pass.job.pass;
 
+import com.fastcampus.pass.config.BatchConfig;
+import com.fastcampus.pass.config.BatchTaskExecutorConfig;
 import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.job.DeadLetterSkipListener;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.deadletter.DeadLetterRepository;
 import com.fastcampus.pass.repository.pass.PassEntity;
 import com.fastcampus.pass.repository.pass.PassRepository;
 import com.fastcampus.pass.repository.pass.PassStatus;
@@ -28,7 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 @SpringBatchTest
 @SpringBootTest
 @ActiveProfiles("test")
-@ContextConfiguration(classes = {ExpirePassesJobConfig.class, TestBatchConfig.class})
+@ContextConfiguration(classes = {ExpirePassesJobConfig.class, DeadLetterSkipListener.class, DeadLetterRepository.class, BatchConfig.class, BatchTaskExecutorConfig.class, FlightRecorderListener.class, TestBatchConfig.class})
 class ExpirePassesJobConfigTest {
     @Autowired
     private JobLauncherTestUtils jobLauncherTestUtils;
@@ -0,0 +1,98 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassRepository;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class PassLifecycleTaskletTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PassRepository passRepository;
+
+    @DisplayName("밀린 이용권은 바로 처리하고, 실행 중에 started_at, ended_at이 지나는 이용권은 wheel에서 꺼내서 처리한다.")
+    @Test
+    void test_execute() throws Exception {
+        // Given
+        final LocalDateTime now = LocalDateTime.now();
+        final PassEntity overdueStart = passRepository.save(passEntity(PassStatus.READY, now.minusDays(1), now.plusDays(1)));
+        final PassEntity overdueReadyEnd = passRepository.save(passEntity(PassStatus.READY, now.minusDays(10), now.minusDays(1)));
+        for (int i = 0; i < 3; ++i) {
+            passRepository.save(passEntity(PassStatus.IN_PROGRESS, now.minusDays(10), now.minusHours(1)));
+        }
+        final PassEntity upcomingStart = passRepository.save(passEntity(PassStatus.READY, now.plusNanos(300_000_000), now.plusDays(1)));
+        final PassEntity upcomingEnd = passRepository.save(passEntity(PassStatus.IN_PROGRESS, now.minusDays(10), now.plusNanos(400_000_000)));
+        final PassEntity futureStart = passRepository.save(passEntity(PassStatus.READY, now.plusDays(1), now.plusDays(2)));
+        final PassEntity unlimited = passRepository.save(passEntity(PassStatus.IN_PROGRESS, now.minusDays(10), null));
+        passRepository.flush();
+
+        // batchSize 2: 밀린 만료 이용권 4건은 refill 두 번에 나눠서 처리한다.
+        // 테스트 트랜잭션에 참여해서, 테스트가 끝나면 함께 rollback 되도록 테스트의 transaction manager를 사용한다.
+        final PassLifecycleTasklet passLifecycleTasklet = new PassLifecycleTasklet(jdbcTemplate, new TransactionTemplate(transactionManager),
+                Duration.ofMillis(20), Duration.ofSeconds(1), Duration.ofMillis(100), 2, Duration.ofMillis(800));
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        // When
+        int writeCount = 0;
+        RepeatStatus repeatStatus;
+        do {
+            StepContribution contribution = stepExecution.createStepContribution();
+            repeatStatus = passLifecycleTasklet.execute(contribution, chunkContext);
+            writeCount += (int) contribution.getWriteCount();
+        } while (repeatStatus.isContinuable());
+
+        // Then
+        assertThat(writeCount).isEqualTo(7);
+        assertThat(status(overdueStart)).isEqualTo(PassStatus.IN_PROGRESS.name());
+        assertThat(status(overdueReadyEnd)).isEqualTo(PassStatus.EXPIRED.name());
+        assertThat(status(upcomingStart)).isEqualTo(PassStatus.IN_PROGRESS.name());
+        assertThat(status(upcomingEnd)).isEqualTo(PassStatus.EXPIRED.name());
+        assertThat(status(futureStart)).isEqualTo(PassStatus.READY.name());
+        assertThat(status(unlimited)).isEqualTo(PassStatus.IN_PROGRESS.name());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE status = 'EXPIRED' AND expired_at IS NOT NULL AND expired_at >= ended_at", Integer.class)).isEqualTo(5);
+    }
+
+    private String status(PassEntity passEntity) {
+        return jdbcTemplate.queryForObject("SELECT status FROM pass WHERE pass_seq = ?", String.class, passEntity.getPassSeq());
+    }
+
+    private PassEntity passEntity(PassStatus status, LocalDateTime startedAt, LocalDateTime endedAt) {
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A1000000");
+        passEntity.setStatus(status);
+        passEntity.setRemainingCount(10);
+        passEntity.setStartedAt(startedAt);
+        passEntity.setEndedAt(endedAt);
+        return passEntity;
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.pass.BulkPassEntity;
+import com.fastcampus.pass.repository.pass.BulkPassRepository;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class PushDownAddPassesTaskletTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BulkPassRepository bulkPassRepository;
+
+    @DisplayName("대량 이용권마다 user group 사용자에게 INSERT ... SELECT로 이용권을 추가하고, 대량 이용권을 완료 처리한다.")
+    @Test
+    void test_execute() {
+        // Given
+        final LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; ++i) {
+            jdbcTemplate.update("INSERT INTO user_group_mapping (user_group_id, user_id, user_group_name, description, created_at) VALUES ('GROUP1', ?, 'GROUP1', '테스트 그룹', ?)",
+                    "A" + (1000000 + i), now);
+        }
+        jdbcTemplate.update("INSERT INTO user_group_mapping (user_group_id, user_id, user_group_name, description, created_at) VALUES ('GROUP2', 'B1000000', 'GROUP2', '테스트 그룹', ?)", now);
+        bulkPassRepository.saveAllAndFlush(List.of(
+                bulkPassEntity("GROUP1", 10, now.plusDays(1)),
+                bulkPassEntity("GROUP1", null, now.plusDays(1)),
+                bulkPassEntity("GROUP2", 5, now.plusDays(1)),
+                // 지급 기준(시작 일시 1일 전)보다 이전에 시작한 대량 이용권은 지급하지 않는다.
+                bulkPassEntity("GROUP2", 5, now.minusDays(2))));
+        jdbcTemplate.update("UPDATE bulk_pass SET modified_at = ?", now.minusDays(1));
+
+        final PushDownAddPassesTasklet pushDownAddPassesTasklet = new PushDownAddPassesTasklet(jdbcTemplate);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        // When
+        int executeCount = 0;
+        int writeCount = 0;
+        RepeatStatus repeatStatus;
+        do {
+            StepContribution contribution = stepExecution.createStepContribution();
+            repeatStatus = pushDownAddPassesTasklet.execute(contribution, chunkContext);
+            writeCount += (int) contribution.getWriteCount();
+            executeCount++;
+        } while (repeatStatus.isContinuable());
+
+        // Then
+        // 대량 이용권 3건을 한 건씩 처리하고, 마지막 execute에서 남은 대상이 없음을 확인한다.
+        assertThat(executeCount).isEqualTo(4);
+        assertThat(writeCount).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bulk_pass WHERE status = 'COMPLETED'", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bulk_pass WHERE status = 'READY'", Integer.class)).isEqualTo(1);
+        // 완료 처리한 대량 이용권은 수정 일시도 바꾼다.
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bulk_pass WHERE status = 'COMPLETED' AND modified_at >= ?", Integer.class, now)).isEqualTo(3);
+
+        // PassModelMapper와 같게 status = READY, remaining_count = count로 추가한다.
+        final List<Map<String, Object>> passes = jdbcTemplate.queryForList("SELECT user_id, status, remaining_count, created_at FROM pass ORDER BY pass_seq");
+        assertThat(passes).hasSize(7);
+        assertThat(passes).allSatisfy(pass -> {
+            assertThat(pass.get("status")).isEqualTo("READY");
+            assertThat(pass.get("created_at")).isNotNull();
+        });
+        assertThat(passes).extracting(pass -> pass.get("remaining_count")).containsExactly(10, 10, 10, null, null, null, 5);
+        assertThat(passes).extracting(pass -> pass.get("user_id")).endsWith("B1000000");
+    }
+
+    @DisplayName("지급 대상 대량 이용권이 없으면 바로 종료한다.")
+    @Test
+    void test_execute_empty() {
+        // Given
+        final PushDownAddPassesTasklet pushDownAddPassesTasklet = new PushDownAddPassesTasklet(jdbcTemplate);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        // When
+        RepeatStatus repeatStatus = pushDownAddPassesTasklet.execute(stepExecution.createStepContribution(), new ChunkContext(new StepContext(stepExecution)));
+
+        // Then
+        assertThat(repeatStatus).isEqualTo(RepeatStatus.FINISHED);
+        assertThat(stepExecution.getExecutionContext().isEmpty()).isTrue();
+    }
+
+    private BulkPassEntity bulkPassEntity(String userGroupId, Integer count, LocalDateTime startedAt) {
+        BulkPassEntity bulkPassEntity = new BulkPassEntity();
+        bulkPassEntity.setPackageSeq(1);
+        bulkPassEntity.setUserGroupId(userGroupId);
+        bulkPassEntity.setStatus(BulkPassStatus.READY);
+        bulkPassEntity.setCount(count);
+        bulkPassEntity.setStartedAt(startedAt);
+        bulkPassEntity.setEndedAt(startedAt.plusDays(30));
+        return bulkPassEntity;
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class UserGroupMembershipCacheTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("user group별 userId를 정렬해서 캐시하고, 매핑이 바뀐 user group만 다시 읽는다.")
+    @Test
+    void test_getAll() {
+        // Given
+        final LocalDateTime now = LocalDateTime.now().withNano(0);
+        insertMapping("GROUP1", "C1000000", now);
+        insertMapping("GROUP1", "A1000000", now);
+        insertMapping("GROUP1", "B1000000", now);
+        insertMapping("GROUP2", "A1000000", now);
+        final UserGroupMembershipCache userGroupMembershipCache = new UserGroupMembershipCache(jdbcTemplate);
+
+        // When
+        final Map<String, String[]> first = userGroupMembershipCache.getAll(List.of("GROUP1", "GROUP2", "GROUP1", "GROUP3"));
+        final Map<String, String[]> second = userGroupMembershipCache.getAll(List.of("GROUP1", "GROUP2"));
+
+        insertMapping("GROUP1", "D1000000", now.plusMinutes(1));
+        jdbcTemplate.update("DELETE FROM user_group_mapping WHERE user_group_id = 'GROUP2'");
+        final Map<String, String[]> third = userGroupMembershipCache.getAll(List.of("GROUP1", "GROUP2"));
+
+        // Then
+        assertThat(first).containsOnlyKeys("GROUP1", "GROUP2", "GROUP3");
+        assertThat(first.get("GROUP1")).containsExactly("A1000000", "B1000000", "C1000000");
+        assertThat(first.get("GROUP3")).isEmpty();
+
+        // 매핑이 바뀌지 않았으면 같은 배열을 돌려준다.
+        assertThat(second.get("GROUP1")).isSameAs(first.get("GROUP1"));
+        assertThat(second.get("GROUP2")).isSameAs(first.get("GROUP2"));
+
+        assertThat(third.get("GROUP1")).containsExactly("A1000000", "B1000000", "C1000000", "D1000000");
+        assertThat(third.get("GROUP2")).isEmpty();
+    }
+
+    @DisplayName("userId 목록을 정렬하고 중복을 제거한다.")
+    @Test
+    void test_sortedDistinct() {
+        assertThat(UserGroupMembershipCache.sortedDistinct(List.of("B", "A", "B", "C", "A"))).containsExactly("A", "B", "C");
+        assertThat(UserGroupMembershipCache.sortedDistinct(List.of())).isEmpty();
+    }
+
+    private void insertMapping(String userGroupId, String userId, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO user_group_mapping (user_group_id, user_id, user_group_name, description, created_at) VALUES (?, ?, ?, ?, ?)",
+                userGroupId, userId, userGroupId, "테스트 그룹", Timestamp.valueOf(createdAt));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.fastcampus.pass.job.pass;
+
+import com.fastcampus.pass.repository.pass.BulkPassEntity;
+import com.fastcampus.pass.repository.pass.BulkPassRepository;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserGroupPartitionerTest {
+
+    @Mock
+    private BulkPassRepository bulkPassRepository;
+
+    @DisplayName("대량 이용권을 user group 단위로 나눈다.")
+    @Test
+    void test_partition() {
+        // Given
+        final ExecutionContext jobExecutionContext = new ExecutionContext();
+        final UserGroupPartitioner userGroupPartitioner = new UserGroupPartitioner(bulkPassRepository, jobExecutionContext);
+
+        when(bulkPassRepository.findByStatusAndStartedAtGreaterThan(eq(BulkPassStatus.READY), any()))
+                .thenReturn(List.of(bulkPassEntity(1, "HANBADA"), bulkPassEntity(2, "TAESAN"), bulkPassEntity(3, "HANBADA")));
+
+        // When
+        final Map<String, ExecutionContext> partitions = userGroupPartitioner.partition(10);
+
+        // Then
+        assertThat(partitions).containsOnlyKeys("HANBADA", "TAESAN");
+        assertThat(partitions.get("TAESAN").getString(UserGroupPartitioner.USER_GROUP_ID)).isEqualTo("TAESAN");
+        assertThat(partitions.get("TAESAN").getInt(UserGroupPartitioner.MAX_BULK_PASS_SEQ)).isEqualTo(3);
+
+        // 대량 이용권 상태 변경에 사용할 조회 기준이 job ExecutionContext에 저장된다.
+        assertThat(jobExecutionContext.getInt(UserGroupPartitioner.MAX_BULK_PASS_SEQ)).isEqualTo(3);
+        assertThat(jobExecutionContext.getString(UserGroupPartitioner.STARTED_AT))
+                .isEqualTo(partitions.get("HANBADA").getString(UserGroupPartitioner.STARTED_AT));
+    }
+
+    @DisplayName("지급 대상이 없으면 partition도 없다.")
+    @Test
+    void test_partition_empty() {
+        // Given
+        final ExecutionContext jobExecutionContext = new ExecutionContext();
+        final UserGroupPartitioner userGroupPartitioner = new UserGroupPartitioner(bulkPassRepository, jobExecutionContext);
+
+        when(bulkPassRepository.findByStatusAndStartedAtGreaterThan(eq(BulkPassStatus.READY), any())).thenReturn(List.of());
+
+        // When
+        final Map<String, ExecutionContext> partitions = userGroupPartitioner.partition(10);
+
+        // Then
+        assertThat(partitions).isEmpty();
+        assertThat(jobExecutionContext.isEmpty()).isTrue();
+    }
+
+    private BulkPassEntity bulkPassEntity(int bulkPassSeq, String userGroupId) {
+        BulkPassEntity bulkPassEntity = new BulkPassEntity();
+        bulkPassEntity.setBulkPassSeq(bulkPassSeq);
+        bulkPassEntity.setPackageSeq(1);
+        bulkPassEntity.setUserGroupId(userGroupId);
+        bulkPassEntity.setStatus(BulkPassStatus.READY);
+        bulkPassEntity.setCount(10);
+        bulkPassEntity.setStartedAt(LocalDateTime.now());
+        return bulkPassEntity;
+    }
+
+}
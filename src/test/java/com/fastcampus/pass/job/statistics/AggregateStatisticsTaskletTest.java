@@ -0,0 +1,63 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
+import com.fastcampus.pass.repository.statistics.StatisticsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AggregateStatisticsTaskletTest {
+
+    @Mock
+    private StatisticsRepository statisticsRepository;
+
+    @DisplayName("일별 집계를 한 번 조회해서 날짜 순으로 저장하고, 주간 row를 만들어도 일별 집계는 바뀌지 않는다. job이 끝나면 지운다.")
+    @Test
+    void test_execute() {
+        // Given
+        final LocalDateTime from = LocalDateTime.of(2022, 9, 5, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2022, 9, 7, 0, 0);
+        when(statisticsRepository.findByStatisticsAtBetweenAndGroupBy(from, to)).thenReturn(List.of(
+                new AggregatedStatistics(from.plusDays(1), 2, 1, 0),
+                new AggregatedStatistics(from, 5, 3, 1)));
+
+        final AggregatedStatisticsCache aggregatedStatisticsCache = new AggregatedStatisticsCache();
+        final AggregateStatisticsTasklet aggregateStatisticsTasklet = new AggregateStatisticsTasklet(statisticsRepository, aggregatedStatisticsCache);
+        ReflectionTestUtils.setField(aggregateStatisticsTasklet, "fromString", "2022-09-05 00:00");
+        ReflectionTestUtils.setField(aggregateStatisticsTasklet, "toString", "2022-09-07 00:00");
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        final long jobExecutionId = stepExecution.getJobExecutionId();
+
+        // When
+        aggregateStatisticsTasklet.execute(stepExecution.createStepContribution(), new ChunkContext(new StepContext(stepExecution)));
+        final long weeklyRows = MakeWeeklyStatisticsTasklet.weeklyRows(aggregatedStatisticsCache.get(jobExecutionId).stream()).count();
+        final List<AggregatedStatistics> daily = aggregatedStatisticsCache.get(jobExecutionId);
+
+        // Then
+        verify(statisticsRepository, times(1)).findByStatisticsAtBetweenAndGroupBy(from, to);
+        assertThat(weeklyRows).isEqualTo(1);
+        assertThat(daily).extracting(AggregatedStatistics::getStatisticsAt).containsExactly(from, from.plusDays(1));
+        assertThat(daily).extracting(AggregatedStatistics::getAllCount).containsExactly(5L, 2L);
+
+        aggregatedStatisticsCache.afterJob(stepExecution.getJobExecution());
+        assertThatThrownBy(() -> aggregatedStatisticsCache.get(jobExecutionId)).isInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingSummary;
+import com.fastcampus.pass.repository.statistics.StatisticsEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DailyStatisticsAccumulatorTest {
+    private static final LocalDateTime ENDED_AT = LocalDateTime.of(2022, 9, 1, 10, 30);
+
+    @DisplayName("여러 thread에서 쓴 예약 건수를 하루 한 건으로 합친다.")
+    @Test
+    void test_write_concurrently() throws Exception {
+        // Given
+        final DailyStatisticsAccumulator dailyStatisticsAccumulator = new DailyStatisticsAccumulator();
+        final Chunk<BookingSummary> chunk = new Chunk<>(
+                new BookingSummary(ENDED_AT, true, BookingStatus.COMPLETED),
+                new BookingSummary(ENDED_AT.plusHours(5), false, BookingStatus.CANCELLED),
+                new BookingSummary(ENDED_AT.plusDays(1), true, BookingStatus.COMPLETED));
+
+        // When
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            futures.add(executorService.submit(() -> {
+                dailyStatisticsAccumulator.write(chunk);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // Then
+        assertThat(dailyStatisticsAccumulator.snapshot()).isDeepEqualTo(new long[][]{
+                {ENDED_AT.toLocalDate().toEpochDay(), 2000, 1000, 1000},
+                {ENDED_AT.toLocalDate().toEpochDay() + 1, 1000, 1000, 0}});
+    }
+
+    @DisplayName("ExecutionContext에 저장한 누적 값부터 이어서 누적하고, 하루 한 건의 통계로 변환한다.")
+    @Test
+    void test_update_open() throws Exception {
+        // Given
+        final DailyStatisticsAccumulator dailyStatisticsAccumulator = new DailyStatisticsAccumulator();
+        dailyStatisticsAccumulator.write(new Chunk<>(new BookingSummary(ENDED_AT, true, BookingStatus.COMPLETED)));
+        final ExecutionContext executionContext = new ExecutionContext();
+        dailyStatisticsAccumulator.update(executionContext);
+
+        // When
+        final DailyStatisticsAccumulator restarted = new DailyStatisticsAccumulator();
+        restarted.open(executionContext);
+        restarted.write(new Chunk<>(new BookingSummary(ENDED_AT, false, BookingStatus.CANCELLED)));
+        restarted.update(executionContext);
+
+        // Then
+        final List<StatisticsEntity> statisticsEntities = DailyStatisticsAccumulator.toStatisticsEntities(executionContext.getString(DailyStatisticsAccumulator.DAILY_COUNTS));
+        assertThat(statisticsEntities).singleElement().satisfies(statisticsEntity -> {
+            assertThat(statisticsEntity.getStatisticsAt()).isEqualTo(LocalDateTime.of(2022, 9, 1, 0, 0));
+            assertThat(statisticsEntity.getAllCount()).isEqualTo(2);
+            assertThat(statisticsEntity.getAttendedCount()).isEqualTo(1);
+            assertThat(statisticsEntity.getCancelledCount()).isEqualTo(1);
+        });
+    }
+
+    @DisplayName("날짜가 많아지면 배열을 늘려도 건수가 유지된다.")
+    @Test
+    void test_write_resize() throws Exception {
+        // Given
+        final DailyStatisticsAccumulator dailyStatisticsAccumulator = new DailyStatisticsAccumulator();
+        List<BookingSummary> bookingSummaries = new ArrayList<>();
+        for (int i = 0; i < 400; ++i) {
+            bookingSummaries.add(new BookingSummary(ENDED_AT.plusDays(i), false, BookingStatus.COMPLETED));
+        }
+
+        // When
+        dailyStatisticsAccumulator.write(new Chunk<>(bookingSummaries));
+        dailyStatisticsAccumulator.write(new Chunk<>(bookingSummaries));
+
+        // Then
+        final long[][] snapshot = dailyStatisticsAccumulator.snapshot();
+        assertThat(snapshot).hasDimensions(400, 4);
+        assertThat(Arrays.stream(snapshot).mapToLong(row -> row[1])).containsOnly(2L);
+        assertThat(snapshot[0][0]).isEqualTo(ENDED_AT.toLocalDate().toEpochDay());
+    }
+
+    @DisplayName("chunk에 누적할 수 없는 예약이 있으면 chunk의 어떤 예약도 누적하지 않는다.")
+    @Test
+    void test_write_atomic() {
+        // Given
+        final DailyStatisticsAccumulator dailyStatisticsAccumulator = new DailyStatisticsAccumulator();
+        final Chunk<BookingSummary> chunk = new Chunk<>(
+                new BookingSummary(ENDED_AT, true, BookingStatus.COMPLETED),
+                new BookingSummary(null, false, BookingStatus.COMPLETED));
+
+        // When, Then
+        assertThatThrownBy(() -> dailyStatisticsAccumulator.write(chunk)).isInstanceOf(NullPointerException.class);
+        assertThat(dailyStatisticsAccumulator.snapshot()).isEmpty();
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.config.BatchConfig;
+import com.fastcampus.pass.config.BatchTaskExecutorConfig;
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.job.DeadLetterSkipListener;
+import com.fastcampus.pass.metrics.FlightRecorderListener;
+import com.fastcampus.pass.repository.booking.BookingModificationRepository;
+import com.fastcampus.pass.repository.deadletter.DeadLetterRepository;
+import com.fastcampus.pass.repository.statistics.StatisticsUpsertWriter;
+import com.fastcampus.pass.repository.watermark.WatermarkRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * makeStatisticsJob을 내장 DB에서 실행한다.
+ * 일별 통계를 ON DUPLICATE KEY UPDATE 구문으로 쓰기 때문에 H2를 MySQL 모드로 띄운다.
+ */
+@SpringBatchTest
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:makeStatistics;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "statistics.report.directory=${java.io.tmpdir}"
+})
+@Sql({"classpath:org/springframework/batch/core/schema-drop-h2.sql", "classpath:org/springframework/batch/core/schema-h2.sql"})
+@ContextConfiguration(classes = {MakeStatisticsJobConfig.class, StatisticsWatermarkListener.class, BookingModificationRepository.class, FlushStatisticsTasklet.class, MakeDailyStatisticsTasklet.class,
+        MakeWeeklyStatisticsTasklet.class, AggregateStatisticsTasklet.class, AggregatedStatisticsCache.class, StatisticsUpsertWriter.class, WatermarkRepository.class,
+        DeadLetterSkipListener.class, DeadLetterRepository.class, BatchConfig.class, BatchTaskExecutorConfig.class, FlightRecorderListener.class, TestBatchConfig.class})
+class MakeStatisticsJobConfigTest {
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM booking");
+        jdbcTemplate.update("DELETE FROM pass");
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM watermark");
+    }
+
+    @DisplayName("기간이 겹치게 다시 실행해도 건수가 중복되지 않고, 집계된 뒤에 수정된 예약은 그 날을 다시 계산해서 반영한다.")
+    @Test
+    void test_makeStatisticsJob_overlappingWindows() throws Exception {
+        // Given
+        final int passSeq = addPass("A1000000");
+        final LocalDateTime beforeRun = LocalDateTime.now().minusDays(1);
+        final int outsideBookingSeq = addBooking(passSeq, "COMPLETED", false, LocalDateTime.of(2022, 8, 31, 10, 0), beforeRun);
+        final int bookingSeq = addBooking(passSeq, "COMPLETED", false, LocalDateTime.of(2022, 9, 1, 10, 0), beforeRun);
+        addBooking(passSeq, "COMPLETED", true, LocalDateTime.of(2022, 9, 1, 12, 0), beforeRun);
+        addBooking(passSeq, "CANCELLED", false, LocalDateTime.of(2022, 9, 2, 10, 0), beforeRun);
+        assertThat(jobLauncherTestUtils.launchJob(jobParameters("2022-08-31 00:00", "2022-09-03 00:00")).getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+
+        // 집계된 예약이 수정되고(PassUsageWriter처럼 modified_at이 바뀐다), 이후에 새 예약이 종료된다.
+        // 08-31의 예약은 다음 실행 기간 밖이지만, 수정되었기 때문에 다시 계산한다.
+        // 실행 사이에 시간이 지난 것처럼 watermark를 1분 앞으로 옮기고, 그 뒤에 수정한다.
+        jdbcTemplate.update("UPDATE watermark SET watermark_at = ? WHERE watermark_name = 'addStatisticsStep'", LocalDateTime.now().minusMinutes(1));
+        final LocalDateTime afterRun = LocalDateTime.now().minusSeconds(30);
+        jdbcTemplate.update("UPDATE booking SET attended = TRUE, modified_at = ? WHERE booking_seq = ?", afterRun, bookingSeq);
+        jdbcTemplate.update("UPDATE booking SET status = 'CANCELLED', modified_at = ? WHERE booking_seq = ?", afterRun, outsideBookingSeq);
+        addBooking(passSeq, "COMPLETED", true, LocalDateTime.of(2022, 9, 4, 10, 0), afterRun);
+
+        // When
+        final JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters("2022-09-01 12:00", "2022-09-05 00:00"));
+
+        // Then
+        assertThat(jobExecution.getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+        final List<Map<String, Object>> statistics = jdbcTemplate.queryForList("SELECT statistics_at, all_count, attended_count, cancelled_count FROM statistics ORDER BY statistics_at");
+        assertThat(statistics).extracting(row -> row.get("statistics_at").toString())
+                .containsExactly("2022-08-31 00:00:00.0", "2022-09-01 00:00:00.0", "2022-09-02 00:00:00.0", "2022-09-04 00:00:00.0");
+        assertThat(statistics).extracting(row -> row.get("all_count")).containsExactly(1, 2, 1, 1);
+        assertThat(statistics).extracting(row -> row.get("attended_count")).containsExactly(0, 2, 0, 1);
+        assertThat(statistics).extracting(row -> row.get("cancelled_count")).containsExactly(1, 0, 1, 0);
+        // 일별 리포트는 이번 기간(09-01 12:00 ~ 09-05 00:00)의 일별 통계만 쓴다. (header 포함)
+        assertThat(Files.readAllLines(Path.of(System.getProperty("java.io.tmpdir"), "daily_statistics_20220901.csv"))).hasSize(3);
+        // 주간 리포트도 같은 일별 집계로 만든다. (09-02 금요일, 09-04 일요일)
+        assertThat(Files.readAllLines(Path.of(System.getProperty("java.io.tmpdir"), "weekly_statistics_20220901.csv"))).hasSizeGreaterThan(1);
+    }
+
+    @DisplayName("이미 실행한 기간보다 앞선 기간으로 실행하면(backfill), 그 기간의 통계를 계산한다.")
+    @Test
+    void test_makeStatisticsJob_backfill() throws Exception {
+        // Given
+        final int passSeq = addPass("A1000000");
+        final LocalDateTime beforeRun = LocalDateTime.now().minusDays(1);
+        addBooking(passSeq, "COMPLETED", true, LocalDateTime.of(2022, 9, 1, 10, 0), beforeRun);
+        addBooking(passSeq, "COMPLETED", true, LocalDateTime.of(2022, 9, 2, 10, 0), beforeRun);
+        assertThat(jobLauncherTestUtils.launchJob(jobParameters("2022-09-02 00:00", "2022-09-03 00:00")).getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+        final LocalDateTime watermarkAt = watermarkAt();
+
+        // When
+        final JobExecution jobExecution = jobLauncherTestUtils.launchJob(jobParameters("2022-09-01 00:00", "2022-09-02 00:00"));
+
+        // Then
+        assertThat(jobExecution.getExitStatus()).isEqualTo(ExitStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForList("SELECT all_count FROM statistics ORDER BY statistics_at", Integer.class)).containsExactly(1, 1);
+        assertThat(watermarkAt()).isAfterOrEqualTo(watermarkAt);
+    }
+
+    private JobParameters jobParameters(String from, String to) {
+        return new JobParametersBuilder()
+                .addString("from", from)
+                .addString("to", to)
+                .toJobParameters();
+    }
+
+    // job이 다른 트랜잭션에서 읽을 수 있도록 바로 commit 되는 JDBC로 저장한다.
+    private int addPass(String userId) {
+        final LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO pass (package_seq, user_id, status, remaining_count, started_at, created_at) VALUES (1, ?, 'IN_PROGRESS', 10, ?, ?)",
+                userId, now.minusMonths(1), now);
+        return jdbcTemplate.queryForObject("SELECT MAX(pass_seq) FROM pass", Integer.class);
+    }
+
+    private int addBooking(int passSeq, String status, boolean attended, LocalDateTime endedAt, LocalDateTime modifiedAt) {
+        jdbcTemplate.update("INSERT INTO booking (pass_seq, user_id, status, used_pass, attended, started_at, ended_at, created_at, modified_at) VALUES (?, 'A1000000', ?, TRUE, ?, ?, ?, ?, ?)",
+                passSeq, status, attended, endedAt.minusHours(1), endedAt, endedAt.minusDays(1), modifiedAt);
+        return jdbcTemplate.queryForObject("SELECT MAX(booking_seq) FROM booking", Integer.class);
+    }
+
+    private LocalDateTime watermarkAt() {
+        return jdbcTemplate.queryForObject("SELECT watermark_at FROM watermark WHERE watermark_name = 'addStatisticsStep'", LocalDateTime.class);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.fastcampus.pass.job.statistics;
+
+import com.fastcampus.pass.repository.statistics.AggregatedStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MakeWeeklyStatisticsTaskletTest {
+
+    @DisplayName("일별 통계를 필요한 만큼만 읽으면서 같은 주끼리 합치고, 다 쓰면 일별 통계 Stream도 닫는다.")
+    @Test
+    void test_weeklyRows() {
+        // Given: 2022-09-05(월)부터 10일치 일별 통계
+        final LocalDateTime monday = LocalDateTime.of(2022, 9, 5, 0, 0);
+        final AtomicInteger readDays = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<AggregatedStatistics> dailyStatistics = IntStream.range(0, 10)
+                .mapToObj(i -> new AggregatedStatistics(monday.plusDays(i), 10, 5, 1))
+                .peek(statistics -> readDays.incrementAndGet())
+                .onClose(() -> closed.set(true));
+
+        // When
+        final String[] firstWeek;
+        final String[] secondWeek;
+        final int readDaysAfterFirstWeek;
+        try (Stream<String[]> weeklyRows = MakeWeeklyStatisticsTasklet.weeklyRows(dailyStatistics)) {
+            final Iterator<String[]> iterator = weeklyRows.iterator();
+            firstWeek = iterator.next();
+            readDaysAfterFirstWeek = readDays.get();
+            secondWeek = iterator.next();
+            assertThat(iterator.hasNext()).isFalse();
+        }
+
+        // Then
+        final int daysOfFirstWeek = Integer.parseInt(firstWeek[1]) / 10;
+        assertThat(daysOfFirstWeek + Integer.parseInt(secondWeek[1]) / 10).isEqualTo(10);
+        assertThat(firstWeek[2]).isEqualTo(String.valueOf(daysOfFirstWeek * 5));
+        assertThat(firstWeek[3]).isEqualTo(String.valueOf(daysOfFirstWeek));
+        // 첫 주를 만들 때는 다음 주의 첫날까지만 읽는다.
+        assertThat(readDaysAfterFirstWeek).isEqualTo(daysOfFirstWeek + 1);
+        assertThat(closed).isTrue();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.fastcampus.pass.metrics;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchMetricsListenerTest {
+    @TempDir
+    private Path directory;
+
+    private PrometheusMeterRegistry meterRegistry;
+    private BatchMetricsListener batchMetricsListener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        batchMetricsListener = new BatchMetricsListener(meterRegistry, new PrometheusTextFileExporter(() -> meterRegistry, directory));
+    }
+
+    @DisplayName("step이 끝나면 partition 이름을 뺀 step 이름으로 처리 건수와 수행 시간을 기록한다.")
+    @Test
+    void test_afterStep() {
+        // Given
+        final JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("addPassesJob", 1L, 1L);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution(jobExecution, "addPassesWorkerStep:G10024", 1L);
+        stepExecution.setStartTime(LocalDateTime.now().minusSeconds(1));
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        stepExecution.setReadCount(10);
+        stepExecution.setWriteCount(9);
+        stepExecution.setFilterCount(1);
+        stepExecution.setCommitCount(2);
+
+        // When
+        batchMetricsListener.afterStep(stepExecution);
+
+        // Then
+        assertThat(meterRegistry.get("batch.step.items").tags("step.name", "addPassesWorkerStep", "type", "read").counter().count()).isEqualTo(10);
+        assertThat(meterRegistry.get("batch.step.items").tags("type", "write").counter().count()).isEqualTo(9);
+        assertThat(meterRegistry.get("batch.step.items").tags("type", "filter").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("batch.step.items").tags("type", "commit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("batch.step.duration").tags("job.name", "addPassesJob", "status", "COMPLETED").timer().count()).isEqualTo(1);
+    }
+
+    @DisplayName("chunk가 commit 되거나 rollback 되면 chunk 처리 시간을 status별로 기록한다.")
+    @Test
+    void test_chunk() {
+        // Given
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution("expirePassesStep", 1L);
+        final ChunkContext committedChunk = new ChunkContext(new StepContext(stepExecution));
+        final ChunkContext rolledBackChunk = new ChunkContext(new StepContext(stepExecution));
+
+        // When
+        batchMetricsListener.beforeChunk(committedChunk);
+        batchMetricsListener.afterChunk(committedChunk);
+        batchMetricsListener.beforeChunk(rolledBackChunk);
+        batchMetricsListener.afterChunkError(rolledBackChunk);
+        // beforeChunk 없이 호출되면 기록하지 않는다.
+        batchMetricsListener.afterChunk(committedChunk);
+
+        // Then
+        assertThat(meterRegistry.get("batch.chunk.duration").tags("step.name", "expirePassesStep", "status", "COMMITTED").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("batch.chunk.duration").tags("status", "ROLLED_BACK").timer().count()).isEqualTo(1);
+    }
+
+    @DisplayName("job이 끝나면 metric을 {job 이름}.prom 파일로 내보낸다.")
+    @Test
+    void test_afterJob() throws Exception {
+        // Given
+        final JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("makeStatisticsJob", 1L, 1L);
+        jobExecution.setStartTime(LocalDateTime.now().minusSeconds(1));
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+
+        // When
+        batchMetricsListener.afterJob(jobExecution);
+
+        // Then
+        final Path textFile = directory.resolve("makeStatisticsJob.prom");
+        assertThat(textFile).exists();
+        assertThat(directory.resolve("makeStatisticsJob.prom.tmp")).doesNotExist();
+        assertThat(Files.readString(textFile)).contains("batch_job_duration_seconds_count{job_name=\"makeStatisticsJob\",status=\"COMPLETED\"} 1");
+    }
+
+}
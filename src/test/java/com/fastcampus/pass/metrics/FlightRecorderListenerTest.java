@@ -0,0 +1,95 @@
+package com.fastcampus.pass.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FlightRecorderListenerTest {
+    @TempDir
+    private Path directory;
+
+    @DisplayName("jfr=true로 실행한 job은 chunk의 read, process, write, commit 구간과 tasklet 실행을 이벤트로 남긴다.")
+    @Test
+    void test_recording() throws Exception {
+        // Given
+        final FlightRecorderListener listener = new FlightRecorderListener(directory.toString());
+        final JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("addPassesJob", 1L, 1L,
+                new JobParametersBuilder().addString(FlightRecorderListener.JFR_PARAMETER, "true").toJobParameters());
+        final StepExecution workerStepExecution = MetaDataInstanceFactory.createStepExecution(jobExecution, "addPassesWorkerStep:G10024", 1L);
+        final StepExecution taskletStepExecution = MetaDataInstanceFactory.createStepExecution(jobExecution, "completeBulkPassesStep", 2L);
+
+        // When
+        listener.beforeJob(jobExecution);
+
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(workerStepExecution));
+        listener.beforeChunk(chunkContext);
+        for (int i = 0; i < 3; ++i) {
+            listener.beforeRead();
+            listener.afterRead("item" + i);
+        }
+        for (int i = 0; i < 3; ++i) {
+            listener.beforeProcess("item" + i);
+            listener.afterProcess("item" + i, "item" + i);
+        }
+        final Chunk<Object> chunk = new Chunk<>("item0", "item1", "item2");
+        listener.beforeWrite(chunk);
+        listener.afterWrite(chunk);
+        listener.afterChunk(chunkContext);
+
+        final ChunkContext taskletContext = new ChunkContext(new StepContext(taskletStepExecution));
+        listener.beforeChunk(taskletContext);
+        taskletStepExecution.setWriteCount(5);
+        listener.afterChunk(taskletContext);
+
+        listener.afterJob(jobExecution);
+
+        // Then
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(directory.resolve("addPassesJob-1.jfr")).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.fastcampus.pass."))
+                .toList();
+        assertThat(events)
+                .extracting(event -> event.getEventType().getName(), event -> event.getString("stepName"), event -> event.getString("partitionId"), event -> event.getLong("itemCount"))
+                .containsExactlyInAnyOrder(
+                        tuple("com.fastcampus.pass.ChunkRead", "addPassesWorkerStep", "G10024", 3L),
+                        tuple("com.fastcampus.pass.ChunkProcess", "addPassesWorkerStep", "G10024", 3L),
+                        tuple("com.fastcampus.pass.ChunkWrite", "addPassesWorkerStep", "G10024", 3L),
+                        tuple("com.fastcampus.pass.ChunkCommit", "addPassesWorkerStep", "G10024", 3L),
+                        tuple("com.fastcampus.pass.TaskletExecution", "completeBulkPassesStep", "", 5L));
+    }
+
+    @DisplayName("jfr 파라미터 없이 실행하면 recording을 만들지 않고 chunk 진행 상태도 저장하지 않는다.")
+    @Test
+    void test_disabled() {
+        // Given
+        final FlightRecorderListener listener = new FlightRecorderListener(directory.toString());
+        final JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("addPassesJob", 1L, 1L);
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(MetaDataInstanceFactory.createStepExecution(jobExecution, "addPassesWorkerStep", 1L)));
+
+        // When
+        listener.beforeJob(jobExecution);
+        listener.beforeChunk(chunkContext);
+        listener.beforeRead();
+        listener.afterRead("item");
+        listener.afterChunk(chunkContext);
+        listener.afterJob(jobExecution);
+
+        // Then
+        assertThat(directory).isEmptyDirectory();
+    }
+
+}
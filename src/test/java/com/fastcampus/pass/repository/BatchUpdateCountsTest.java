@@ -0,0 +1,38 @@
+package com.fastcampus.pass.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchUpdateCountsTest {
+
+    @DisplayName("배치를 나눠서 실행한 update count를 넘긴 순서대로 펼쳐서, 바뀐 row만 true로 반환한다.")
+    @Test
+    void test_updated() {
+        // Given
+        final int[][] updateCounts = {{1, 0, 1}, {0, 1}};
+
+        // When
+        final boolean[] updated = BatchUpdateCounts.updated(updateCounts);
+
+        // Then
+        assertThat(updated).containsExactly(true, false, true, false, true);
+        assertThat(BatchUpdateCounts.count(updateCounts)).isEqualTo(3);
+    }
+
+    @DisplayName("driver가 건별 update count를 주지 않으면(SUCCESS_NO_INFO) 바뀐 것으로 보지 않고 예외를 던진다.")
+    @Test
+    void test_updated_successNoInfo() {
+        // Given
+        final int[][] updateCounts = {{1, Statement.SUCCESS_NO_INFO}};
+
+        // When, Then
+        assertThatThrownBy(() -> BatchUpdateCounts.updated(updateCounts)).isInstanceOf(IncorrectUpdateSemanticsDataAccessException.class);
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.fastcampus.pass.repository;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.job.ColumnRangePartitioner;
+import com.fastcampus.pass.job.notification.SendNotificationJobConfig;
+import com.fastcampus.pass.job.pass.AddPassesJobConfig;
+import com.fastcampus.pass.job.pass.BulkExpirePassesTasklet;
+import com.fastcampus.pass.job.pass.CompleteBulkPassesTasklet;
+import com.fastcampus.pass.job.pass.ExpirePassesJobConfig;
+import com.fastcampus.pass.job.pass.PassLifecycleTasklet;
+import com.fastcampus.pass.job.pass.PushDownAddPassesTasklet;
+import com.fastcampus.pass.job.pass.TransitionPassesJobConfig;
+import com.fastcampus.pass.job.pass.UsePassesJobConfig;
+import com.fastcampus.pass.job.pass.UserGroupMembershipCache;
+import com.fastcampus.pass.job.statistics.MakeStatisticsJobConfig;
+import com.fastcampus.pass.repository.booking.BookingModificationRepository;
+import com.fastcampus.pass.repository.pass.BulkPassRepository;
+import com.fastcampus.pass.repository.pass.BulkPassStatus;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import com.fastcampus.pass.repository.statistics.StatisticsRepository;
+import com.fastcampus.pass.repository.user.UserGroupMappingRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 배치에서 사용하는 조회/변경 쿼리가 인덱스를 타는지 확인한다.
+ * H2의 EXPLAIN 결과에서 테이블 전체를 읽는 경우 "tableScan"으로 표시되기 때문에, 이 문자열이 없어야 한다.
+ *
+ * SQL은 reader와 tasklet이 사용하는 상수를 그대로 가져온다. 쿼리를 바꾸면 이 테스트도 바뀐 쿼리로 확인한다.
+ * JPQL이나 Spring Data 메소드 쿼리는 실제로 실행해서 Hibernate가 만든 SQL을 StatementInspector로 가져온 뒤 확인한다.
+ *
+ * 테스트 DB 스키마는 엔티티로 생성되기 때문에, db/initdb.d/create_table.sql에 인덱스를 추가하면 엔티티의 @Table(indexes)에도 같이 추가해야 한다.
+ */
+@Slf4j
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.fastcampus.pass.repository.QueryPlanTest$LastStatementInspector")
+class QueryPlanTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private BulkPassRepository bulkPassRepository;
+    @Autowired
+    private UserGroupMappingRepository userGroupMappingRepository;
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                // AddPassesJobConfig.addPassesItemReader
+                Arguments.of("addPassesItemReader", AddPassesJobConfig.ADD_PASSES_SQL,
+                        new Object[]{"GROUP", "READY", NOW, 10}),
+                // CompleteBulkPassesTasklet
+                Arguments.of("completeBulkPasses", CompleteBulkPassesTasklet.UPDATE_SQL,
+                        new Object[]{"COMPLETED", "READY", NOW, 10}),
+                // PushDownAddPassesTasklet
+                Arguments.of("pushDownAddPassesMax", PushDownAddPassesTasklet.SELECT_MAX_SQL,
+                        new Object[]{"READY", NOW}),
+                Arguments.of("pushDownAddPassesNext", PushDownAddPassesTasklet.SELECT_NEXT_SQL,
+                        new Object[]{"READY", NOW, 10}),
+                Arguments.of("pushDownAddPassesInsertSelect", PushDownAddPassesTasklet.INSERT_SELECT_SQL,
+                        new Object[]{1, "READY", 10, NOW, NOW, NOW, NOW, "GROUP"}),
+                // ExpirePassesJobConfig.expirePassesPartitioner
+                Arguments.of("expirePassesPartitioner", ColumnRangePartitioner.rangeSql("pass", "pass_seq", ExpirePassesJobConfig.EXPIRE_PASSES_WHERE),
+                        new Object[]{"IN_PROGRESS", NOW}),
+                // BulkExpirePassesTasklet
+                Arguments.of("bulkExpirePassesRange", BulkExpirePassesTasklet.SELECT_RANGE_SQL,
+                        new Object[]{"IN_PROGRESS", NOW}),
+                Arguments.of("bulkExpirePasses", BulkExpirePassesTasklet.UPDATE_SQL,
+                        new Object[]{"EXPIRED", NOW, NOW, "IN_PROGRESS", NOW, 1, 100}),
+                // PassLifecycleTasklet
+                Arguments.of("passLifecycleStarts", PassLifecycleTasklet.SELECT_STARTS_SQL,
+                        new Object[]{"READY", NOW, NOW.plusHours(1)}),
+                Arguments.of("passLifecycleEnds", PassLifecycleTasklet.SELECT_ENDS_SQL,
+                        new Object[]{"READY", "IN_PROGRESS", NOW, NOW.plusHours(1)}),
+                Arguments.of("passLifecycleOverdueStarts", PassLifecycleTasklet.SELECT_OVERDUE_STARTS_SQL,
+                        new Object[]{"READY", NOW, NOW, 500}),
+                Arguments.of("passLifecycleOverdueEnds", PassLifecycleTasklet.SELECT_OVERDUE_ENDS_SQL,
+                        new Object[]{"READY", "IN_PROGRESS", NOW, 500}),
+                // UsePassesJobConfig.usePassesPartitioner, usePassesItemReader
+                Arguments.of("usePassesPartitioner", ColumnRangePartitioner.rangeSql("booking", "booking_seq", UsePassesJobConfig.USE_PASSES_WHERE),
+                        new Object[]{"COMPLETED"}),
+                Arguments.of("usePassesItemReader", UsePassesJobConfig.USE_PASSES_SQL,
+                        new Object[]{"COMPLETED", 1, 100}),
+                // SendNotificationJobConfig.sendNotificationItemReader
+                Arguments.of("sendNotificationItemReader", SendNotificationJobConfig.SEND_NOTIFICATION_SQL,
+                        new Object[]{}),
+                // MakeStatisticsJobConfig.addStatisticsItemReader: 다시 계산할 날짜 구간이 두 개인 경우
+                Arguments.of("addStatisticsItemReader", MakeStatisticsJobConfig.addStatisticsSql(2),
+                        new Object[]{NOW.minusDays(10), NOW.minusDays(9), NOW.minusDays(1), NOW}),
+                // BookingModificationRepository.findEndedDatesModifiedBetween
+                Arguments.of("findEndedDatesModifiedBetween", BookingModificationRepository.SELECT_ENDED_DATES_SQL,
+                        new Object[]{NOW.minusDays(1), NOW})
+        );
+    }
+
+    // named parameter를 사용하는 쿼리
+    static Stream<Arguments> namedQueries() {
+        final Map<String, Object> transitionParameters = Map.of("ready", "READY", "inProgress", "IN_PROGRESS", "now", NOW, "_pass_seq", 100);
+        return Stream.of(
+                // TransitionPassesJobConfig.transitionPassesItemReader: 시작할 이용권과 만료할 이용권을 각각의 인덱스 범위에서 page 크기만큼 읽는다.
+                Arguments.of("transitionPassesItemReaderFirstPage", TransitionPassesJobConfig.transitionPassesQueryProvider().generateFirstPageQuery(PAGE_SIZE),
+                        transitionParameters),
+                Arguments.of("transitionPassesItemReader", TransitionPassesJobConfig.transitionPassesQueryProvider().generateRemainingPagesQuery(PAGE_SIZE),
+                        transitionParameters),
+                // UserGroupMembershipCache: 기본 키 (user_group_id, user_id)를 사용한다.
+                Arguments.of("userGroupMembershipStamps", UserGroupMembershipCache.SELECT_STAMPS_SQL,
+                        Map.of("userGroupIds", List.of("GROUP_A", "GROUP_B"))),
+                Arguments.of("userGroupMembershipUserIds", UserGroupMembershipCache.SELECT_USER_IDS_SQL,
+                        Map.of("userGroupIds", List.of("GROUP_A", "GROUP_B")))
+        );
+    }
+
+    // JPQL, Spring Data 메소드 쿼리. 실행한 뒤 Hibernate가 만든 SQL에 같은 순서로 값을 넣는다.
+    static Stream<Arguments> jpaQueries() {
+        return Stream.of(
+                // BulkPassRepository.findByStatusAndStartedAtGreaterThan
+                Arguments.of("findByStatusAndStartedAtGreaterThan",
+                        (Consumer<QueryPlanTest>) test -> test.bulkPassRepository.findByStatusAndStartedAtGreaterThan(BulkPassStatus.READY, NOW),
+                        new Object[]{"READY", NOW}),
+                // UserGroupMappingRepository.findByUserGroupId
+                Arguments.of("findByUserGroupId",
+                        (Consumer<QueryPlanTest>) test -> test.userGroupMappingRepository.findByUserGroupId("GROUP"),
+                        new Object[]{"GROUP"}),
+                // ExpirePassesJobConfig.expirePassesItemReader
+                Arguments.of("expirePassesItemReader",
+                        (Consumer<QueryPlanTest>) test -> test.entityManager.createQuery(ExpirePassesJobConfig.EXPIRE_PASSES_QUERY, PassEntity.class)
+                                .setParameter("status", PassStatus.IN_PROGRESS)
+                                .setParameter("endedAt", NOW)
+                                .setParameter("minPassSeq", 1)
+                                .setParameter("maxPassSeq", 100)
+                                .getResultList(),
+                        new Object[]{"IN_PROGRESS", NOW, 1, 100}),
+                // StatisticsRepository.findByStatisticsAtBetweenAndGroupBy
+                Arguments.of("findByStatisticsAtBetweenAndGroupBy",
+                        (Consumer<QueryPlanTest>) test -> test.statisticsRepository.findByStatisticsAtBetweenAndGroupBy(NOW.minusDays(7), NOW),
+                        new Object[]{NOW.minusDays(7), NOW})
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void test_queryPlan(String name, String sql, Object[] args) {
+        // When
+        final String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+        log.info("{}: {}", name, plan);
+
+        // Then
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("namedQueries")
+    void test_namedQueryPlan(String name, String sql, Map<String, Object> parameters) {
+        // When
+        final String plan = new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject("EXPLAIN " + sql, parameters, String.class);
+        log.info("{}: {}", name, plan);
+
+        // Then
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("jpaQueries")
+    void test_jpaQueryPlan(String name, Consumer<QueryPlanTest> query, Object[] args) {
+        // Given
+        LastStatementInspector.lastSql = null;
+        query.accept(this);
+        final String sql = LastStatementInspector.lastSql;
+
+        // When
+        final String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+        log.info("{}: {} / {}", name, sql, plan);
+
+        // Then
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    // Hibernate가 마지막으로 만든 SQL을 보관한다. Hibernate가 클래스 이름으로 생성하기 때문에 public이어야 한다.
+    public static class LastStatementInspector implements StatementInspector {
+        static volatile String lastSql;
+
+        @Override
+        public String inspect(String sql) {
+            lastSql = sql;
+            return sql;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.fastcampus.pass.repository;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassRepository;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * reader는 테스트 트랜잭션과 다른 커넥션으로 조회하기 때문에, 테스트 데이터를 commit 하고 끝나면 지운다.
+ */
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatelessSessionCursorItemReaderTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PassRepository passRepository;
+
+    @AfterEach
+    void tearDown() {
+        passRepository.deleteAll();
+    }
+
+    @DisplayName("조건에 맞는 엔티티만 cursor로 끝까지 읽는다.")
+    @Test
+    void test_read() throws Exception {
+        // Given
+        for (int i = 0; i < 7; ++i) {
+            passRepository.save(passEntity(i % 3 == 0 ? PassStatus.EXPIRED : PassStatus.IN_PROGRESS));
+        }
+        final StatelessSessionCursorItemReader<PassEntity> reader = new StatelessSessionCursorItemReader<>("reader",
+                entityManagerFactory.unwrap(SessionFactory.class), "SELECT p FROM PassEntity p WHERE p.status = :status ORDER BY p.passSeq",
+                PassEntity.class, Map.of("status", PassStatus.IN_PROGRESS), 2);
+
+        // When
+        List<PassEntity> passEntities = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        try {
+            PassEntity passEntity;
+            while ((passEntity = reader.read()) != null) {
+                passEntities.add(passEntity);
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Then
+        assertThat(passEntities).hasSize(4);
+        assertThat(passEntities).allMatch(passEntity -> passEntity.getStatus() == PassStatus.IN_PROGRESS);
+        assertThat(passEntities).extracting(PassEntity::getPassSeq).isSorted();
+    }
+
+    private PassEntity passEntity(PassStatus status) {
+        final LocalDateTime now = LocalDateTime.now();
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A1000000");
+        passEntity.setStatus(status);
+        passEntity.setRemainingCount(10);
+        passEntity.setStartedAt(now.minusDays(10));
+        passEntity.setEndedAt(now.plusDays(10));
+        return passEntity;
+    }
+
+}
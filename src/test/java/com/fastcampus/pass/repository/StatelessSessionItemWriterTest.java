@@ -0,0 +1,117 @@
+package com.fastcampus.pass.repository;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassRepository;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import com.fastcampus.pass.repository.user.UserGroupMappingEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class StatelessSessionItemWriterTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PassRepository passRepository;
+
+    @DisplayName("변경한 엔티티를 update 하고, modified_at을 채운다.")
+    @Test
+    void test_write_update() {
+        // Given
+        List<PassEntity> passEntities = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            passEntities.add(passRepository.save(passEntity()));
+        }
+        passRepository.flush();
+        final LocalDateTime expiredAt = LocalDateTime.now();
+        passEntities.forEach(passEntity -> {
+            passEntity.setStatus(PassStatus.EXPIRED);
+            passEntity.setExpiredAt(expiredAt);
+        });
+        final StatelessSessionItemWriter<PassEntity> writer = new StatelessSessionItemWriter<>(sessionFactory(), dataSource, StatelessSessionItemWriter.Operation.UPDATE);
+
+        // When
+        writer.write(new Chunk<>(passEntities));
+
+        // Then
+        // StatelessSession은 chunk 트랜잭션의 커넥션에서 실행되기 때문에, commit 전에도 같은 트랜잭션에서 변경 내용이 보인다.
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE status = 'EXPIRED' AND expired_at IS NOT NULL", Integer.class)).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE created_at IS NULL OR modified_at < ?", Integer.class, expiredAt)).isZero();
+    }
+
+    @DisplayName("insert 할 때는 entity listener 대신 created_at, modified_at을 직접 채운다.")
+    @Test
+    void test_write_insert() {
+        // Given
+        List<UserGroupMappingEntity> userGroupMappingEntities = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            UserGroupMappingEntity userGroupMappingEntity = new UserGroupMappingEntity();
+            userGroupMappingEntity.setUserGroupId("GROUP");
+            userGroupMappingEntity.setUserId("A100000" + i);
+            userGroupMappingEntity.setUserGroupName("그룹");
+            userGroupMappingEntities.add(userGroupMappingEntity);
+        }
+        final StatelessSessionItemWriter<UserGroupMappingEntity> writer = new StatelessSessionItemWriter<>(sessionFactory(), dataSource, StatelessSessionItemWriter.Operation.INSERT);
+
+        // When
+        writer.write(new Chunk<>(userGroupMappingEntities));
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_group_mapping WHERE user_group_id = 'GROUP' AND created_at IS NOT NULL AND modified_at IS NOT NULL", Integer.class)).isEqualTo(3);
+    }
+
+    @DisplayName("트랜잭션 밖에서 호출하면 commit 되지 않기 때문에 예외를 던진다.")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Test
+    void test_write_withoutTransaction() {
+        // Given
+        final StatelessSessionItemWriter<PassEntity> writer = new StatelessSessionItemWriter<>(sessionFactory(), dataSource, StatelessSessionItemWriter.Operation.UPDATE);
+
+        // When, Then
+        assertThatThrownBy(() -> writer.write(new Chunk<>(List.of(passEntity()))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private PassEntity passEntity() {
+        final LocalDateTime now = LocalDateTime.now();
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A1000000");
+        passEntity.setStatus(PassStatus.IN_PROGRESS);
+        passEntity.setRemainingCount(10);
+        passEntity.setStartedAt(now.minusDays(10));
+        passEntity.setEndedAt(now.minusDays(1));
+        return passEntity;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.fastcampus.pass.repository;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.pass.PassEntity;
+import com.fastcampus.pass.repository.pass.PassRepository;
+import com.fastcampus.pass.repository.pass.PassStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * reader는 테스트 트랜잭션과 다른 커넥션으로 조회하기 때문에, 테스트 데이터를 commit 하고 끝나면 지운다.
+ */
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UnionAllPagingQueryProviderTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PassRepository passRepository;
+
+    @AfterEach
+    void tearDown() {
+        passRepository.deleteAll();
+    }
+
+    @DisplayName("branch마다 page를 나눠 읽어도, 조건에 맞는 row를 정렬 키 순서로 한 번씩 읽는다.")
+    @Test
+    void test_read() throws Exception {
+        // Given: READY, IN_PROGRESS, EXPIRED 이용권이 번갈아 저장되어 branch마다 page 경계가 다르다.
+        final PassStatus[] statuses = {PassStatus.READY, PassStatus.IN_PROGRESS, PassStatus.EXPIRED};
+        List<Integer> expectedPassSeqs = new ArrayList<>();
+        for (int i = 0; i < 11; ++i) {
+            final PassEntity passEntity = passRepository.save(passEntity(statuses[i % 3]));
+            if (passEntity.getStatus() != PassStatus.EXPIRED) {
+                expectedPassSeqs.add(passEntity.getPassSeq());
+            }
+        }
+        final JdbcPagingItemReader<Integer> reader = new JdbcPagingItemReaderBuilder<Integer>()
+                .name("reader")
+                .dataSource(dataSource)
+                .pageSize(2)
+                .queryProvider(new UnionAllPagingQueryProvider("pass_seq", "pass",
+                        List.of("status = :ready", "status = :inProgress"), "pass_seq"))
+                .parameterValues(Map.of("ready", PassStatus.READY.name(), "inProgress", PassStatus.IN_PROGRESS.name()))
+                .rowMapper((rs, rowNum) -> rs.getInt("pass_seq"))
+                .build();
+        reader.afterPropertiesSet();
+
+        // When
+        List<Integer> passSeqs = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        try {
+            Integer passSeq;
+            while ((passSeq = reader.read()) != null) {
+                passSeqs.add(passSeq);
+            }
+        } finally {
+            reader.close();
+        }
+
+        // Then
+        assertThat(passSeqs).containsExactlyElementsOf(expectedPassSeqs);
+    }
+
+    @DisplayName("두 번째 page부터는 branch마다 마지막으로 읽은 정렬 키 다음부터 page 크기만큼만 읽는다.")
+    @Test
+    void test_generateRemainingPagesQuery() {
+        // Given
+        final UnionAllPagingQueryProvider queryProvider = new UnionAllPagingQueryProvider("pass_seq, status", "pass",
+                List.of("status = :ready", "status = :inProgress"), "pass_seq");
+
+        // When
+        final String query = queryProvider.generateRemainingPagesQuery(100);
+
+        // Then
+        assertThat(query).isEqualTo("(SELECT pass_seq, status FROM pass WHERE (status = :ready) AND pass_seq > :_pass_seq ORDER BY pass_seq ASC LIMIT 100)"
+                + " UNION ALL "
+                + "(SELECT pass_seq, status FROM pass WHERE (status = :inProgress) AND pass_seq > :_pass_seq ORDER BY pass_seq ASC LIMIT 100)"
+                + " ORDER BY pass_seq ASC LIMIT 100");
+    }
+
+    private PassEntity passEntity(PassStatus status) {
+        final LocalDateTime now = LocalDateTime.now();
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A1000000");
+        passEntity.setStatus(status);
+        passEntity.setRemainingCount(10);
+        passEntity.setStartedAt(now.minusDays(10));
+        passEntity.setEndedAt(now.plusDays(10));
+        return passEntity;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.fastcampus.pass.repository.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class PassBatchInsertWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PassRepository passRepository;
+
+    @DisplayName("multi-row INSERT 묶음과 나머지 row가 모두 저장된다.")
+    @Test
+    void test_insertAll() {
+        // Given
+        // INSERT 문 하나에 3 row, 배치 하나에 INSERT 문 2개 → 3 + 3 + 3 (배치 2회) + 나머지 1 row
+        PassBatchInsertWriter passBatchInsertWriter = new PassBatchInsertWriter(jdbcTemplate, 3, 2);
+        final LocalDateTime now = LocalDateTime.now();
+
+        List<PassEntity> passEntities = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            PassEntity passEntity = new PassEntity();
+            passEntity.setPackageSeq(1);
+            passEntity.setUserId("A" + (1000000 + i));
+            passEntity.setStatus(PassStatus.READY);
+            passEntity.setRemainingCount(i % 2 == 0 ? 10 : null);
+            passEntity.setStartedAt(now);
+            passEntity.setEndedAt(now.plusDays(30));
+            passEntities.add(passEntity);
+        }
+
+        // When
+        final int count = passBatchInsertWriter.insertAll(passEntities);
+
+        // Then
+        assertThat(count).isEqualTo(10);
+        final List<PassEntity> savedPassEntities = passRepository.findAll();
+        assertThat(savedPassEntities).hasSize(10);
+        assertThat(savedPassEntities).allSatisfy(passEntity -> assertThat(passEntity.getStatus()).isEqualTo(PassStatus.READY));
+        assertThat(savedPassEntities).filteredOn(passEntity -> passEntity.getRemainingCount() == null).hasSize(5);
+        // Auditing 컬럼을 직접 채웠는지 확인한다.
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE created_at IS NOT NULL AND modified_at IS NOT NULL", Integer.class)).isEqualTo(10);
+    }
+
+}
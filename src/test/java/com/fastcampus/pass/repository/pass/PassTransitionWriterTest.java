@@ -0,0 +1,72 @@
+package com.fastcampus.pass.repository.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class PassTransitionWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PassRepository passRepository;
+
+    @DisplayName("바뀔 상태별로 UPDATE 하고, 읽은 뒤에 상태가 바뀐 이용권은 건너뛴다.")
+    @Test
+    void test_write() {
+        // Given
+        final PassEntity readyPass = passRepository.save(passEntity(PassStatus.READY));
+        final PassEntity endedReadyPass = passRepository.save(passEntity(PassStatus.READY));
+        final PassEntity inProgressPass = passRepository.save(passEntity(PassStatus.IN_PROGRESS));
+        // 읽은 뒤에 다른 job이 먼저 만료시킨 이용권
+        final PassEntity expiredPass = passRepository.save(passEntity(PassStatus.EXPIRED));
+        passRepository.flush();
+        final PassTransitionWriter passTransitionWriter = new PassTransitionWriter(jdbcTemplate);
+
+        // When
+        passTransitionWriter.write(new Chunk<>(List.of(
+                new PassTransition(readyPass.getPassSeq(), PassStatus.READY, PassStatus.IN_PROGRESS),
+                new PassTransition(endedReadyPass.getPassSeq(), PassStatus.READY, PassStatus.EXPIRED),
+                new PassTransition(inProgressPass.getPassSeq(), PassStatus.IN_PROGRESS, PassStatus.EXPIRED),
+                new PassTransition(expiredPass.getPassSeq(), PassStatus.READY, PassStatus.IN_PROGRESS))));
+
+        // Then
+        assertThat(status(readyPass)).isEqualTo("IN_PROGRESS");
+        assertThat(status(endedReadyPass)).isEqualTo("EXPIRED");
+        assertThat(status(inProgressPass)).isEqualTo("EXPIRED");
+        assertThat(status(expiredPass)).isEqualTo("EXPIRED");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE expired_at IS NOT NULL", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pass WHERE modified_at IS NOT NULL AND status <> 'EXPIRED'", Integer.class)).isEqualTo(1);
+    }
+
+    private String status(PassEntity passEntity) {
+        return jdbcTemplate.queryForObject("SELECT status FROM pass WHERE pass_seq = ?", String.class, passEntity.getPassSeq());
+    }
+
+    private PassEntity passEntity(PassStatus status) {
+        final LocalDateTime now = LocalDateTime.now();
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A1000000");
+        passEntity.setStatus(status);
+        passEntity.setRemainingCount(10);
+        passEntity.setStartedAt(now.minusDays(10));
+        passEntity.setEndedAt(now.minusDays(1));
+        return passEntity;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.fastcampus.pass.repository.pass;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import com.fastcampus.pass.repository.booking.BookingEntity;
+import com.fastcampus.pass.repository.booking.BookingRepository;
+import com.fastcampus.pass.repository.booking.BookingStatus;
+import com.fastcampus.pass.repository.booking.BookingUsage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+class PassUsageWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PassRepository passRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @DisplayName("예약을 이용권별로 묶어서 잔여 횟수를 차감하고, 이미 차감한 예약은 다시 차감하지 않는다.")
+    @Test
+    void test_useAll() {
+        // Given
+        final PassEntity passA = passRepository.save(passEntity(10));
+        final PassEntity passB = passRepository.save(passEntity(5));
+        final PassEntity unlimitedPass = passRepository.save(passEntity(null));
+
+        List<BookingUsage> bookingUsages = new ArrayList<>();
+        for (PassEntity passEntity : List.of(passA, passA, passA, passB, unlimitedPass)) {
+            final BookingEntity bookingEntity = bookingRepository.save(bookingEntity(passEntity.getPassSeq()));
+            bookingUsages.add(new BookingUsage(bookingEntity.getBookingSeq(), bookingEntity.getPassSeq()));
+        }
+        bookingRepository.flush();
+        final PassUsageWriter passUsageWriter = new PassUsageWriter(jdbcTemplate);
+
+        // When
+        final int firstUsedCount = passUsageWriter.useAll(bookingUsages);
+        // 같은 예약을 다시 넘겨도 used_pass = TRUE인 예약은 건너뛴다.
+        final int secondUsedCount = passUsageWriter.useAll(bookingUsages.subList(0, 2));
+
+        // Then
+        assertThat(firstUsedCount).isEqualTo(5);
+        assertThat(secondUsedCount).isZero();
+        assertThat(remainingCount(passA)).isEqualTo(7);
+        assertThat(remainingCount(passB)).isEqualTo(4);
+        assertThat(remainingCount(unlimitedPass)).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking WHERE used_pass = TRUE", Integer.class)).isEqualTo(5);
+    }
+
+    private Integer remainingCount(PassEntity passEntity) {
+        return jdbcTemplate.queryForObject("SELECT remaining_count FROM pass WHERE pass_seq = ?", Integer.class, passEntity.getPassSeq());
+    }
+
+    private PassEntity passEntity(Integer remainingCount) {
+        final LocalDateTime now = LocalDateTime.now();
+        PassEntity passEntity = new PassEntity();
+        passEntity.setPackageSeq(1);
+        passEntity.setUserId("A1000000");
+        passEntity.setStatus(PassStatus.IN_PROGRESS);
+        passEntity.setRemainingCount(remainingCount);
+        passEntity.setStartedAt(now.minusDays(10));
+        passEntity.setEndedAt(now.plusDays(10));
+        return passEntity;
+    }
+
+    private BookingEntity bookingEntity(Integer passSeq) {
+        final LocalDateTime now = LocalDateTime.now();
+        BookingEntity bookingEntity = new BookingEntity();
+        bookingEntity.setPassSeq(passSeq);
+        bookingEntity.setUserId("A1000000");
+        bookingEntity.setStatus(BookingStatus.COMPLETED);
+        bookingEntity.setStartedAt(now.minusHours(2));
+        bookingEntity.setEndedAt(now.minusHours(1));
+        return bookingEntity;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.fastcampus.pass.repository.statistics;
+
+import com.fastcampus.pass.config.TestBatchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ON DUPLICATE KEY UPDATE 구문을 사용하기 때문에 H2를 MySQL 모드로 띄운다.
+@ActiveProfiles("test")
+@Import(TestBatchConfig.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statistics;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+class StatisticsUpsertWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("같은 날의 통계가 이미 있으면 건수를 덮어쓰고, 없으면 새로 저장한다.")
+    @Test
+    void test_upsertAll() {
+        // Given
+        final StatisticsUpsertWriter statisticsUpsertWriter = new StatisticsUpsertWriter(jdbcTemplate);
+        final LocalDateTime today = LocalDateTime.of(2022, 9, 1, 0, 0);
+        statisticsUpsertWriter.upsertAll(List.of(statisticsEntity(today, 3, 2, 1)));
+
+        // When
+        statisticsUpsertWriter.upsertAll(List.of(statisticsEntity(today, 2, 1, 0), statisticsEntity(today.plusDays(1), 1, 1, 0)));
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM statistics", Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT all_count, attended_count, cancelled_count FROM statistics WHERE statistics_at = ?", today))
+                .singleElement()
+                .satisfies(row -> assertThat(row.values()).containsExactly(2, 1, 0));
+    }
+
+    @DisplayName("넘겨받은 날의 통계를 지운다.")
+    @Test
+    void test_deleteAll() {
+        // Given
+        final StatisticsUpsertWriter statisticsUpsertWriter = new StatisticsUpsertWriter(jdbcTemplate);
+        final LocalDateTime today = LocalDateTime.of(2022, 9, 1, 0, 0);
+        statisticsUpsertWriter.upsertAll(List.of(statisticsEntity(today, 3, 2, 1), statisticsEntity(today.plusDays(1), 1, 1, 0)));
+
+        // When
+        statisticsUpsertWriter.deleteAll(List.of(today));
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT statistics_at FROM statistics", LocalDateTime.class)).containsExactly(today.plusDays(1));
+    }
+
+    private StatisticsEntity statisticsEntity(LocalDateTime statisticsAt, int allCount, int attendedCount, int cancelledCount) {
+        StatisticsEntity statisticsEntity = new StatisticsEntity();
+        statisticsEntity.setStatisticsAt(statisticsAt);
+        statisticsEntity.setAllCount(allCount);
+        statisticsEntity.setAttendedCount(attendedCount);
+        statisticsEntity.setCancelledCount(cancelledCount);
+        return statisticsEntity;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.fastcampus.pass.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReportWriterTest {
+
+    @TempDir
+    private Path directory;
+
+    @DisplayName("row를 UTF-8로 쓰고, 완료되면 최종 파일 이름으로 바꾼다.")
+    @Test
+    void test_writeAll() throws Exception {
+        // Given
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(directory.resolve("report.csv"), false, new SimpleMeterRegistry(), "name", "count");
+        final ExecutionContext executionContext = new ExecutionContext();
+
+        // When
+        final long rows = csvReportWriter.writeAll(executionContext, Stream.of(new String[]{"한바다", "1"}, new String[]{"태산", "2"}));
+
+        // Then
+        assertThat(rows).isEqualTo(2);
+        assertThat(Files.readString(directory.resolve("report.csv"), StandardCharsets.UTF_8))
+                .isEqualTo("\"name\",\"count\"\n\"한바다\",\"1\"\n\"태산\",\"2\"\n");
+        assertThat(directory.resolve("report.csv.tmp")).doesNotExist();
+        assertThat(executionContext.getLong(CsvReportWriter.ROWS)).isEqualTo(2);
+        assertThat(executionContext.getLong(CsvReportWriter.BYTES)).isEqualTo(Files.size(directory.resolve("report.csv")));
+    }
+
+    @DisplayName("publish 하면 쓴 row 수와 파일 크기를 job, step 이름 tag로 기록한다.")
+    @Test
+    void test_writeAll_metrics() throws Exception {
+        // Given
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(directory.resolve("report.csv"), false, meterRegistry, "name");
+        final JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("makeStatisticsJob", 1L, 1L);
+        final StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution(jobExecution, "makeDailyStatisticsStep", 1L);
+
+        // When
+        StepSynchronizationManager.register(stepExecution);
+        try {
+            csvReportWriter.writeAll(new ExecutionContext(), Stream.of(new String[]{"A"}, new String[]{"B"}));
+
+        } finally {
+            StepSynchronizationManager.close();
+
+        }
+
+        // Then
+        assertThat(meterRegistry.get("batch.report.rows").tags("job.name", "makeStatisticsJob", "step.name", "makeDailyStatisticsStep").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("batch.report.bytes").tags("job.name", "makeStatisticsJob", "step.name", "makeDailyStatisticsStep").counter().count())
+                .isEqualTo(Files.size(directory.resolve("report.csv")));
+    }
+
+    @DisplayName("gzip 옵션을 켜면 .gz 파일로 압축해서 쓴다.")
+    @Test
+    void test_writeAll_gzip() throws Exception {
+        // Given
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(directory.resolve("report.csv"), true, new SimpleMeterRegistry(), "name");
+
+        // When
+        csvReportWriter.writeAll(new ExecutionContext(), Stream.<String[]>of(new String[]{"A"}));
+
+        // Then
+        assertThat(csvReportWriter.getTarget()).isEqualTo(directory.resolve("report.csv.gz"));
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(csvReportWriter.getTarget()))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("\"name\"\n\"A\"\n");
+        }
+    }
+
+    @DisplayName("row를 만드는 중에 실패하면 예외를 던지고, 기존 파일은 그대로 두고 임시 파일은 지운다.")
+    @Test
+    void test_writeAll_failure() throws Exception {
+        // Given
+        Files.writeString(directory.resolve("report.csv"), "previous");
+        final CsvReportWriter csvReportWriter = new CsvReportWriter(directory.resolve("report.csv"), false, new SimpleMeterRegistry(), "name");
+        final Stream<String[]> rowStream = Stream.of("A", null).map(name -> new String[]{name.toLowerCase()});
+
+        // When, Then
+        assertThatThrownBy(() -> csvReportWriter.writeAll(new ExecutionContext(), rowStream)).isInstanceOf(NullPointerException.class);
+        assertThat(Files.readString(directory.resolve("report.csv"))).isEqualTo("previous");
+        assertThat(directory.resolve("report.csv.tmp")).doesNotExist();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.fastcampus.pass.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @DisplayName("deadline을 tick 단위로 올림해서, 그 tick에 도달했을 때 꺼낸다.")
+    @Test
+    void test_advance() {
+        // Given
+        // tick 10ms, level 2개: level 0은 4 tick, level 1은 16 tick까지 담고, 그 뒤는 overflow에 둔다.
+        final TimingWheel<String> timingWheel = new TimingWheel<>(10, 4, 2, 0);
+        timingWheel.add(5, "a");
+        timingWheel.add(30, "b");
+        timingWheel.add(95, "c");
+        timingWheel.add(500, "d");
+        timingWheel.add(0, "e");
+
+        // When, Then
+        assertThat(timingWheel.size()).isEqualTo(5);
+        assertThat(timingWheel.advance(0)).containsExactly("e");
+        assertThat(timingWheel.advance(9)).isEmpty();
+        assertThat(timingWheel.advance(10)).containsExactly("a");
+        assertThat(timingWheel.advance(29)).isEmpty();
+        assertThat(timingWheel.advance(30)).containsExactly("b");
+        assertThat(timingWheel.advance(99)).isEmpty();
+        assertThat(timingWheel.advance(100)).containsExactly("c");
+        assertThat(timingWheel.advance(499)).isEmpty();
+        assertThat(timingWheel.advance(500)).containsExactly("d");
+        assertThat(timingWheel.size()).isZero();
+    }
+
+    @DisplayName("임의의 deadline을 임의의 간격으로 진행해도, deadline이 지난 항목만 빠짐없이 한 번씩 꺼낸다.")
+    @Test
+    void test_advance_random() {
+        // Given
+        final Random random = new Random(42);
+        final long tickMillis = 10;
+        final TimingWheel<Long> timingWheel = new TimingWheel<>(tickMillis, 8, 3, 1_000);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            final long deadline = 1_000 + random.nextInt(50_000);
+            deadlines.add(deadline);
+            timingWheel.add(deadline, deadline);
+        }
+
+        // When, Then
+        Set<Long> fired = new HashSet<>();
+        long now = 1_000;
+        while (now < 52_000) {
+            now += random.nextInt(300);
+            final long nowTick = now / tickMillis;
+            for (Long deadline : timingWheel.advance(now)) {
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                fired.add(deadline);
+            }
+            // deadline이 속한 tick이 지났다면 이미 꺼냈어야 한다.
+            for (Long deadline : deadlines) {
+                if ((deadline + tickMillis - 1) / tickMillis <= nowTick) {
+                    assertThat(fired).contains(deadline);
+                }
+            }
+        }
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(new HashSet<>(deadlines));
+        assertThat(timingWheel.size()).isZero();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.fastcampus.pass.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @DisplayName("capacity 개까지는 바로 받고, 그 다음부터는 token이 채워지는 간격만큼 기다린다.")
+    @Test
+    void test_reserve() {
+        // Given
+        final AtomicLong now = new AtomicLong(1_000 * MILLIS);
+        final TokenBucket tokenBucket = new TokenBucket(10, 3, now::get);
+
+        // When, Then
+        assertThat(tokenBucket.reserve()).isZero();
+        assertThat(tokenBucket.reserve()).isZero();
+        assertThat(tokenBucket.reserve()).isZero();
+        assertThat(tokenBucket.reserve()).isEqualTo(100 * MILLIS);
+        assertThat(tokenBucket.reserve()).isEqualTo(200 * MILLIS);
+
+        // 예약된 token까지 지난 뒤, 한참 쉬어도 capacity 개까지만 모인다.
+        now.addAndGet(10_000 * MILLIS);
+        assertThat(tokenBucket.reserve()).isZero();
+        assertThat(tokenBucket.reserve()).isZero();
+        assertThat(tokenBucket.reserve()).isZero();
+        assertThat(tokenBucket.reserve()).isEqualTo(100 * MILLIS);
+    }
+
+    @DisplayName("acquire는 token을 받을 때까지 기다린 뒤 완료된다.")
+    @Test
+    void test_acquire() {
+        // Given
+        final TokenBucket tokenBucket = new TokenBucket(20, 1);
+
+        // When
+        final long startedAt = System.nanoTime();
+        for (int i = 0; i < 3; ++i) {
+            tokenBucket.acquire().block();
+        }
+        final long elapsedMillis = (System.nanoTime() - startedAt) / MILLIS;
+
+        // Then
+        // 첫 token은 바로 받고, 나머지 2개는 50ms 간격으로 받는다.
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(95);
+    }
+
+}